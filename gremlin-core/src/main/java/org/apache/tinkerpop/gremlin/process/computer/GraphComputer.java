@@ -24,7 +24,7 @@ import java.util.concurrent.Future;
  * The {@link GraphComputer} is responsible for the execution of a {@link VertexProgram} and then a set of {@link MapReduce} jobs
  * over the vertices in the {@link org.apache.tinkerpop.gremlin.structure.Graph}. It is up to the {@link GraphComputer} implementation to determine the
  * appropriate memory structures given the computing substrate. {@link GraphComputer} implementations also
- * maintains levels of memory {@link Isolation}: Bulk Synchronous and Dirty Bulk Synchronous.
+ * maintains levels of memory {@link Isolation}: Bulk Synchronous, Dirty Bulk Synchronous and Asynchronous.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Matthias Broecheler (me@matthiasb.com)
@@ -41,7 +41,14 @@ public interface GraphComputer {
          * Computations are carried out in an bulk asynchronous manner.
          * The results of a vertex property update are visible before the end of the round.
          */
-        DIRTY_BSP
+        DIRTY_BSP,
+        /**
+         * Computations are carried out in an asynchronous manner.
+         * Messages and memory updates are visible as soon as they are sent and each message is received only once.
+         * This is only appropriate for vertex programs whose messages are incremental (e.g. traversers) and thus,
+         * only vertex programs that declare {@link VertexProgram.Features#supportsIsolation} for it can be executed.
+         */
+        ASP
     }
 
     public enum ResultGraph {
@@ -211,6 +218,10 @@ public interface GraphComputer {
             return new IllegalArgumentException("The provided isolation is not supported by this graph computer: " + isolation);
         }
 
+        public static IllegalArgumentException isolationNotSupportedByVertexProgram(final VertexProgram vertexProgram, final Isolation isolation) {
+            return new IllegalArgumentException("The provided isolation is not supported by the vertex program: " + vertexProgram + ":" + isolation);
+        }
+
         public static IllegalArgumentException resultGraphPersistCombinationNotSupported(final ResultGraph resultGraph, final Persist persist) {
             return new IllegalArgumentException("The computer does not support the following result graph and persist combination: " + resultGraph + ":" + persist);
         }
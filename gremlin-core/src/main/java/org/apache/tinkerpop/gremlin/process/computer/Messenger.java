@@ -45,4 +45,13 @@ public interface Messenger<M> {
      */
     public void sendMessage(final MessageScope messageScope, final M message);
 
+    /**
+     * The currently executing vertex declares that it has no further work to do. It will not be executed in the
+     * subsequent iterations of the computation until it is sent a message. A {@link GraphComputer} that does not
+     * track active vertices executes every vertex in every iteration and thus, ignores the vote.
+     */
+    public default void voteToHalt() {
+
+    }
+
 }
@@ -275,5 +275,15 @@ public interface VertexProgram<M> extends Cloneable {
         public default boolean requiresEdgePropertyRemoval() {
             return false;
         }
+
+        /**
+         * Whether the vertex program computes the correct result under the provided {@link GraphComputer.Isolation}.
+         * Under {@link GraphComputer.Isolation#ASP} messages are received as soon as they are sent and only once, which
+         * is only correct for vertex programs whose messages are incremental (e.g. traversers) and thus, a vertex
+         * program must declare that it supports it.
+         */
+        public default boolean supportsIsolation(final GraphComputer.Isolation isolation) {
+            return !isolation.equals(GraphComputer.Isolation.ASP);
+        }
     }
 }
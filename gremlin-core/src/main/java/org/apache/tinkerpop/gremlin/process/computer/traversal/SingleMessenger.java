@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.process.computer.Messenger;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -38,7 +39,7 @@ public final class SingleMessenger<M> implements Messenger<M> {
 
     @Override
     public Iterable<M> receiveMessages(final MessageScope messageScope) {
-        return Arrays.asList(this.message);
+        return messageScope instanceof MessageScope.Global ? Arrays.asList(this.message) : Collections.emptyList();
     }
 
     @Override
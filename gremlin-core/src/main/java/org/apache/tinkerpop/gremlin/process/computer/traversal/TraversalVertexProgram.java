@@ -31,15 +31,21 @@ import org.apache.tinkerpop.gremlin.process.computer.traversal.step.map.Computer
 import org.apache.tinkerpop.gremlin.process.computer.traversal.step.sideEffect.mapreduce.TraverserMapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.util.AbstractVertexProgramBuilder;
 import org.apache.tinkerpop.gremlin.process.computer.util.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.MapReducer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMatrix;
@@ -53,8 +59,10 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -67,6 +75,8 @@ import java.util.function.Supplier;
  * If the outputted traverser of the step references a local structure on the vertex (e.g. the vertex, an incident edge, its properties, or an arbitrary object),
  * then the vertex continues to compute the next traverser. If the traverser references another location in the graph,
  * then the traverser is sent to that location in the graph via a message. The messages of TraversalVertexProgram are traversers.
+ * A traverser that is to move from its vertex to the adjacent vertices of a {@link VertexStep} is instead sent along the incident edges
+ * of the step via a {@link MessageScope.Local} message and it is the adjacent vertices that receive it that take the step.
  * This continues until all traversers in the computation have halted.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -77,14 +87,14 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
     private static final String VOTE_TO_HALT = "gremlin.traversalVertexProgram.voteToHalt";
     public static final String TRAVERSAL_SUPPLIER = "gremlin.traversalVertexProgram.traversalSupplier";
 
-    // TODO: if not an adjacent traversal, use Local message scope -- a dual messaging system.
-    private static final Set<MessageScope> MESSAGE_SCOPES = new HashSet<>(Collections.singletonList(MessageScope.Global.instance()));
     private static final Set<String> ELEMENT_COMPUTE_KEYS = new HashSet<>(Arrays.asList(HALTED_TRAVERSERS, TraversalSideEffects.SIDE_EFFECTS));
     private static final Set<String> MEMORY_COMPUTE_KEYS = new HashSet<>(Collections.singletonList(VOTE_TO_HALT));
 
     private LambdaHolder<Supplier<Traversal.Admin<?, ?>>> traversalSupplier;
     private Traversal.Admin<?, ?> traversal;
     private TraversalMatrix<?, ?> traversalMatrix;
+    private Map<String, MessageScope.Local<TraverserSet<?>>> localMessageScopes;
+    private Set<MessageScope> messageScopes;
 
     private final Set<MapReduce> mapReducers = new HashSet<>();
 
@@ -116,6 +126,9 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         if (!this.traversal.isLocked()) this.traversal.applyStrategies();
         ((ComputerResultStep) this.traversal.getEndStep()).byPass();
         this.traversalMatrix = new TraversalMatrix<>(this.traversal);
+        this.localMessageScopes = TraversalVertexProgram.getLocalMessageScopes(this.traversal);
+        this.messageScopes = new HashSet<>(this.localMessageScopes.values());
+        this.messageScopes.add(MessageScope.Global.instance());
         for (final MapReducer<?, ?, ?, ?, ?> mapReducer : TraversalHelper.getStepsOfAssignableClassRecursively(MapReducer.class, this.traversal)) {
             this.mapReducers.add(mapReducer.getMapReduce());
         }
@@ -136,7 +149,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
 
     @Override
     public Set<MessageScope> getMessageScopes(final Memory memory) {
-        return MESSAGE_SCOPES;
+        return this.messageScopes;
     }
 
     @Override
@@ -156,14 +169,14 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                 if (ElementHelper.idExists(vertex.id(), graphStep.getIds())) {
                     final Traverser.Admin<Element> traverser = traverserGenerator.generate(vertex, graphStep, 1l);
                     traverser.setStepId(future);
-                    traverser.detach();
+                    // the traverser is already at its vertex, so it is only detached if it halts
                     if (traverser.isHalted())
-                        haltedTraversers.add((Traverser.Admin) traverser);
+                        haltedTraversers.add((Traverser.Admin) traverser.detach());
                     else
-                        memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, new SingleMessenger<>(messenger, new TraverserSet<>(traverser)), this.traversalMatrix));
+                        memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, new SingleMessenger<>(messenger, new TraverserSet<>(traverser)), this.traversalMatrix, this.localMessageScopes));
                 }
             } else {  // EDGES (process the first step via a message pass)
-                boolean voteToHalt = true;
+                final TraverserSet<Object> edgeTraversers = new TraverserSet<>();
                 final Iterator<Edge> starts = vertex.edges(Direction.OUT);
                 while (starts.hasNext()) {
                     final Edge start = starts.next();
@@ -173,17 +186,19 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                         traverser.detach();
                         if (traverser.isHalted())
                             haltedTraversers.add((Traverser.Admin) traverser);
-                        else {
-                            voteToHalt = false;
-                            messenger.sendMessage(MessageScope.Global.of(vertex), new TraverserSet<>(traverser));
-                        }
+                        else
+                            edgeTraversers.add((Traverser.Admin) traverser);
                     }
                 }
-                memory.and(VOTE_TO_HALT, voteToHalt);
+                if (!edgeTraversers.isEmpty())
+                    messenger.sendMessage(MessageScope.Global.of(vertex), edgeTraversers);
+                memory.and(VOTE_TO_HALT, edgeTraversers.isEmpty());
             }
         } else {  // ITERATION 1+
-            memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, messenger, this.traversalMatrix));
+            memory.and(VOTE_TO_HALT, TraverserExecutor.execute(vertex, messenger, this.traversalMatrix, this.localMessageScopes));
         }
+        // traversers never wait at a vertex and thus, the vertex only has work to do if it is sent a traverser
+        messenger.voteToHalt();
     }
 
     @Override
@@ -253,13 +268,62 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                 return true;
             }
 
+            @Override
+            public boolean requiresLocalMessageScopes() {
+                return !localMessageScopes.isEmpty();
+            }
+
             @Override
             public boolean requiresVertexPropertyAddition() {
                 return true;
             }
+
+            @Override
+            public boolean supportsIsolation(final GraphComputer.Isolation isolation) {
+                // a traverser is processed once wherever it arrives, so it does not matter when it arrives
+                return true;
+            }
         };
     }
 
+    /**
+     * The adjacent vertices of a {@link VertexStep} of the root traversal are reached with a {@link MessageScope.Local}
+     * along the incident edges of the step rather than with a {@link MessageScope.Global} message to each of them.
+     * A traverser sent along an edge only learns which vertex it arrived at, so the traversal must not need paths.
+     * Steps in both directions are excluded as the messengers do not tell the two vertices of an edge apart then.
+     */
+    private static Map<String, MessageScope.Local<TraverserSet<?>>> getLocalMessageScopes(final Traversal.Admin<?, ?> traversal) {
+        final Set<TraverserRequirement> requirements = traversal.getTraverserRequirements();
+        if (requirements.contains(TraverserRequirement.PATH) || requirements.contains(TraverserRequirement.PATH_ACCESS) ||
+                TraversalHelper.hasStepOfAssignableClassRecursively(ProfileStep.class, traversal))
+            return Collections.emptyMap();
+        final Map<String, MessageScope.Local<TraverserSet<?>>> localMessageScopes = new HashMap<>();
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step.getClass().equals(VertexStep.class) && !(step.getNextStep() instanceof EmptyStep)) {
+                final VertexStep<?> vertexStep = (VertexStep<?>) step;
+                if (Vertex.class.isAssignableFrom(vertexStep.getReturnClass()) && !vertexStep.getDirection().equals(Direction.BOTH))
+                    localMessageScopes.put(step.getId(), MessageScope.Local.of(new IncidentTraversalSupplier(vertexStep.getDirection(), vertexStep.getEdgeLabels())));
+            }
+        }
+        return localMessageScopes;
+    }
+
+    private static final class IncidentTraversalSupplier implements Supplier<Traversal<Vertex, Edge>> {
+
+        private final Direction direction;
+        private final String[] edgeLabels;
+
+        private IncidentTraversalSupplier(final Direction direction, final String[] edgeLabels) {
+            this.direction = direction;
+            this.edgeLabels = edgeLabels;
+        }
+
+        @Override
+        public Traversal<Vertex, Edge> get() {
+            return __.<Vertex>start().toE(this.direction, this.edgeLabels);
+        }
+    }
+
     public <S, E> Traversal.Admin<S, E> computerResultTraversal(final ComputerResult result) {
         final Traversal.Admin<S, E> traversal = (Traversal.Admin<S, E>) this.getTraversal();
         ((ComputerResultStep) traversal.getEndStep()).populateTraversers(result);
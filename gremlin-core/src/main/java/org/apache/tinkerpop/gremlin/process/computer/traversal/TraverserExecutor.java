@@ -28,6 +28,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSe
 import org.apache.tinkerpop.gremlin.structure.*;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedElement;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -35,21 +37,47 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public final class TraverserExecutor {
 
-    public static boolean execute(final Vertex vertex, final Messenger<TraverserSet<?>> messenger, final TraversalMatrix<?, ?> traversalMatrix) {
+    public static boolean execute(final Vertex vertex, final Messenger<TraverserSet<?>> messenger, final TraversalMatrix<?, ?> traversalMatrix,
+                                  final Map<String, MessageScope.Local<TraverserSet<?>>> localMessageScopes) {
 
         final TraverserSet<Object> haltedTraversers = vertex.value(TraversalVertexProgram.HALTED_TRAVERSERS);
         final AtomicBoolean voteToHalt = new AtomicBoolean(true);
+        // the traversers that leave the vertex are gathered by the vertex they go to and sent as one message each
+        final Map<Vertex, TraverserSet<Object>> remoteTraversers = new HashMap<>();
+        // the traversers that take a vertex step to the adjacent vertices are gathered by the local message scope of the step
+        final Map<String, TraverserSet<Object>> adjacentTraversers = new HashMap<>();
+        // a traverser sent along the edges of a vertex step is already at the step after it (see below)
+        final Map<String, Step<?, ?>> adjacentSteps = new HashMap<>();
+        localMessageScopes.keySet().forEach(stepId -> {
+            final Step<?, ?> step = traversalMatrix.getStepById(stepId);
+            adjacentSteps.put(step.getNextStep().getId(), step);
+        });
 
         final TraverserSet<Object> aliveTraversers = new TraverserSet<>();
         // gather incoming traversers into a traverser set and gain the 'weighted-set' optimization
         final TraversalSideEffects traversalSideEffects = traversalMatrix.getTraversal().getSideEffects();
         messenger.receiveMessages(MessageScope.Global.instance()).forEach(traverserSet -> {
             traverserSet.forEach(traverser -> {
+                // messengers that do not keep the messages of the scopes apart also hand them out with the local scopes
+                if (adjacentSteps.containsKey(traverser.getStepId())) return;
                 traverser.setSideEffects(traversalSideEffects);
                 traverser.attach(vertex);
                 aliveTraversers.add((Traverser.Admin) traverser);
             });
         });
+        // the traversers of a local scope are shared by all the adjacent vertices and are thus split rather than attached
+        localMessageScopes.forEach((stepId, localMessageScope) -> {
+            final Step<?, ?> step = traversalMatrix.getStepById(stepId);
+            final String nextStepId = step.getNextStep().getId();
+            messenger.receiveMessages(localMessageScope).forEach(traverserSet -> {
+                traverserSet.forEach(traverser -> {
+                    if (!traverser.getStepId().equals(nextStepId)) return;
+                    final Traverser.Admin<Object> split = ((Traverser.Admin) traverser).split(vertex, (Step) step);
+                    split.setSideEffects(traversalSideEffects);
+                    aliveTraversers.add(split);
+                });
+            });
+        });
 
         // while there are still local traversers, process them until they leave the vertex or halt (i.e. isHalted()).
         final TraverserSet<Object> toProcessTraversers = new TraverserSet<>();
@@ -60,9 +88,14 @@ public final class TraverserExecutor {
                     // if the element is remote, then message, else store it locally for re-processing
                     final Vertex hostingVertex = TraverserExecutor.getHostingVertex(traverser.get());
                     if (!vertex.equals(hostingVertex) || traverser.get() instanceof DetachedElement) { // TODO: why is the DetachedElement instanceof needed?
-                        voteToHalt.set(false);
                         traverser.detach();
-                        messenger.sendMessage(MessageScope.Global.of(hostingVertex), new TraverserSet<>(traverser));
+                        remoteTraversers.computeIfAbsent(hostingVertex, host -> new TraverserSet<>()).add(traverser);
+                    } else if (traverser.get() instanceof Vertex && localMessageScopes.containsKey(traverser.getStepId())) {
+                        // the traverser moves on to the step after the vertex step and the adjacent vertices take it
+                        final String stepId = traverser.getStepId();
+                        traverser.detach();
+                        traverser.setStepId(traversalMatrix.getStepById(stepId).getNextStep().getId());
+                        adjacentTraversers.computeIfAbsent(stepId, id -> new TraverserSet<>()).add(traverser);
                     } else
                         toProcessTraversers.add(traverser);
                 } else                                                                              // STANDARD OBJECT
@@ -85,6 +118,15 @@ public final class TraverserExecutor {
 
             toProcessTraversers.clear();
         }
+
+        if (!remoteTraversers.isEmpty()) {
+            voteToHalt.set(false);
+            remoteTraversers.forEach((hostingVertex, traverserSet) -> messenger.sendMessage(MessageScope.Global.of(hostingVertex), traverserSet));
+        }
+        if (!adjacentTraversers.isEmpty()) {
+            voteToHalt.set(false);
+            adjacentTraversers.forEach((stepId, traverserSet) -> messenger.sendMessage(localMessageScopes.get(stepId), traverserSet));
+        }
         return voteToHalt.get();
     }
 
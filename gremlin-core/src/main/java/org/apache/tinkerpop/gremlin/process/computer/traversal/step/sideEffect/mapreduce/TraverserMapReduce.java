@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.process.computer.util.StaticMapReduce;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -35,6 +36,7 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -46,42 +48,65 @@ public final class TraverserMapReduce extends StaticMapReduce<Comparable, Object
 
     private Traversal.Admin<?, ?> traversal;
     private Optional<Comparator<Comparable>> comparator = Optional.empty();
+    private Optional<OrderGlobalStep<Object>> orderStep = Optional.empty();
 
     private TraverserMapReduce() {
     }
 
     public TraverserMapReduce(final Step traversalEndStep) {
         this.traversal = traversalEndStep.getTraversal();
-        this.comparator = Optional.ofNullable(traversalEndStep instanceof ComparatorHolder ? new ChainedComparator<Comparable>(((ComparatorHolder) traversalEndStep).getComparators()) : null);
+        this.setEndStep(traversalEndStep);
     }
 
     @Override
     public void loadState(final Configuration configuration) {
         this.traversal = TraversalVertexProgram.getTraversalSupplier(configuration).get();
-        final Step endStep = this.traversal.getEndStep().getPreviousStep(); // don't get the ComputerResultStep
+        this.setEndStep(this.traversal.getEndStep().getPreviousStep()); // don't get the ComputerResultStep
+    }
+
+    private void setEndStep(final Step endStep) {
         this.comparator = Optional.ofNullable(endStep instanceof ComparatorHolder ? new ChainedComparator<Comparable>(((ComparatorHolder) endStep).getComparators()) : null);
+        // an ordering with a range only ships the traversers within the range out of each combiner
+        this.orderStep = Optional.ofNullable(endStep instanceof OrderGlobalStep && -1l != ((OrderGlobalStep) endStep).getHighRange() ? (OrderGlobalStep<Object>) endStep : null);
     }
 
     @Override
     public boolean doStage(final Stage stage) {
-        return stage.equals(Stage.MAP);
+        return this.orderStep.isPresent() || stage.equals(Stage.MAP);
     }
 
     @Override
     public void map(final Vertex vertex, final MapEmitter<Comparable, Object> emitter) {
-        if (this.comparator.isPresent())
+        if (this.orderStep.isPresent())
+            vertex.<TraverserSet<?>>property(TraversalVertexProgram.HALTED_TRAVERSERS).ifPresent(traverserSet -> traverserSet.forEach(emitter::emit));
+        else if (this.comparator.isPresent())
             vertex.<TraverserSet<?>>property(TraversalVertexProgram.HALTED_TRAVERSERS).ifPresent(traverserSet -> traverserSet.forEach(traverser -> emitter.emit(traverser, traverser)));
         else
             vertex.<TraverserSet<?>>property(TraversalVertexProgram.HALTED_TRAVERSERS).ifPresent(traverserSet -> traverserSet.forEach(emitter::emit));
     }
 
+    @Override
+    public void combine(final Comparable key, final Iterator<Object> values, final ReduceEmitter<Comparable, Object> emitter) {
+        this.reduce(key, values, emitter);
+    }
+
+    @Override
+    public void reduce(final Comparable key, final Iterator<Object> values, final ReduceEmitter<Comparable, Object> emitter) {
+        OrderGlobalStep.topK((Iterator) values, this.orderStep.get().getTraverserComparator(), this.orderStep.get().getHighRange()).forEach(emitter::emit);
+    }
+
     @Override
     public Optional<Comparator<Comparable>> getMapKeySort() {
-        return this.comparator;
+        // the traversers of a ranged ordering are emitted under the default key and ordered by the reduce instead
+        return this.orderStep.isPresent() ? Optional.empty() : this.comparator;
     }
 
     @Override
     public Iterator<Object> generateFinalResult(final Iterator<KeyValue<Comparable, Object>> keyValues) {
+        if (this.orderStep.isPresent()) {
+            final List ordered = IteratorUtils.list(IteratorUtils.map(keyValues, KeyValue::getValue));
+            return OrderGlobalStep.selectRange(ordered, this.orderStep.get().getLowRange(), this.orderStep.get().getHighRange()).iterator();
+        }
         return IteratorUtils.map(keyValues, KeyValue::getValue);
     }
 
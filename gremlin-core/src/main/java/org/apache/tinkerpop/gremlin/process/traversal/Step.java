@@ -83,6 +83,22 @@ public interface Step<S, E> extends Iterator<Traverser<E>>, Serializable, Clonea
      */
     public Step<E, ?> getNextStep();
 
+    /**
+     * Write up to {@code batch.length} of the next traversers of the step into the batch.
+     * This allows steps that process traversers in batches to pull their starts a batch at a time.
+     * The provided default implementation pulls the traversers one at a time.
+     *
+     * @param batch the array to write the traversers into
+     * @return the number of traversers written, where 0 denotes that the step has no more traversers
+     */
+    public default int nextBatch(final Traverser.Admin<E>[] batch) {
+        int size = 0;
+        while (size < batch.length && this.hasNext()) {
+            batch[size++] = (Traverser.Admin<E>) this.next();
+        }
+        return size;
+    }
+
     /**
      * Get the {@link Traversal.Admin} that this step is contained within.
      *
@@ -24,9 +24,11 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.engine.ComputerTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.ParallelTraversalEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.AddVertexStartStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
@@ -47,6 +49,10 @@ public class GraphTraversalSource implements TraversalSource {
         return GraphTraversalSource.build().engine(StandardTraversalEngine.build());
     }
 
+    public static Builder parallel() {
+        return GraphTraversalSource.build().engine(ParallelTraversalEngine.build());
+    }
+
     public static Builder computer() {
         return GraphTraversalSource.build().engine(ComputerTraversalEngine.build());
     }
@@ -62,10 +68,13 @@ public class GraphTraversalSource implements TraversalSource {
     private final TraversalStrategies strategies;
     private final List<TraversalStrategy> withStrategies;
     private final List<Class<? extends TraversalStrategy>> withoutStrategies;
+    private final TraversalPlanCache planCache;
 
-    private GraphTraversalSource(final Graph graph, final TraversalEngine.Builder engine, final List<TraversalStrategy> withStrategies, final List<Class<? extends TraversalStrategy>> withoutStrategies) {
+    private GraphTraversalSource(final Graph graph, final TraversalEngine.Builder engine, final List<TraversalStrategy> withStrategies, final List<Class<? extends TraversalStrategy>> withoutStrategies,
+                                 final TraversalPlanCache planCache) {
         this.graph = graph;
         this.engine = engine;
+        this.planCache = planCache;
         this.withStrategies = withStrategies;
         this.withoutStrategies = withoutStrategies;
         final TraversalStrategies tempStrategies = TraversalStrategies.GlobalCache.getStrategies(this.graph.getClass());
@@ -77,24 +86,26 @@ public class GraphTraversalSource implements TraversalSource {
     }
 
     public GraphTraversal<Vertex, Vertex> addV(final Object... keyValues) {
-        final GraphTraversal.Admin<Vertex, Vertex> traversal = new DefaultGraphTraversal<>(this.graph);
-        traversal.setEngine(this.engine.create(this.graph));
-        traversal.setStrategies(this.strategies);
+        final GraphTraversal.Admin<Vertex, Vertex> traversal = this.generateTraversal();
         return traversal.addStep(new AddVertexStartStep(traversal, keyValues));
     }
 
     public GraphTraversal<Vertex, Vertex> V(final Object... vertexIds) {
-        final GraphTraversal.Admin<Vertex, Vertex> traversal = new DefaultGraphTraversal<>(this.graph);
-        traversal.setEngine(this.engine.create(this.graph));
-        traversal.setStrategies(this.strategies);
+        final GraphTraversal.Admin<Vertex, Vertex> traversal = this.generateTraversal();
         return traversal.addStep(new GraphStep<>(traversal, Vertex.class, vertexIds));
     }
 
     public GraphTraversal<Edge, Edge> E(final Object... edgesIds) {
-        final GraphTraversal.Admin<Edge, Edge> traversal = new DefaultGraphTraversal<>(this.graph);
+        final GraphTraversal.Admin<Edge, Edge> traversal = this.generateTraversal();
+        return traversal.addStep(new GraphStep<>(traversal, Edge.class, edgesIds));
+    }
+
+    private <S> GraphTraversal.Admin<S, S> generateTraversal() {
+        final DefaultGraphTraversal<S, S> traversal = new DefaultGraphTraversal<>(this.graph);
         traversal.setEngine(this.engine.create(this.graph));
         traversal.setStrategies(this.strategies);
-        return traversal.addStep(new GraphStep<>(traversal, Edge.class, edgesIds));
+        traversal.setPlanCache(this.planCache);
+        return traversal;
     }
 
     public Transaction tx() {
@@ -121,7 +132,7 @@ public class GraphTraversalSource implements TraversalSource {
         final GraphTraversalSource.Builder builder = GraphTraversalSource.build().engine(this.engine);
         this.withStrategies.forEach(builder::with);
         this.withoutStrategies.forEach(builder::without);
-        return builder;
+        return builder.planCache(this.planCache);
     }
 
     @Override
@@ -136,9 +147,18 @@ public class GraphTraversalSource implements TraversalSource {
         private TraversalEngine.Builder engineBuilder = StandardTraversalEngine.build();
         private List<TraversalStrategy> withStrategies = null;
         private List<Class<? extends TraversalStrategy>> withoutStrategies = null;
+        private TraversalPlanCache planCache = null;
 
         private Builder() {}
 
+        /**
+         * The cache of compiled traversals that the traversals of the source share. Traversals are not cached by default.
+         */
+        public Builder planCache(final TraversalPlanCache planCache) {
+            this.planCache = planCache;
+            return this;
+        }
+
         @Override
         public Builder engine(final TraversalEngine.Builder engineBuilder) {
             this.engineBuilder = engineBuilder;
@@ -163,7 +183,8 @@ public class GraphTraversalSource implements TraversalSource {
         public GraphTraversalSource create(final Graph graph) {
             return new GraphTraversalSource(graph, this.engineBuilder,
                     null == this.withStrategies ? Collections.emptyList() : this.withStrategies,
-                    null == this.withoutStrategies ? Collections.emptyList() : this.withoutStrategies);
+                    null == this.withoutStrategies ? Collections.emptyList() : this.withoutStrategies,
+                    this.planCache);
         }
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.engine;
+
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TimeLimitStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A standard (OLTP) traversal engine that runs the start of a traversal such as {@code g.V().out().out().count()}
+ * on a {@link ForkJoinPool}. The traversers of the {@link GraphStep} are split into chunks that each run through
+ * their own clone of the steps up to the first barrier and the traversers of all the chunks are merged before they
+ * reach the barrier, which then reduces or collects them on the calling thread as it would on the
+ * {@link StandardTraversalEngine}. The rest of the traversal is processed one traverser at a time.
+ * <p/>
+ * A traversal is only split when its traversers carry neither a path nor a sack, so that equal traversers can be
+ * merged, and when the steps up to the barrier are filters, maps and flat-maps without lambdas, mutations or
+ * side-effects that hold no state across traversers. All other traversals run as they do on the
+ * {@link StandardTraversalEngine}.
+ *
+ * @author agent (agent@local)
+ */
+public final class ParallelTraversalEngine implements TraversalEngine {
+
+    private final transient ForkJoinPool pool;
+    private final int chunkSize;
+
+    private ParallelTraversalEngine(final ForkJoinPool pool, final int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void processTraversal(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep))
+            return;
+        final Set<TraverserRequirement> requirements = traversal.getTraverserRequirements();
+        if (requirements.contains(TraverserRequirement.PATH) || requirements.contains(TraverserRequirement.PATH_ACCESS) ||
+                requirements.contains(TraverserRequirement.SACK))
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof GraphStep))
+            return;
+        int barrier = 1;
+        while (barrier < steps.size() && isParallelizable(steps.get(barrier))) {
+            barrier++;
+        }
+        if (barrier == 1 || barrier == steps.size() ||
+                !(steps.get(barrier) instanceof ReducingBarrierStep || steps.get(barrier) instanceof CollectingBarrierStep))
+            return;
+
+        final List<Step> pipeline = new ArrayList<>(steps.subList(1, barrier));
+        for (int i = 1; i < barrier; i++) {
+            traversal.removeStep(1);
+        }
+        traversal.addStep(1, new ParallelStep<>(traversal, pipeline, this.pool, this.chunkSize));
+    }
+
+    private static boolean isParallelizable(final Step<?, ?> step) {
+        if (step instanceof DedupGlobalStep || step instanceof RangeGlobalStep || step instanceof TimeLimitStep)
+            return false;
+        return (step instanceof FilterStep || step instanceof MapStep || step instanceof FlatMapStep ||
+                step instanceof NoOpBarrierStep) && isThreadSafe(step);
+    }
+
+    private static boolean isThreadSafe(final Step<?, ?> step) {
+        if (step instanceof LambdaHolder || step instanceof Mutating || step instanceof SideEffectCapable ||
+                step instanceof SideEffectStep || step instanceof ProfileStep)
+            return false;
+        if (step instanceof TraversalParent) {
+            for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                if (!child.getSteps().stream().allMatch(ParallelTraversalEngine::isThreadSafe)) return false;
+            }
+            for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                if (!child.getSteps().stream().allMatch(ParallelTraversalEngine::isThreadSafe)) return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Type getType() {
+        return Type.STANDARD;
+    }
+
+    @Override
+    public Optional<GraphComputer> getGraphComputer() {
+        return Optional.empty();
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.traversalEngineString(this);
+    }
+
+    public static class Builder implements TraversalEngine.Builder {
+
+        private transient ForkJoinPool pool = null;
+        private int chunkSize = 1024;
+
+        private Builder() {
+        }
+
+        /**
+         * The pool that the chunks of the traversals run on. Defaults to {@link ForkJoinPool#commonPool()}.
+         */
+        public Builder pool(final ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * The number of traversers of a chunk that is no longer split. Defaults to 1024.
+         */
+        public Builder chunkSize(final int chunkSize) {
+            if (chunkSize < 1)
+                throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        @Override
+        public ParallelTraversalEngine create(final Graph graph) {
+            return new ParallelTraversalEngine(this.pool, this.chunkSize);
+        }
+    }
+}
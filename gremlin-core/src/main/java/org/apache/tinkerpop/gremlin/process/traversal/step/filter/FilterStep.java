@@ -22,11 +22,18 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public abstract class FilterStep<S> extends AbstractStep<S, S> {
 
+    private Traverser.Admin<S>[] startBatch = null;
+    private int startBatchIndex = 0;
+    private int startBatchSize = 0;
+
     public FilterStep(final Traversal.Admin traversal) {
         super(traversal);
     }
@@ -41,5 +48,55 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
         }
     }
 
+    /**
+     * Filter batches of starts into the ends until one has a traverser that passes the filter. The starts of the
+     * batch that follow a start the filter is done with (i.e. whose filter throws a {@link NoSuchElementException})
+     * are filtered by the next call.
+     */
+    @Override
+    protected int processNextBatch(final Traverser.Admin<S>[] ends) {
+        if (null == this.startBatch || this.startBatch.length != ends.length)
+            this.startBatch = (Traverser.Admin<S>[]) new Traverser.Admin[ends.length];
+        int kept = 0;
+        while (true) {
+            if (this.startBatchIndex == this.startBatchSize) {
+                if (kept > 0)
+                    return kept;
+                this.startBatchIndex = 0;
+                this.startBatchSize = this.starts.nextBatch(this.startBatch);
+                if (0 == this.startBatchSize)
+                    return 0;
+            }
+            final Traverser.Admin<S> traverser = this.startBatch[this.startBatchIndex];
+            this.startBatch[this.startBatchIndex++] = null;
+            try {
+                if (this.filter(traverser))
+                    ends[kept++] = traverser;
+            } catch (final NoSuchElementException e) {
+                // the filter is done (e.g. beyond a range), but the traversers that passed it are still emitted
+                if (0 == kept) throw e;
+                return kept;
+            }
+        }
+    }
+
     protected abstract boolean filter(final Traverser.Admin<S> traverser);
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (null != this.startBatch)
+            Arrays.fill(this.startBatch, null);
+        this.startBatchIndex = 0;
+        this.startBatchSize = 0;
+    }
+
+    @Override
+    public FilterStep<S> clone() {
+        final FilterStep<S> clone = (FilterStep<S>) super.clone();
+        clone.startBatch = null;
+        clone.startBatchIndex = 0;
+        clone.startBatchSize = 0;
+        return clone;
+    }
 }
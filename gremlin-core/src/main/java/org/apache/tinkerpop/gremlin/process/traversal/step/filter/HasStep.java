@@ -35,7 +35,7 @@ import java.util.Set;
  */
 public class HasStep<S extends Element> extends FilterStep<S> implements HasContainerHolder {   // TODO: make final when graph strategies are fixed up
 
-    private final HasContainer hasContainer;
+    private HasContainer hasContainer;
 
     public HasStep(final Traversal.Admin traversal, final HasContainer hasContainer) {
         super(traversal);
@@ -62,6 +62,13 @@ public class HasStep<S extends Element> extends FilterStep<S> implements HasCont
         throw new UnsupportedOperationException(this.getClass().getSimpleName() + " does not support adding new HasContainers");
     }
 
+    @Override
+    public HasStep<S> clone() {
+        final HasStep<S> clone = (HasStep<S>) super.clone();
+        clone.hasContainer = this.hasContainer.clone();
+        return clone;
+    }
+
     @Override
     public Set<TraverserRequirement> getRequirements() {
         return Collections.singleton(TraverserRequirement.OBJECT);
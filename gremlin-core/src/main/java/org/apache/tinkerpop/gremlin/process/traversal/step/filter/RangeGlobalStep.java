@@ -48,11 +48,31 @@ public final class RangeGlobalStep<S> extends FilterStep<S> implements Ranging {
         this.high = high;
     }
 
+    /**
+     * Once the range is satisfied, no more starts are pulled so the steps before the range stop processing.
+     */
+    @Override
+    protected Traverser<S> processNextStart() {
+        if (this.isSatisfied())
+            throw FastNoSuchElementException.instance();
+        return super.processNextStart();
+    }
+
+    @Override
+    protected int processNextBatch(final Traverser.Admin<S>[] ends) {
+        if (this.isSatisfied())
+            throw FastNoSuchElementException.instance();
+        return super.processNextBatch(ends);
+    }
+
+    private boolean isSatisfied() {
+        return this.high != -1 && this.counter.get() >= this.high;
+    }
+
     @Override
     protected boolean filter(final Traverser.Admin<S> traverser) {
-        if (this.high != -1 && this.counter.get() >= this.high) {
+        if (this.isSatisfied())
             throw FastNoSuchElementException.instance();
-        }
 
         long avail = traverser.bulk();
         if (this.counter.get() + avail <= this.low) {
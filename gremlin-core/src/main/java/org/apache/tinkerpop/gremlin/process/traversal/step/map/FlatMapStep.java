@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
 
+import java.util.Arrays;
 import java.util.Iterator;
 
 /**
@@ -32,6 +33,9 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
 
     private Traverser.Admin<S> head = null;
     private Iterator<E> iterator = EmptyIterator.instance();
+    private Traverser.Admin<S>[] startBatch = null;
+    private int startBatchIndex = 0;
+    private int startBatchSize = 0;
 
     public FlatMapStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -49,11 +53,52 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
         }
     }
 
+    /**
+     * Fill the ends with the flattened traversers of a batch of starts. The iterator of the last start is carried
+     * over to the next batch.
+     */
+    @Override
+    protected int processNextBatch(final Traverser.Admin<E>[] ends) {
+        if (null == this.startBatch || this.startBatch.length != ends.length)
+            this.startBatch = (Traverser.Admin<S>[]) new Traverser.Admin[ends.length];
+        int size = 0;
+        while (size < ends.length) {
+            if (this.iterator.hasNext()) {
+                ends[size++] = this.head.split(this.iterator.next(), this);
+            } else {
+                if (this.startBatchIndex == this.startBatchSize) {
+                    this.startBatchIndex = 0;
+                    this.startBatchSize = this.starts.nextBatch(this.startBatch);
+                    if (0 == this.startBatchSize)
+                        break;
+                }
+                this.head = this.startBatch[this.startBatchIndex];
+                this.startBatch[this.startBatchIndex++] = null;
+                this.iterator = this.flatMap(this.head);
+            }
+        }
+        return size;
+    }
+
     protected abstract Iterator<E> flatMap(final Traverser.Admin<S> traverser);
 
     @Override
     public void reset() {
         super.reset();
         this.iterator = EmptyIterator.instance();
+        if (null != this.startBatch)
+            Arrays.fill(this.startBatch, null);
+        this.startBatchIndex = 0;
+        this.startBatchSize = 0;
+    }
+
+    @Override
+    public FlatMapStep<S, E> clone() {
+        final FlatMapStep<S, E> clone = (FlatMapStep<S, E>) super.clone();
+        clone.iterator = EmptyIterator.instance();
+        clone.startBatch = null;
+        clone.startBatchIndex = 0;
+        clone.startBatchSize = 0;
+        return clone;
     }
 }
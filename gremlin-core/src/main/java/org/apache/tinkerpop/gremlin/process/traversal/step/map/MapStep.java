@@ -23,7 +23,9 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
@@ -31,6 +33,10 @@ import java.util.Set;
  */
 public abstract class MapStep<S, E> extends AbstractStep<S, E> {
 
+    private Traverser.Admin<S>[] startBatch = null;
+    private int startBatchIndex = 0;
+    private int startBatchSize = 0;
+
     public MapStep(final Traversal.Admin traversal) {
         super(traversal);
     }
@@ -43,8 +49,53 @@ public abstract class MapStep<S, E> extends AbstractStep<S, E> {
         }
     }
 
+    /**
+     * Map a batch of starts into the ends. The starts of the batch that follow a start the step is done with (i.e.
+     * whose map throws a {@link NoSuchElementException}) are mapped by the next call.
+     */
+    @Override
+    protected int processNextBatch(final Traverser.Admin<E>[] ends) {
+        if (null == this.startBatch || this.startBatch.length != ends.length)
+            this.startBatch = (Traverser.Admin<S>[]) new Traverser.Admin[ends.length];
+        if (this.startBatchIndex == this.startBatchSize) {
+            this.startBatchIndex = 0;
+            this.startBatchSize = this.starts.nextBatch(this.startBatch);
+        }
+        int size = 0;
+        while (this.startBatchIndex < this.startBatchSize) {
+            final Traverser.Admin<S> traverser = this.startBatch[this.startBatchIndex];
+            this.startBatch[this.startBatchIndex++] = null;
+            try {
+                ends[size] = traverser.split(this.map(traverser), this);
+                size++;
+            } catch (final NoSuchElementException e) {
+                if (0 == size) throw e;
+                return size;
+            }
+        }
+        return size;
+    }
+
     protected abstract E map(final Traverser.Admin<S> traverser);
 
+    @Override
+    public void reset() {
+        super.reset();
+        if (null != this.startBatch)
+            Arrays.fill(this.startBatch, null);
+        this.startBatchIndex = 0;
+        this.startBatchSize = 0;
+    }
+
+    @Override
+    public MapStep<S, E> clone() {
+        final MapStep<S, E> clone = (MapStep<S, E>) super.clone();
+        clone.startBatch = null;
+        clone.startBatchIndex = 0;
+        clone.startBatchSize = 0;
+        return clone;
+    }
+
     @Override
     public Set<TraverserRequirement> getRequirements() {
         return Collections.singleton(TraverserRequirement.PATH_ACCESS); // TODO: this is bad -- just a hack right now.
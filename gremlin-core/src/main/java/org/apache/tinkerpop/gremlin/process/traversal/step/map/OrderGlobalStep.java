@@ -19,8 +19,11 @@
 package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.ComparatorHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.EngineDependent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
@@ -33,16 +36,22 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implements ComparatorHolder<S> {
+public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implements ComparatorHolder<S>, EngineDependent {
 
     private final List<Comparator<S>> comparators = new ArrayList<>();
+    private long low = 0l;
+    private long high = -1l;
+    private boolean onGraphComputer = false;
 
     public OrderGlobalStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -50,7 +59,52 @@ public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implement
 
     @Override
     public void barrierConsumer(final TraverserSet<S> traverserSet) {
-        traverserSet.sort(this.comparators.isEmpty() ? new ComparatorTraverser(Order.incr) : new ChainedComparator(ComparatorTraverser.convertComparator((List) this.comparators)));
+        traverserSet.sort(this.getTraverserComparator());
+    }
+
+    /**
+     * With a range, only the traversers within the range are kept while the starts are drained so that ordering
+     * n traversers takes O(n log k) time and O(k) memory for a range that ends at k. On a graph computer, the range
+     * is applied to the halted traversers of all the workers by the {@code TraverserMapReduce} instead.
+     */
+    @Override
+    public Traverser<S> processNextStart() {
+        if (-1l == this.high || this.onGraphComputer)
+            return super.processNextStart();
+        if (this.starts.hasNext()) {
+            for (final Traverser.Admin<S> traverser : OrderGlobalStep.selectRange(OrderGlobalStep.topK(this.starts, this.getTraverserComparator(), this.high), this.low, this.high)) {
+                this.traverserSet.add(traverser);
+            }
+        }
+        return this.traverserSet.remove();
+    }
+
+    @Override
+    public void onEngine(final TraversalEngine traversalEngine) {
+        this.onGraphComputer = traversalEngine.isComputer();
+    }
+
+    /**
+     * Have the step only emit the ordered traversers from {@code low} (inclusive) until {@code high} (exclusive),
+     * like an ordering followed by a {@link RangeGlobalStep}.
+     */
+    public void setRange(final long low, final long high) {
+        if (low < 0 || high < low)
+            throw new IllegalArgumentException("Not a legal range: [" + low + ", " + high + ']');
+        this.low = low;
+        this.high = high;
+    }
+
+    public long getLowRange() {
+        return this.low;
+    }
+
+    public long getHighRange() {
+        return this.high;
+    }
+
+    public Comparator<Traverser<S>> getTraverserComparator() {
+        return this.comparators.isEmpty() ? new ComparatorTraverser(Order.incr) : new ChainedComparator(ComparatorTraverser.convertComparator((List) this.comparators));
     }
 
     @Override
@@ -65,16 +119,74 @@ public final class OrderGlobalStep<S> extends CollectingBarrierStep<S> implement
 
     @Override
     public String toString() {
-        return TraversalHelper.makeStepString(this, this.comparators);
+        return -1l == this.high ?
+                TraversalHelper.makeStepString(this, this.comparators) :
+                TraversalHelper.makeStepString(this, this.comparators, this.low, this.high);
     }
 
     @Override
     public Set<TraverserRequirement> getRequirements() {
-        return Collections.singleton(TraverserRequirement.OBJECT);
+        return EnumSet.of(TraverserRequirement.OBJECT, TraverserRequirement.BULK);
+    }
+
+    /**
+     * Drain the traversers into a bounded heap that holds the first traversers (by bulk) that make up {@code k}, and
+     * return them in order. Traversers that compare equal keep the order in which they arrived.
+     */
+    public static <S> List<Traverser.Admin<S>> topK(final Iterator<Traverser.Admin<S>> traversers, final Comparator<Traverser<S>> comparator, final long k) {
+        final Comparator<RankedTraverser<S>> ranking = (a, b) -> {
+            final int compare = comparator.compare(a.traverser, b.traverser);
+            return 0 != compare ? compare : Long.compare(a.rank, b.rank);
+        };
+        final PriorityQueue<RankedTraverser<S>> heap = new PriorityQueue<>(11, ranking.reversed());
+        long rank = 0l;
+        long bulk = 0l;
+        while (traversers.hasNext()) {
+            final Traverser.Admin<S> traverser = traversers.next();
+            heap.add(new RankedTraverser<>(traverser, rank++));
+            bulk = bulk + traverser.bulk();
+            while (!heap.isEmpty() && bulk - heap.peek().traverser.bulk() >= k) {
+                bulk = bulk - heap.poll().traverser.bulk();
+            }
+        }
+        final List<RankedTraverser<S>> ranked = new ArrayList<>(heap);
+        Collections.sort(ranked, ranking);
+        return ranked.stream().map(r -> r.traverser).collect(Collectors.toList());
+    }
+
+    /**
+     * Skip the traversers before {@code low} and trim those at or beyond {@code high}, splitting the bulk of the
+     * traversers on the boundaries.
+     */
+    public static <S> List<Traverser.Admin<S>> selectRange(final List<Traverser.Admin<S>> ordered, final long low, final long high) {
+        final List<Traverser.Admin<S>> selected = new ArrayList<>();
+        long counter = 0l;
+        for (final Traverser.Admin<S> traverser : ordered) {
+            if (counter >= high) break;
+            final long bulk = traverser.bulk();
+            if (counter + bulk > low) {
+                final long emit = Math.min(counter + bulk, high) - Math.max(counter, low);
+                traverser.setBulk(emit);
+                selected.add(traverser);
+            }
+            counter = counter + bulk;
+        }
+        return selected;
     }
 
     /////
 
+    private static final class RankedTraverser<S> {
+
+        private final Traverser.Admin<S> traverser;
+        private final long rank;
+
+        private RankedTraverser(final Traverser.Admin<S> traverser, final long rank) {
+            this.traverser = traverser;
+            this.rank = rank;
+        }
+    }
+
     private static class ComparatorTraverser<S> implements Comparator<Traverser<S>>, Serializable {
 
         private final Comparator<S> comparator;
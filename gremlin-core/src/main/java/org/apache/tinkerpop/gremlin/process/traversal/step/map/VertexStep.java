@@ -20,23 +20,42 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.T;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.apache.tinkerpop.gremlin.structure.Contains;
 import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
+ * A step that emits the incident edges or the adjacent vertices of its vertices. A step that emits edges can hold
+ * the {@link HasContainer}s of the has-steps that follow it (see
+ * {@link org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.VertexCentricQueryStrategy}), in which
+ * case only the edges that satisfy all of them are emitted. This makes the step a vertex-centric query that a provider
+ * can answer from an index of the edges of the vertex. A container that only tests the label of the edges narrows
+ * the edge labels of the step instead.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> {
+public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> implements HasContainerHolder {
 
-    private final String[] edgeLabels;
+    private String[] edgeLabels;
+    private List<HasContainer> hasContainers = new ArrayList<>();
     private Direction direction;
     private final Class<E> returnClass;
 
@@ -49,9 +68,12 @@ public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> {
 
     @Override
     protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
-        return Vertex.class.isAssignableFrom(this.returnClass) ?
-                (Iterator<E>) traverser.get().vertices(this.direction, this.edgeLabels) :
-                (Iterator<E>) traverser.get().edges(this.direction, this.edgeLabels);
+        if (Vertex.class.isAssignableFrom(this.returnClass))
+            return (Iterator<E>) traverser.get().vertices(this.direction, this.edgeLabels);
+        final Iterator<Edge> edges = traverser.get().edges(this.direction, this.edgeLabels);
+        return (Iterator<E>) (this.hasContainers.isEmpty() ?
+                edges :
+                IteratorUtils.filter(edges, edge -> HasContainer.testAll(edge, this.hasContainers)));
     }
 
     public Direction getDirection() {
@@ -70,9 +92,63 @@ public class VertexStep<E extends Element> extends FlatMapStep<Vertex, E> {
         this.direction = this.direction.opposite();
     }
 
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return this.hasContainers;
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        if (!Edge.class.isAssignableFrom(this.returnClass))
+            throw new IllegalStateException("Only a " + this.getClass().getSimpleName() + " that emits edges can hold HasContainers: " + this);
+        final Set<String> labels = labels(hasContainer);
+        if (null != labels) {
+            if (this.edgeLabels.length > 0)
+                labels.retainAll(Arrays.asList(this.edgeLabels));
+            // an empty intersection matches no edge, which the container itself then tests
+            if (!labels.isEmpty()) {
+                this.edgeLabels = labels.toArray(new String[labels.size()]);
+                return;
+            }
+        }
+        this.hasContainers.add(hasContainer);
+    }
+
+    /**
+     * The labels that the container accepts if it only tests the label of the edges for equality.
+     */
+    private static Set<String> labels(final HasContainer hasContainer) {
+        if (!hasContainer.key.equals(T.label.getAccessor()))
+            return null;
+        if (Compare.eq == hasContainer.predicate && hasContainer.value instanceof String)
+            return new LinkedHashSet<>(Collections.singleton((String) hasContainer.value));
+        if (Contains.within == hasContainer.predicate && hasContainer.value instanceof Collection) {
+            final Set<String> labels = new LinkedHashSet<>();
+            for (final Object label : (Collection) hasContainer.value) {
+                if (!(label instanceof String))
+                    return null;
+                labels.add((String) label);
+            }
+            return labels.isEmpty() ? null : labels;
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
-        return TraversalHelper.makeStepString(this, this.direction, Arrays.asList(this.edgeLabels), this.returnClass.getSimpleName().toLowerCase());
+        return this.hasContainers.isEmpty() ?
+                TraversalHelper.makeStepString(this, this.direction, Arrays.asList(this.edgeLabels), this.returnClass.getSimpleName().toLowerCase()) :
+                TraversalHelper.makeStepString(this, this.direction, Arrays.asList(this.edgeLabels), this.returnClass.getSimpleName().toLowerCase(), this.hasContainers);
+    }
+
+    @Override
+    public VertexStep<E> clone() {
+        final VertexStep<E> clone = (VertexStep<E>) super.clone();
+        clone.hasContainers = new ArrayList<>(this.hasContainers.size());
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.hasContainers.add(hasContainer.clone());
+        }
+        return clone;
     }
 
     @Override
@@ -33,6 +33,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -90,6 +92,16 @@ public class GraphStep<S extends Element> extends StartStep<S> implements Engine
         this.iteratorSupplier = iteratorSupplier;
     }
 
+    /**
+     * Get the elements of the step as a {@link Spliterator} for a consumer that splits them up front, such as a
+     * {@link org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep}. By default the iterator of the
+     * step is wrapped, which can only be split by iterating it, so a provider that can split its elements without
+     * iterating them should override this with a sized spliterator.
+     */
+    public Spliterator<S> getSpliterator() {
+        return Spliterators.spliteratorUnknownSize(null == this.iteratorSupplier ? EmptyIterator.instance() : this.iteratorSupplier.get(), Spliterator.NONNULL);
+    }
+
     public Object[] getIds() {
         return this.ids;
     }
@@ -18,11 +18,13 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
@@ -39,6 +41,9 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     protected ExpandableStepIterator<S> starts;
     protected Traverser<E> nextEnd = null;
     protected boolean traverserStepIdSetByChild = false; // TODO: Step.teleport(traverser, step)
+    protected Traverser.Admin<E>[] endBatch = null;
+    private int endBatchIndex = 0;
+    private int endBatchSize = 0;
 
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
@@ -74,6 +79,27 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public void reset() {
         this.starts.clear();
         this.nextEnd = null;
+        if (null != this.endBatch) {
+            Arrays.fill(this.endBatch, null);
+            this.endBatchIndex = 0;
+            this.endBatchSize = 0;
+        }
+    }
+
+    /**
+     * Process the traversers of the step in batches of the provided size, where a size of 1 (the default) processes
+     * them one at a time. In batch mode, the step pulls a batch of starts ahead of the traversers it has emitted.
+     *
+     * @param batchSize the number of traversers to process per call to {@link #processNextBatch}
+     */
+    public void setBatchSize(final int batchSize) {
+        this.endBatch = batchSize > 1 ? (Traverser.Admin<E>[]) new Traverser.Admin[batchSize] : null;
+        this.endBatchIndex = 0;
+        this.endBatchSize = 0;
+    }
+
+    public int getBatchSize() {
+        return null == this.endBatch ? 1 : this.endBatch.length;
     }
 
     @Override
@@ -108,7 +134,13 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public Traverser<E> next() {
-        if (null != this.nextEnd) {
+        if (null != this.endBatch) {
+            if (this.endBatchIndex == this.endBatchSize && !this.fillEndBatch())
+                throw FastNoSuchElementException.instance();
+            final Traverser.Admin<E> traverser = this.endBatch[this.endBatchIndex];
+            this.endBatch[this.endBatchIndex++] = null;
+            return traverser;
+        } else if (null != this.nextEnd) {
             try {
                 return this.prepareTraversalForNextStep(this.nextEnd);
             } finally {
@@ -126,7 +158,9 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public boolean hasNext() {
-        if (null != this.nextEnd)
+        if (null != this.endBatch)
+            return this.endBatchIndex < this.endBatchSize || this.fillEndBatch();
+        else if (null != this.nextEnd)
             return true;
         else {
             try {
@@ -153,8 +187,68 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         this.traversal = traversal;
     }
 
+    @Override
+    public int nextBatch(final Traverser.Admin<E>[] batch) {
+        if (null == this.endBatch)
+            return Step.super.nextBatch(batch);
+        else if (this.endBatchIndex < this.endBatchSize) {
+            final int size = Math.min(batch.length, this.endBatchSize - this.endBatchIndex);
+            System.arraycopy(this.endBatch, this.endBatchIndex, batch, 0, size);
+            Arrays.fill(this.endBatch, this.endBatchIndex, this.endBatchIndex + size, null);
+            this.endBatchIndex = this.endBatchIndex + size;
+            return size;
+        } else
+            return this.processEnds(batch);
+    }
+
     protected abstract Traverser<E> processNextStart() throws NoSuchElementException;
 
+    /**
+     * Write up to {@code ends.length} traversers into the ends, throwing a {@link NoSuchElementException} (or
+     * returning 0) if there are none. Steps that can process a batch of starts at once override this method, else
+     * it is backed by {@link #processNextStart()}.
+     */
+    protected int processNextBatch(final Traverser.Admin<E>[] ends) throws NoSuchElementException {
+        int size = 0;
+        try {
+            while (size < ends.length) {
+                final Traverser.Admin<E> traverser = (Traverser.Admin<E>) this.processNextStart();
+                ends[size++] = traverser;
+            }
+        } catch (final NoSuchElementException e) {
+            if (0 == size) throw e;
+        }
+        return size;
+    }
+
+    private boolean fillEndBatch() {
+        this.endBatchIndex = 0;
+        this.endBatchSize = this.processEnds(this.endBatch);
+        return this.endBatchSize > 0;
+    }
+
+    private int processEnds(final Traverser.Admin<E>[] ends) {
+        while (true) {
+            final int size;
+            try {
+                size = this.processNextBatch(ends);
+            } catch (final NoSuchElementException e) {
+                return 0;
+            }
+            if (0 == size)
+                return 0;
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                final Traverser.Admin<E> traverser = ends[i];
+                ends[i] = null;
+                if (0 != traverser.bulk())
+                    ends[kept++] = (Traverser.Admin<E>) this.prepareTraversalForNextStep(traverser);
+            }
+            if (kept > 0)
+                return kept;
+        }
+    }
+
     public String toString() {
         return TraversalHelper.makeStepString(this);
     }
@@ -168,6 +262,8 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             clone.previousStep = EmptyStep.instance();
             clone.nextStep = EmptyStep.instance();
             clone.nextEnd = null;
+            if (null != clone.endBatch)
+                clone.setBatchSize(clone.endBatch.length);
             return clone;
         } catch (CloneNotSupportedException e) {
             throw new IllegalStateException(e.getMessage(), e);
@@ -30,7 +30,7 @@ import java.util.Set;
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public abstract class CollectingBarrierStep<S> extends AbstractStep<S, S> {
-    private TraverserSet<S> traverserSet = new TraverserSet<>();
+    protected TraverserSet<S> traverserSet = new TraverserSet<>();
 
     public CollectingBarrierStep(final Traversal.Admin traversal) {
         super(traversal);
@@ -76,7 +76,7 @@ public abstract class ComputerAwareStep<S, E> extends AbstractStep<S, E> impleme
         @Override
         protected Traverser<S> processNextStart() throws NoSuchElementException {
             final Traverser.Admin<S> start = this.starts.next();
-            if (this.traverserStepIdSetByChild) start.setStepId(ComputerAwareStep.this.getNextStep().getId());
+            if (this.traverserStepIdSetByChild) start.setStepId(this.getTraversal().getParent().asStep().getNextStep().getId());
             return start;
         }
 
@@ -57,6 +57,31 @@ public final class ExpandableStepIterator<E> implements Iterator<Traverser.Admin
         return this.traverserSet.remove();
     }
 
+    /**
+     * Write up to {@code batch.length} of the next starts into the batch, pulling a batch from the previous step once
+     * the added starts are drained.
+     *
+     * @return the number of starts written, where 0 denotes that there are no more starts
+     */
+    public int nextBatch(final Traverser.Admin<E>[] batch) {
+        int size = 0;
+        while (size < batch.length && !this.traverserSet.isEmpty()) {
+            batch[size++] = this.traverserSet.remove();
+        }
+        while (size < batch.length && this.traverserIterators.hasNext()) {
+            batch[size++] = this.traverserIterators.next();
+        }
+        if (0 != size)
+            return size;
+        /////////////
+        size = ((Step) this.hostStep.getPreviousStep()).nextBatch(batch);
+        /////////////
+        while (size < batch.length && !this.traverserSet.isEmpty()) {
+            batch[size++] = this.traverserSet.remove();
+        }
+        return size;
+    }
+
     public void add(final Iterator<Traverser.Admin<E>> iterator) {
         this.traverserIterators.addIterator(iterator);
     }
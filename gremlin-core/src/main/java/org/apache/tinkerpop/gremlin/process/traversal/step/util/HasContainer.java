@@ -33,7 +33,7 @@ import java.util.function.BiPredicate;
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class HasContainer implements Serializable {
+public final class HasContainer implements Serializable, Cloneable {
 
     public String key;
     public BiPredicate predicate;
@@ -102,6 +102,15 @@ public final class HasContainer implements Serializable {
         }
     }
 
+    @Override
+    public HasContainer clone() {
+        try {
+            return (HasContainer) super.clone();
+        } catch (final CloneNotSupportedException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
     // note that if the user is looking for a label property key (e.g.), then it will look the same as looking for the label of the element.
     public String toString() {
         return this.value == null ?
@@ -22,20 +22,32 @@ import org.apache.tinkerpop.gremlin.process.traversal.Path;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * A path that is never copied as it is extended, so the traversers that split off a traverser share the path they
+ * were split from. The first {@code MAX_FLAT_SIZE} objects of a path are held in arrays, which are copied as the
+ * path is extended, and every later object in a node that links back to the path it extends. Label sets are
+ * interned and immutable, and a path without any labels holds no label sets at all.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class ImmutablePath implements Path, Serializable, Cloneable {
 
+    private static final int MAX_FLAT_SIZE = 8;
+    private static final int MAX_INTERNED_LABEL_SETS = 1024;
+    private static final Map<Set<String>, Set<String>> LABEL_SETS = new ConcurrentHashMap<>();
+
     private Path previousPath = HeadPath.instance();
     private Object currentObject;
-    private Set<String> currentLabels = new HashSet<>();
+    private Set<String> currentLabels = Collections.emptySet();
+    private int size;
 
     protected ImmutablePath() {
 
@@ -51,20 +63,16 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         return this;
     }
 
-    private ImmutablePath(final Object currentObject, final String... currentLabels) {
-        this(HeadPath.instance(), currentObject, currentLabels);
-    }
-
     private ImmutablePath(final Path previousPath, final Object currentObject, final String... currentLabels) {
         this.previousPath = previousPath;
         this.currentObject = currentObject;
-        if (currentLabels.length > 0)
-            Stream.of(currentLabels).forEach(this.currentLabels::add);
+        this.currentLabels = labelSet(currentLabels);
+        this.size = previousPath.size() + 1;
     }
 
     @Override
     public int size() {
-        return this.previousPath.size() + 1;
+        return this.size;
     }
 
     @Override
@@ -74,33 +82,77 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
     @Override
     public <A> A get(final int index) {
-        return (this.size() - 1) == index ? (A) this.currentObject : this.previousPath.get(index);
+        Path path = this;
+        while (path instanceof ImmutablePath) {
+            final ImmutablePath node = (ImmutablePath) path;
+            if (node.size - 1 == index)
+                return (A) node.currentObject;
+            path = node.previousPath;
+        }
+        return path.get(index);
+    }
+
+    @Override
+    public <A> A get(final String label) throws IllegalArgumentException {
+        // walk back from the end and restore the order of the objects of the label if there is more than one
+        final List<Object> objects = new ArrayList<>(1);
+        Path path = this;
+        while (path instanceof ImmutablePath) {
+            final ImmutablePath node = (ImmutablePath) path;
+            if (node.currentLabels.contains(label))
+                objects.add(node.currentObject);
+            path = node.previousPath;
+        }
+        if (path instanceof FlatPath)
+            ((FlatPath) path).collectObjects(label, objects);
+        if (objects.isEmpty())
+            throw Path.Exceptions.stepWithProvidedLabelDoesNotExist(label);
+        if (1 == objects.size())
+            return (A) objects.get(0);
+        Collections.reverse(objects);
+        return (A) objects;
     }
 
     @Override
     public boolean hasLabel(final String label) {
-        return this.currentLabels.contains(label) || this.previousPath.hasLabel(label);
+        Path path = this;
+        while (path instanceof ImmutablePath) {
+            if (((ImmutablePath) path).currentLabels.contains(label))
+                return true;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return path.hasLabel(label);
     }
 
     @Override
     public void addLabel(final String label) {
-        this.currentLabels.add(label);
+        this.currentLabels = addLabel(this.currentLabels, label);
     }
 
     @Override
     public List<Object> objects() {
-        final List<Object> objectPath = new ArrayList<>();
-        objectPath.addAll(this.previousPath.objects());
-        objectPath.add(this.currentObject);
-        return Collections.unmodifiableList(objectPath);
+        final Object[] objects = new Object[this.size];
+        Path path = this;
+        while (path instanceof ImmutablePath) {
+            objects[((ImmutablePath) path).size - 1] = ((ImmutablePath) path).currentObject;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        if (path instanceof FlatPath)
+            System.arraycopy(((FlatPath) path).objects, 0, objects, 0, path.size());
+        return Collections.unmodifiableList(Arrays.asList(objects));
     }
 
     @Override
     public List<Set<String>> labels() {
-        final List<Set<String>> labelPath = new ArrayList<>();
-        labelPath.addAll(this.previousPath.labels());
-        labelPath.add(this.currentLabels);
-        return Collections.unmodifiableList(labelPath);
+        final Set<String>[] labels = new Set[this.size];
+        Path path = this;
+        while (path instanceof ImmutablePath) {
+            labels[((ImmutablePath) path).size - 1] = ((ImmutablePath) path).currentLabels;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        if (path instanceof FlatPath)
+            ((FlatPath) path).copyLabels(labels);
+        return Collections.unmodifiableList(Arrays.asList(labels));
     }
 
     @Override
@@ -108,6 +160,158 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
         return this.objects().toString();
     }
 
+    /**
+     * The shared, immutable set of the labels. Label sets come from the labels of the steps of a traversal, so there
+     * are few of them and each is interned up to a bound.
+     */
+    private static Set<String> labelSet(final String... labels) {
+        if (0 == labels.length)
+            return Collections.emptySet();
+        final Set<String> set = 1 == labels.length ?
+                Collections.singleton(labels[0]) :
+                Collections.unmodifiableSet(new HashSet<>(Arrays.asList(labels)));
+        return intern(set);
+    }
+
+    private static Set<String> addLabel(final Set<String> labels, final String label) {
+        if (labels.contains(label))
+            return labels;
+        if (labels.isEmpty())
+            return intern(Collections.singleton(label));
+        final Set<String> set = new HashSet<>(labels);
+        set.add(label);
+        return intern(Collections.unmodifiableSet(set));
+    }
+
+    private static Set<String> intern(final Set<String> labels) {
+        final Set<String> interned = LABEL_SETS.get(labels);
+        if (null != interned)
+            return interned;
+        if (LABEL_SETS.size() < MAX_INTERNED_LABEL_SETS) {
+            final Set<String> previous = LABEL_SETS.putIfAbsent(labels, labels);
+            return null == previous ? labels : previous;
+        }
+        return labels;
+    }
+
+    /**
+     * A short path that holds its objects and labels in arrays. The label array is {@code null} as long as none of
+     * the objects of the path are labeled.
+     */
+    private static final class FlatPath implements Path, Serializable {
+
+        private final Object[] objects;
+        private Set<String>[] labels;
+
+        private FlatPath(final Object[] objects, final Set<String>[] labels) {
+            this.objects = objects;
+            this.labels = labels;
+        }
+
+        @Override
+        public int size() {
+            return this.objects.length;
+        }
+
+        @Override
+        public Path extend(final Object object, final String... labels) {
+            if (this.objects.length == MAX_FLAT_SIZE)
+                return new ImmutablePath(this, object, labels);
+            final Object[] extendedObjects = Arrays.copyOf(this.objects, this.objects.length + 1);
+            extendedObjects[this.objects.length] = object;
+            Set<String>[] extendedLabels = null;
+            if (null != this.labels || labels.length > 0) {
+                extendedLabels = null == this.labels ? emptyLabels(this.objects.length + 1) : Arrays.copyOf(this.labels, this.labels.length + 1);
+                extendedLabels[this.objects.length] = labelSet(labels);
+            }
+            return new FlatPath(extendedObjects, extendedLabels);
+        }
+
+        @Override
+        public <A> A get(final int index) {
+            return (A) this.objects[index];
+        }
+
+        @Override
+        public boolean hasLabel(final String label) {
+            if (null != this.labels) {
+                for (final Set<String> labels : this.labels) {
+                    if (labels.contains(label))
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public <A> A get(final String label) throws IllegalArgumentException {
+            final List<Object> objects = new ArrayList<>(1);
+            this.collectObjects(label, objects);
+            if (objects.isEmpty())
+                throw Path.Exceptions.stepWithProvidedLabelDoesNotExist(label);
+            if (1 == objects.size())
+                return (A) objects.get(0);
+            Collections.reverse(objects);
+            return (A) objects;
+        }
+
+        /**
+         * Add the objects with the label to the list, from the last object of the path to the first.
+         */
+        private void collectObjects(final String label, final List<Object> objects) {
+            if (null != this.labels) {
+                for (int i = this.labels.length - 1; i >= 0; i--) {
+                    if (this.labels[i].contains(label))
+                        objects.add(this.objects[i]);
+                }
+            }
+        }
+
+        @Override
+        public void addLabel(final String label) {
+            if (null == this.labels)
+                this.labels = emptyLabels(this.objects.length);
+            final int last = this.labels.length - 1;
+            this.labels[last] = ImmutablePath.addLabel(this.labels[last], label);
+        }
+
+        @Override
+        public List<Object> objects() {
+            return Collections.unmodifiableList(Arrays.asList(this.objects));
+        }
+
+        @Override
+        public List<Set<String>> labels() {
+            final Set<String>[] labels = new Set[this.objects.length];
+            this.copyLabels(labels);
+            return Collections.unmodifiableList(Arrays.asList(labels));
+        }
+
+        private void copyLabels(final Set<String>[] labels) {
+            if (null == this.labels)
+                Arrays.fill(labels, 0, this.objects.length, Collections.emptySet());
+            else
+                System.arraycopy(this.labels, 0, labels, 0, this.labels.length);
+        }
+
+        private static Set<String>[] emptyLabels(final int size) {
+            final Set<String>[] labels = new Set[size];
+            Arrays.fill(labels, Collections.emptySet());
+            return labels;
+        }
+
+        @SuppressWarnings("CloneDoesntCallSuperClone,CloneDoesntDeclareCloneNotSupportedException")
+        @Override
+        public FlatPath clone() {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return this.objects().toString();
+        }
+    }
+
     private static class HeadPath implements Path {
         private static final HeadPath INSTANCE = new HeadPath();
 
@@ -122,7 +326,7 @@ public class ImmutablePath implements Path, Serializable, Cloneable {
 
         @Override
         public Path extend(final Object object, final String... labels) {
-            return new ImmutablePath(object, labels);
+            return new FlatPath(new Object[]{object}, 0 == labels.length ? null : new Set[]{labelSet(labels)});
         }
 
         @Override
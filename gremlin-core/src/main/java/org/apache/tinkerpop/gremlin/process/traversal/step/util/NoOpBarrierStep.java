@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A barrier that leaves its traversers as they are, but gathers up to {@code maxBarrierSize} distinct traversers
+ * at a time into a {@link TraverserSet} so that equal traversers are merged into a single bulked traverser before
+ * they reach the next step. Unlike a {@link CollectingBarrierStep}, it only drains its starts when it has emitted
+ * all the traversers of its previous barrier, which bounds the memory it uses.
+ *
+ * @author agent (agent@local)
+ */
+public final class NoOpBarrierStep<S> extends AbstractStep<S, S> {
+
+    private final int maxBarrierSize;
+    private TraverserSet<S> barrier = new TraverserSet<>();
+
+    public NoOpBarrierStep(final Traversal.Admin traversal, final int maxBarrierSize) {
+        super(traversal);
+        if (maxBarrierSize < 1)
+            throw new IllegalArgumentException("The max barrier size must be positive: " + maxBarrierSize);
+        this.maxBarrierSize = maxBarrierSize;
+    }
+
+    public int getMaxBarrierSize() {
+        return this.maxBarrierSize;
+    }
+
+    @Override
+    protected Traverser<S> processNextStart() {
+        if (this.barrier.isEmpty()) {
+            while (this.barrier.size() < this.maxBarrierSize && this.starts.hasNext()) {
+                this.barrier.add(this.starts.next());
+            }
+            if (this.barrier.isEmpty())
+                throw FastNoSuchElementException.instance();
+        }
+        return this.barrier.remove();
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        return Collections.singleton(TraverserRequirement.BULK);
+    }
+
+    @Override
+    public String toString() {
+        return TraversalHelper.makeStepString(this, this.maxBarrierSize);
+    }
+
+    @Override
+    public NoOpBarrierStep<S> clone() {
+        final NoOpBarrierStep<S> clone = (NoOpBarrierStep<S>) super.clone();
+        clone.barrier = new TraverserSet<>();
+        return clone;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.barrier.clear();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs a pipeline of steps over its starts on a {@link ForkJoinPool}. The starts are split into chunks of about
+ * {@code chunkSize} traversers, each chunk is pushed through its own clone of the pipeline and the traversers that
+ * the chunks emit are merged into a single {@link TraverserSet}, in the order of their chunks, before the first of
+ * them is emitted. As equal traversers are merged into one bulked traverser, the step is only placed in front of a
+ * barrier of a traversal whose traversers carry neither a path nor a sack.
+ * <p/>
+ * When the starts come from a {@link GraphStep}, its elements are split from {@link GraphStep#getSpliterator()} and
+ * turned into traversers within the chunks. Any other starts, and the elements of a graph step that can not size
+ * its spliterator, are split by iterating them on the calling thread.
+ *
+ * @author agent (agent@local)
+ */
+public final class ParallelStep<S, E> extends AbstractStep<S, E> {
+
+    private List<Step> pipeline;
+    private final int chunkSize;
+    private final transient ForkJoinPool pool;
+    private TraverserSet<E> results = null;
+
+    public ParallelStep(final Traversal.Admin traversal, final List<Step> pipeline, final ForkJoinPool pool, final int chunkSize) {
+        super(traversal);
+        if (pipeline.isEmpty())
+            throw new IllegalArgumentException("The pipeline of a parallel step must have at least one step");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        this.pipeline = new ArrayList<>(pipeline);
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<Step> getPipeline() {
+        return Collections.unmodifiableList(this.pipeline);
+    }
+
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+
+    @Override
+    protected Traverser<E> processNextStart() {
+        if (null == this.results) {
+            final ForkJoinPool pool = null == this.pool ? ForkJoinPool.commonPool() : this.pool;
+            this.results = pool.invoke(new ChunkTask(this.getStartSpliterator()));
+        }
+        if (this.results.isEmpty())
+            throw FastNoSuchElementException.instance();
+        return this.results.remove();
+    }
+
+    private Spliterator<Traverser.Admin<S>> getStartSpliterator() {
+        if (!(this.getPreviousStep() instanceof GraphStep))
+            return Spliterators.spliteratorUnknownSize(this.starts, Spliterator.NONNULL);
+        // the graph step is bypassed, so its traversers are prepared for this step as it would have done itself (the
+        // stream is parallel only so that its spliterator can be split, it is traversed by the chunk tasks)
+        final GraphStep graphStep = (GraphStep) this.getPreviousStep();
+        final TraverserGenerator generator = this.getTraversal().getTraverserGenerator();
+        final Optional<String> label = graphStep.getLabel();
+        return StreamSupport.stream((Spliterator<S>) graphStep.getSpliterator(), true).map(element -> {
+            final Traverser.Admin<S> traverser = generator.generate(element, (Step<S, ?>) graphStep, 1l);
+            traverser.setStepId(this.getId());
+            if (label.isPresent()) traverser.path().addLabel(label.get());
+            return traverser;
+        }).spliterator();
+    }
+
+    /**
+     * Push the traversers of the chunk through a fresh clone of the pipeline and gather the traversers it emits.
+     */
+    private TraverserSet<E> processChunk(final Spliterator<Traverser.Admin<S>> chunk) {
+        Step previousStep = EmptyStep.instance();
+        Step startStep = null;
+        for (final Step<?, ?> step : this.pipeline) {
+            final Step<?, ?> clonedStep = step.clone();
+            clonedStep.setPreviousStep(previousStep);
+            previousStep.setNextStep(clonedStep);
+            if (null == startStep) startStep = clonedStep;
+            previousStep = clonedStep;
+        }
+        startStep.addStarts((Iterator) Spliterators.iterator(chunk));
+        final TraverserSet<E> results = new TraverserSet<>();
+        while (previousStep.hasNext()) {
+            results.add(((Traverser<E>) previousStep.next()).asAdmin());
+        }
+        return results;
+    }
+
+    @Override
+    public Set<TraverserRequirement> getRequirements() {
+        final Set<TraverserRequirement> requirements = EnumSet.of(TraverserRequirement.BULK);
+        for (final Step<?, ?> step : this.pipeline) {
+            requirements.addAll(step.getRequirements());
+        }
+        return requirements;
+    }
+
+    @Override
+    public void setTraversal(final Traversal.Admin<?, ?> traversal) {
+        super.setTraversal(traversal);
+        this.pipeline.forEach(step -> step.setTraversal(traversal));
+    }
+
+    @Override
+    public String toString() {
+        return TraversalHelper.makeStepString(this, this.pipeline);
+    }
+
+    @Override
+    public ParallelStep<S, E> clone() {
+        final ParallelStep<S, E> clone = (ParallelStep<S, E>) super.clone();
+        clone.pipeline = new ArrayList<>();
+        for (final Step<?, ?> step : this.pipeline) {
+            clone.pipeline.add(step.clone());
+        }
+        clone.results = null;
+        return clone;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.results = null;
+    }
+
+    /**
+     * Splits chunks off its traversers for as long as it holds more than {@code chunkSize} of them, forking a task
+     * for each, and processes what remains itself. The starts of the step are only ever split by the root task.
+     */
+    private final class ChunkTask extends RecursiveTask<TraverserSet<E>> {
+
+        private final Spliterator<Traverser.Admin<S>> spliterator;
+
+        private ChunkTask(final Spliterator<Traverser.Admin<S>> spliterator) {
+            this.spliterator = spliterator;
+        }
+
+        @Override
+        protected TraverserSet<E> compute() {
+            final List<ChunkTask> forks = new ArrayList<>();
+            Spliterator<Traverser.Admin<S>> split;
+            while (this.spliterator.estimateSize() > ParallelStep.this.chunkSize && null != (split = this.spliterator.trySplit())) {
+                final ChunkTask fork = new ChunkTask(split);
+                fork.fork();
+                forks.add(fork);
+            }
+            final TraverserSet<E> remainder = ParallelStep.this.processChunk(this.spliterator);
+            if (forks.isEmpty())
+                return remainder;
+            // the forks were split off the front of the traversers, so their results go first
+            final TraverserSet<E> results = new TraverserSet<>();
+            for (final ChunkTask fork : forks) {
+                fork.join().forEach(results::add);
+            }
+            remainder.forEach(results::add);
+            return results;
+        }
+    }
+}
@@ -83,8 +83,18 @@ public abstract class ReducingBarrierStep<S, E> extends AbstractStep<S, E> imple
             if (this.done)
                 throw FastNoSuchElementException.instance();
             E seed = this.seedSupplier.get();
-            while (this.starts.hasNext())
-                seed = this.reducingBiFunction.apply(seed, this.starts.next());
+            if (1 == this.getBatchSize()) {
+                while (this.starts.hasNext())
+                    seed = this.reducingBiFunction.apply(seed, this.starts.next());
+            } else {
+                final Traverser.Admin<S>[] starts = (Traverser.Admin<S>[]) new Traverser.Admin[this.getBatchSize()];
+                int size;
+                while (0 != (size = this.starts.nextBatch(starts))) {
+                    for (int i = 0; i < size; i++) {
+                        seed = this.reducingBiFunction.apply(seed, starts[i]);
+                    }
+                }
+            }
             this.done = true;
             return TraversalHelper.getRootTraversal(this.getTraversal()).getTraverserGenerator().generate(FinalGet.tryFinalGet(seed), (Step) this, 1l);
         }
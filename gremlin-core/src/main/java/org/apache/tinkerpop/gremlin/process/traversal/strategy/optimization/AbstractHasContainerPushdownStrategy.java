@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The base of the strategies of graph providers that push the {@link HasContainer}s of the has-steps that follow the
+ * start {@link GraphStep} of a standard (OLTP) traversal down into a graph step of their own, which can then answer
+ * the containers from an index. The provider creates its graph step, which must be a {@link HasContainerHolder}, and
+ * claims the containers it takes on. A has-step with a container that is not claimed stays where it is and the steps
+ * after it are still considered. A labeled has-step leaves a labeled {@link IdentityStep} behind.
+ * <p/>
+ * The provider can likewise replace the {@link VertexStep}s that the {@link VertexCentricQueryStrategy} folded
+ * containers into with vertex steps of its own. The containers of the graph and vertex steps are ordered by the
+ * {@link HasContainerOrderStrategy} once they are pushed down.
+ *
+ * @author agent (agent@local)
+ */
+public abstract class AbstractHasContainerPushdownStrategy extends AbstractTraversalStrategy {
+
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = Collections.singleton(VertexCentricQueryStrategy.class);
+    private static final Set<Class<? extends TraversalStrategy>> POSTS = Collections.singleton(HasContainerOrderStrategy.class);
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (traversal.getEngine().isComputer())
+            return;
+
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (vertexStep.getHasContainers().isEmpty())
+                continue;
+            final VertexStep<?> providerVertexStep = this.createVertexStep(vertexStep);
+            if (providerVertexStep != vertexStep)
+                TraversalHelper.replaceStep((Step) vertexStep, providerVertexStep, traversal);
+        }
+
+        final Step<?, ?> startStep = traversal.getStartStep();
+        if (!(startStep instanceof GraphStep))
+            return;
+        final GraphStep<?> graphStep = this.createGraphStep((GraphStep) startStep);
+        if (!(graphStep instanceof HasContainerHolder))
+            throw new IllegalStateException("The graph step of " + this.getClass().getSimpleName() + " must be a " + HasContainerHolder.class.getSimpleName() + ": " + graphStep);
+        TraversalHelper.replaceStep(startStep, (Step) graphStep, traversal);
+        foldHasSteps(traversal, graphStep, hasContainer -> this.claim(graphStep, hasContainer));
+    }
+
+    /**
+     * Fold the has-steps that follow the step into the step, which must be a {@link HasContainerHolder}, skipping
+     * the {@link IdentityStep}s between them. A has-step is only folded if all its containers are claimed.
+     */
+    static void foldHasSteps(final Traversal.Admin<?, ?> traversal, final Step<?, ?> step, final Predicate<HasContainer> claim) {
+        Step<?, ?> currentStep = step.getNextStep();
+        while (true) {
+            if (currentStep instanceof HasStep) {
+                final List<HasContainer> hasContainers = ((HasStep<?>) currentStep).getHasContainers();
+                if (hasContainers.stream().allMatch(claim)) {
+                    hasContainers.forEach(((HasContainerHolder) step)::addHasContainer);
+                    if (currentStep.getLabel().isPresent()) {
+                        final IdentityStep identityStep = new IdentityStep<>(traversal);
+                        identityStep.setLabel(currentStep.getLabel().get());
+                        TraversalHelper.insertAfterStep(identityStep, currentStep, traversal);
+                    }
+                    traversal.removeStep(currentStep);
+                }
+            } else if (!(currentStep instanceof IdentityStep)) {
+                break;
+            }
+            currentStep = currentStep.getNextStep();
+        }
+    }
+
+    /**
+     * Create the graph step of the provider that replaces the start graph step of the traversal. The step must
+     * implement {@link HasContainerHolder}.
+     */
+    protected abstract GraphStep<?> createGraphStep(final GraphStep<?> originalGraphStep);
+
+    /**
+     * Create the vertex step of the provider that replaces a vertex step of the traversal that holds the containers
+     * of the has-steps folded into it by the {@link VertexCentricQueryStrategy}, e.g. to answer them from an index of
+     * the edges of each vertex. By default, the vertex step is kept.
+     */
+    protected VertexStep<?> createVertexStep(final VertexStep<?> originalVertexStep) {
+        return originalVertexStep;
+    }
+
+    /**
+     * Whether the graph step of the provider takes on the container, e.g. as it can answer it from an index. By
+     * default, every container is claimed.
+     */
+    protected boolean claim(final GraphStep<?> graphStep, final HasContainer hasContainer) {
+        return true;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPost() {
+        return POSTS;
+    }
+}
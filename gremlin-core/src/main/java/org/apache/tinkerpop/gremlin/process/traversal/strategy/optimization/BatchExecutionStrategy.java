@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.ElementIdStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PartitionStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EngineDependentStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.LabeledEndStepStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_PA_S_SE_SL_TraverserGenerator;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An opt-in strategy that has the {@link FilterStep}, {@link MapStep}, {@link FlatMapStep} and
+ * {@link ReducingBarrierStep} steps of a standard (OLTP) traversal process their traversers in batches, which
+ * amortizes the per-traverser cost of pulling traversers through long pipelines such as
+ * {@code g.V().out().out().has(...).count()}. The other steps are adapted one traverser at a time.
+ * <p/>
+ * Batching steps pull their starts ahead of the traversers they emit. As such, the strategy leaves traversals with
+ * lambdas, mutations or side-effects untouched as these could observe the difference, as well as traversals
+ * whose traversers share a sparse path. The steps up to a {@code range()} are not batched as they would otherwise
+ * read further ahead than the range needs.
+ *
+ * @author agent (agent@local)
+ */
+public final class BatchExecutionStrategy extends AbstractTraversalStrategy {
+
+    private static final BatchExecutionStrategy INSTANCE = new BatchExecutionStrategy(64);
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        // the steps of the traversal must be final before they are told to batch
+        PRIORS.add(ComparatorHolderRemovalStrategy.class);
+        PRIORS.add(ConjunctionStrategy.class);
+        PRIORS.add(DedupOptimizerStrategy.class);
+        PRIORS.add(EngineDependentStrategy.class);
+        PRIORS.add(HasContainerOrderStrategy.class);
+        PRIORS.add(IdentityRemovalStrategy.class);
+        PRIORS.add(LabeledEndStepStrategy.class);
+        PRIORS.add(MatchWhereStrategy.class);
+        PRIORS.add(OrderLimitStrategy.class);
+        PRIORS.add(ProfileStrategy.class);
+        PRIORS.add(RangeByIsCountStrategy.class);
+        PRIORS.add(VertexCentricQueryStrategy.class);
+        PRIORS.add(ElementIdStrategy.class);
+        PRIORS.add(EventStrategy.class);
+        PRIORS.add(PartitionStrategy.class);
+        PRIORS.add(SubgraphStrategy.class);
+    }
+
+    private final int batchSize;
+
+    private BatchExecutionStrategy(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || !traversal.getEngine().isStandard() || !isBatchable(traversal))
+            return;
+        // the labeled path traversers share a single sparse path that only holds when traversers are processed one at a time
+        if (traversal.getTraverserGenerator() instanceof B_O_PA_S_SE_SL_TraverserGenerator)
+            return;
+
+        // a range only pulls as many traversers as it emits, so the steps up to it are left to process one at a time
+        final List<Step> steps = traversal.getSteps();
+        final int lastRange = steps.indexOf(TraversalHelper.getLastStepOfAssignableClass(RangeGlobalStep.class, traversal).orElse(null));
+        for (int i = lastRange + 1; i < steps.size(); i++) {
+            final Step<?, ?> step = steps.get(i);
+            if (step instanceof FilterStep || step instanceof MapStep || step instanceof FlatMapStep || step instanceof ReducingBarrierStep)
+                ((AbstractStep) step).setBatchSize(this.batchSize);
+        }
+    }
+
+    private static boolean isBatchable(final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof LambdaHolder || step instanceof Mutating || step instanceof SideEffectCapable ||
+                    step instanceof SideEffectStep || step instanceof ProfileStep)
+                return false;
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    if (!isBatchable(child)) return false;
+                }
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                    if (!isBatchable(child)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public static BatchExecutionStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int batchSize = 64;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of traversers each batching step processes at a time. Defaults to 64.
+         */
+        public Builder batchSize(final int batchSize) {
+            if (batchSize < 1)
+                throw new IllegalArgumentException("The batch size must be positive: " + batchSize);
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public BatchExecutionStrategy create() {
+            return new BatchExecutionStrategy(this.batchSize);
+        }
+    }
+}
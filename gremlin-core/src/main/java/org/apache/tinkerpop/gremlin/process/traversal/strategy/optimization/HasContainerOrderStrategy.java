@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.T;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.apache.tinkerpop.gremlin.structure.Contains;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Orders the {@link HasContainer}s of a traversal so that those that filter the most traversers for the least
+ * evaluation cost are tested first, i.e. by descending {@code (1 - selectivity) / cost}. Without
+ * {@link GraphStatistics}, an id or label check is tested before a property check, an equality before a range and
+ * a {@link Compare} or {@link Contains} predicate before any other predicate. The containers of a
+ * {@link HasContainerHolder} step (e.g. a graph step that holds the containers of the has-steps folded into it) are
+ * reordered in place and a run of unlabeled {@link HasStep}s is reordered as a whole.
+ * <p/>
+ * The strategy orders without statistics as a compiled traversal may be executed long after it was compiled. A graph
+ * step that keeps {@link GraphStatistics} can reorder its containers with {@link #order(List, Class, GraphStatistics)}
+ * each time it is executed.
+ *
+ * @author agent (agent@local)
+ */
+public final class HasContainerOrderStrategy extends AbstractTraversalStrategy {
+
+    private static final HasContainerOrderStrategy INSTANCE = new HasContainerOrderStrategy();
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+
+    private static final double ID_SELECTIVITY = 0.001d;
+    private static final double EQUALITY_SELECTIVITY = 0.1d;
+    private static final double RANGE_SELECTIVITY = 0.33d;
+    private static final double DEFAULT_SELECTIVITY = 0.5d;
+
+    private static final double ACCESSOR_COST = 1.0d;
+    private static final double PROPERTY_COST = 2.0d;
+    private static final double PREDICATE_COST = 4.0d;
+
+    static {
+        // the has-steps are only adjacent once the identity steps between them are removed
+        PRIORS.add(IdentityRemovalStrategy.class);
+        PRIORS.add(ConjunctionStrategy.class);
+    }
+
+    private HasContainerOrderStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        final List<Step> steps = traversal.getSteps();
+        for (int i = 0; i < steps.size(); i++) {
+            final Step<?, ?> step = steps.get(i);
+            if (isReorderable(step)) {
+                int end = i + 1;
+                while (end < steps.size() && isReorderable(steps.get(end))) {
+                    end++;
+                }
+                if (end - i > 1)
+                    reorderHasSteps(traversal, i, end);
+                i = end - 1;
+            } else if (step instanceof HasContainerHolder) {
+                HasContainerOrderStrategy.order(((HasContainerHolder) step).getHasContainers(), Element.class, null);
+            }
+        }
+    }
+
+    private static boolean isReorderable(final Step<?, ?> step) {
+        return step instanceof HasStep && !step.getLabel().isPresent();
+    }
+
+    private static void reorderHasSteps(final Traversal.Admin<?, ?> traversal, final int start, final int end) {
+        final List<HasStep> hasSteps = new ArrayList<>();
+        final List<HasContainer> hasContainers = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            final HasStep<?> hasStep = (HasStep<?>) traversal.getSteps().get(i);
+            hasSteps.add(hasStep);
+            hasContainers.addAll(hasStep.getHasContainers());
+        }
+        final List<HasContainer> ordered = new ArrayList<>(hasContainers);
+        HasContainerOrderStrategy.order(ordered, Element.class, null);
+        if (ordered.equals(hasContainers))
+            return;
+        for (int i = start; i < end; i++) {
+            traversal.removeStep(start);
+        }
+        for (int i = 0; i < ordered.size(); i++) {
+            traversal.addStep(start + i, hasSteps.get(hasContainers.indexOf(ordered.get(i))));
+        }
+    }
+
+    /**
+     * Order the containers in place by descending {@code (1 - selectivity) / cost}, keeping the order of the
+     * containers of the same rank.
+     *
+     * @param hasContainers the containers of elements of the class
+     * @param elementClass  the class of the tested elements ({@link org.apache.tinkerpop.gremlin.structure.Vertex},
+     *                      {@link org.apache.tinkerpop.gremlin.structure.Edge} or {@link Element} if unknown)
+     * @param statistics    the statistics of the graph or {@code null} for the default estimates
+     */
+    public static void order(final List<HasContainer> hasContainers, final Class<? extends Element> elementClass, final GraphStatistics statistics) {
+        if (hasContainers.size() < 2)
+            return;
+        final long count = null == statistics ? GraphStatistics.UNKNOWN : statistics.count(elementClass);
+        final Map<HasContainer, Double> ranks = new IdentityHashMap<>();
+        for (final HasContainer hasContainer : hasContainers) {
+            ranks.put(hasContainer, (1.0d - selectivity(hasContainer, elementClass, statistics, count)) / cost(hasContainer));
+        }
+        hasContainers.sort(Comparator.comparingDouble(ranks::get).reversed());
+    }
+
+    private static boolean isAccessor(final String key) {
+        return key.equals(T.id.getAccessor()) || key.equals(T.label.getAccessor()) ||
+                key.equals(T.key.getAccessor()) || key.equals(T.value.getAccessor());
+    }
+
+    private static double cost(final HasContainer hasContainer) {
+        if (!(hasContainer.predicate instanceof Compare || hasContainer.predicate instanceof Contains))
+            return PREDICATE_COST;
+        return isAccessor(hasContainer.key) ? ACCESSOR_COST : PROPERTY_COST;
+    }
+
+    private static double selectivity(final HasContainer hasContainer, final Class<? extends Element> elementClass,
+                                      final GraphStatistics statistics, final long count) {
+        if (null == hasContainer.value)
+            return DEFAULT_SELECTIVITY;
+        else if (Compare.eq == hasContainer.predicate)
+            return equality(hasContainer.key, hasContainer.value, elementClass, statistics, count);
+        else if (Compare.neq == hasContainer.predicate)
+            return 1.0d - equality(hasContainer.key, hasContainer.value, elementClass, statistics, count);
+        else if (Contains.within == hasContainer.predicate || Contains.without == hasContainer.predicate) {
+            if (!(hasContainer.value instanceof Collection))
+                return DEFAULT_SELECTIVITY;
+            double selectivity = 0.0d;
+            for (final Object value : (Collection) hasContainer.value) {
+                selectivity = selectivity + equality(hasContainer.key, value, elementClass, statistics, count);
+            }
+            selectivity = Math.min(1.0d, selectivity);
+            return Contains.within == hasContainer.predicate ? selectivity : 1.0d - selectivity;
+        } else if (Compare.gt == hasContainer.predicate || Compare.gte == hasContainer.predicate ||
+                Compare.lt == hasContainer.predicate || Compare.lte == hasContainer.predicate ||
+                Compare.inside == hasContainer.predicate)
+            return RANGE_SELECTIVITY;
+        else if (Compare.outside == hasContainer.predicate)
+            return 1.0d - RANGE_SELECTIVITY;
+        else
+            return DEFAULT_SELECTIVITY;
+    }
+
+    private static double equality(final String key, final Object value, final Class<? extends Element> elementClass,
+                                   final GraphStatistics statistics, final long count) {
+        final boolean isId = key.equals(T.id.getAccessor());
+        if (count > 0l) {
+            if (isId)
+                return 1.0d / count;
+            final long matches = key.equals(T.label.getAccessor()) ?
+                    (value instanceof String ? statistics.count(elementClass, (String) value) : GraphStatistics.UNKNOWN) :
+                    statistics.count(elementClass, key, value);
+            if (GraphStatistics.UNKNOWN != matches)
+                return Math.min(1.0d, (double) matches / count);
+        } else if (0l == count)
+            return 0.0d;
+        return isId ? ID_SELECTIVITY : EQUALITY_SELECTIVITY;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static HasContainerOrderStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.LambdaSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.ProfileStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.CollectingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ReducingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.SupplyingBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.ElementIdStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PartitionStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.EngineDependentStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.LabeledEndStepStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Inserts a {@link NoOpBarrierStep} after every {@link VertexStep} of a standard (OLTP) traversal that emits vertices
+ * and is followed by another {@link VertexStep}. The barrier merges the traversers that arrive at the same vertex
+ * into a single bulked traverser, so a traversal such as {@code g.V().out().out().out().count()} expands each
+ * vertex once per barrier instead of once per path that reaches it.
+ * <p/>
+ * Traversers can only be merged when they do not carry a path or a sack, so the strategy leaves such traversals
+ * untouched. It also leaves traversals that mutate the graph, have lambda side-effects or are profiled untouched as
+ * these observe every traverser, as well as traversals with a {@code range()} as these would then read further
+ * ahead than they need.
+ *
+ * @author agent (agent@local)
+ */
+public final class LazyBarrierStrategy extends AbstractTraversalStrategy {
+
+    private static final LazyBarrierStrategy INSTANCE = new LazyBarrierStrategy(1000);
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        // the steps of the traversal must be final before the barriers are placed between them
+        PRIORS.add(ComparatorHolderRemovalStrategy.class);
+        PRIORS.add(ConjunctionStrategy.class);
+        PRIORS.add(DedupOptimizerStrategy.class);
+        PRIORS.add(EngineDependentStrategy.class);
+        PRIORS.add(IdentityRemovalStrategy.class);
+        PRIORS.add(LabeledEndStepStrategy.class);
+        PRIORS.add(MatchWhereStrategy.class);
+        PRIORS.add(OrderLimitStrategy.class);
+        PRIORS.add(ProfileStrategy.class);
+        PRIORS.add(RangeByIsCountStrategy.class);
+        PRIORS.add(ElementIdStrategy.class);
+        PRIORS.add(EventStrategy.class);
+        PRIORS.add(PartitionStrategy.class);
+        PRIORS.add(SubgraphStrategy.class);
+    }
+
+    private final int maxBarrierSize;
+
+    private LazyBarrierStrategy(final int maxBarrierSize) {
+        this.maxBarrierSize = maxBarrierSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || !traversal.getEngine().isStandard())
+            return;
+
+        final Set<TraverserRequirement> requirements = traversal.getTraverserRequirements();
+        if (requirements.contains(TraverserRequirement.PATH) || requirements.contains(TraverserRequirement.PATH_ACCESS) ||
+                requirements.contains(TraverserRequirement.SACK) || !isBarrierSafe(traversal) ||
+                TraversalHelper.hasStepOfClass(RangeGlobalStep.class, traversal))
+            return;
+
+        final List<Step> steps = new ArrayList<>(traversal.getSteps());
+        final int lastVertexStep = lastIndexOfVertexStep(steps);
+        for (int i = 0; i < lastVertexStep; i++) {
+            final Step<?, ?> step = steps.get(i);
+            if (step instanceof VertexStep && Vertex.class.equals(((VertexStep) step).getReturnClass()) &&
+                    !step.getLabel().isPresent() && !isBarrier(steps.get(i + 1)))
+                TraversalHelper.insertAfterStep(new NoOpBarrierStep<>(traversal, this.maxBarrierSize), (Step) step, traversal);
+        }
+    }
+
+    private static int lastIndexOfVertexStep(final List<Step> steps) {
+        for (int i = steps.size() - 1; i >= 0; i--) {
+            if (steps.get(i) instanceof VertexStep)
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean isBarrier(final Step<?, ?> step) {
+        return step instanceof NoOpBarrierStep || step instanceof CollectingBarrierStep ||
+                step instanceof ReducingBarrierStep || step instanceof SupplyingBarrierStep;
+    }
+
+    private static boolean isBarrierSafe(final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof Mutating || step instanceof LambdaSideEffectStep || step instanceof ProfileStep)
+                return false;
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    if (!isBarrierSafe(child)) return false;
+                }
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                    if (!isBarrierSafe(child)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public int getMaxBarrierSize() {
+        return this.maxBarrierSize;
+    }
+
+    public static LazyBarrierStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public static class Builder {
+
+        private int maxBarrierSize = 1000;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of distinct traversers each barrier gathers at a time. Defaults to 1000.
+         */
+        public Builder maxBarrierSize(final int maxBarrierSize) {
+            if (maxBarrierSize < 1)
+                throw new IllegalArgumentException("The max barrier size must be positive: " + maxBarrierSize);
+            this.maxBarrierSize = maxBarrierSize;
+            return this;
+        }
+
+        public LazyBarrierStrategy create() {
+            return new LazyBarrierStrategy(this.maxBarrierSize);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ComparatorHolderRemovalStrategy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Folds a {@code range()} (or {@code limit()}) that directly follows an {@code order()} into the
+ * {@link OrderGlobalStep}, which then only keeps the traversers within the range while it orders them. As such,
+ * {@code g.V().order().by("score").limit(10)} holds ten traversers at a time instead of all the vertices of the graph.
+ * <p/>
+ * On a graph computer, the range is only folded when it ends the traversal, in which case it is applied to the
+ * halted traversers of all the workers.
+ *
+ * @author agent (agent@local)
+ */
+public final class OrderLimitStrategy extends AbstractTraversalStrategy {
+
+    private static final OrderLimitStrategy INSTANCE = new OrderLimitStrategy();
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+    private static final Set<Class<? extends TraversalStrategy>> POSTS = new HashSet<>();
+
+    static {
+        PRIORS.add(IdentityRemovalStrategy.class);
+        // on a graph computer, an order() that does not end the traversal is removed
+        POSTS.add(ComparatorHolderRemovalStrategy.class);
+    }
+
+    private OrderLimitStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        final boolean onGraphComputer = traversal.getEngine().isComputer();
+        if (onGraphComputer && !(traversal.getParent() instanceof EmptyStep))
+            return;
+
+        final List<Step> steps = traversal.getSteps();
+        for (int i = steps.size() - 2; i >= 0; i--) {
+            if (!(steps.get(i) instanceof OrderGlobalStep) || !(steps.get(i + 1) instanceof RangeGlobalStep))
+                continue;
+            final OrderGlobalStep<?> orderStep = (OrderGlobalStep<?>) steps.get(i);
+            final RangeGlobalStep<?> rangeStep = (RangeGlobalStep<?>) steps.get(i + 1);
+            if (-1l != orderStep.getHighRange() || -1l == rangeStep.getHighRange() || rangeStep.getLabel().isPresent())
+                continue;
+            if (onGraphComputer && i + 2 != steps.size())
+                continue;
+            orderStep.setRange(Math.max(0l, rangeStep.getLowRange()), rangeStep.getHighRange());
+            traversal.removeStep(rangeStep);
+        }
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPost() {
+        return POSTS;
+    }
+
+    public static OrderLimitStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -52,6 +52,7 @@ public final class ProfileStrategy extends AbstractTraversalStrategy {
         PRIORS.add(IdentityRemovalStrategy.class);
         PRIORS.add(LabeledEndStepStrategy.class);
         PRIORS.add(MatchWhereStrategy.class);
+        PRIORS.add(OrderLimitStrategy.class);
         PRIORS.add(RangeByIsCountStrategy.class);
     }
 
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Folds the {@link HasContainer}s of the has-steps that follow a {@link VertexStep} that emits edges into the vertex
+ * step, so that a traversal such as {@code v.outE('knows').has('weight', gt(0.5)).inV()} becomes a single
+ * vertex-centric query for the edges of each vertex that satisfy the containers. A container that only tests the label
+ * of the edges narrows the edge labels of the vertex step instead. The vertex step itself still tests the containers
+ * on each edge, but a provider can replace it with a vertex step that answers them from an index of the edges of each
+ * vertex (see {@link AbstractHasContainerPushdownStrategy#createVertexStep(VertexStep)}).
+ * <p/>
+ * The {@link IdentityStep}s between the has-steps are skipped and a labeled has-step leaves a labeled
+ * {@link IdentityStep} behind. Vertex steps that emit vertices are left untouched.
+ *
+ * @author agent (agent@local)
+ */
+public final class VertexCentricQueryStrategy extends AbstractTraversalStrategy {
+
+    private static final VertexCentricQueryStrategy INSTANCE = new VertexCentricQueryStrategy();
+    private static final Set<Class<? extends TraversalStrategy>> PRIORS = new HashSet<>();
+    private static final Set<Class<? extends TraversalStrategy>> POSTS = Collections.singleton(HasContainerOrderStrategy.class);
+
+    static {
+        // the steps that follow a vertex step are only final once the conjunction markers and identities are resolved
+        PRIORS.add(ConjunctionStrategy.class);
+        PRIORS.add(IdentityRemovalStrategy.class);
+    }
+
+    private VertexCentricQueryStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        for (final VertexStep<?> vertexStep : TraversalHelper.getStepsOfClass(VertexStep.class, traversal)) {
+            if (Edge.class.isAssignableFrom(vertexStep.getReturnClass()))
+                AbstractHasContainerPushdownStrategy.foldHasSteps(traversal, vertexStep, hasContainer -> true);
+        }
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    @Override
+    public Set<Class<? extends TraversalStrategy>> applyPost() {
+        return POSTS;
+    }
+
+    public static VertexCentricQueryStrategy instance() {
+        return INSTANCE;
+    }
+}
@@ -51,6 +51,7 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
     protected TraversalSideEffects sideEffects = new DefaultTraversalSideEffects();
     protected TraversalStrategies strategies;
     protected TraversalEngine traversalEngine;
+    protected TraversalPlanCache planCache = null;
 
     protected boolean locked = false;
 
@@ -70,6 +71,12 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
     @Override
     public void applyStrategies() throws IllegalStateException {
         if (this.locked) throw Traversal.Exceptions.traversalIsLocked();
+        final TraversalPlanCache.Key planKey = null == this.planCache ? null : this.planCache.getKey(this);
+        if (null != planKey && this.planCache.instantiate(planKey, this)) {
+            this.finalEndStep = this.getEndStep();
+            this.locked = true;
+            return;
+        }
         TraversalHelper.reIdSteps(this.stepPosition, this);
         this.strategies.applyStrategies(this);
         for (final Step<?, ?> step : this.getSteps()) {
@@ -89,6 +96,18 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
         this.traversalEngine.processTraversal(this);
         this.finalEndStep = this.getEndStep();
         this.locked = true;
+        if (null != planKey) this.planCache.store(planKey, this);
+    }
+
+    /**
+     * Set the cache that the traversal looks up its compilation in before it applies its strategies.
+     */
+    public void setPlanCache(final TraversalPlanCache planCache) {
+        this.planCache = planCache;
+    }
+
+    public Optional<TraversalPlanCache> getPlanCache() {
+        return Optional.ofNullable(this.planCache);
     }
 
     @Override
@@ -200,6 +200,24 @@ public final class TraversalHelper {
         return list;
     }
 
+    public static boolean hasStepOfAssignableClassRecursively(final Class superClass, final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (superClass.isAssignableFrom(step.getClass()))
+                return true;
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                    if (TraversalHelper.hasStepOfAssignableClassRecursively(superClass, globalChild))
+                        return true;
+                }
+                for (final Traversal.Admin<?, ?> localChild : ((TraversalParent) step).getLocalChildren()) {
+                    if (TraversalHelper.hasStepOfAssignableClassRecursively(superClass, localChild))
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public static boolean hasStepOfClass(final Class stepClass, final Traversal.Admin<?, ?> traversal) {
         for (final Step<?, ?> step : traversal.getSteps()) {
             if (step.getClass().equals(stepClass)) {
@@ -0,0 +1,456 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of compiled traversals, i.e. traversals whose strategies have been applied, that a {@link DefaultTraversal}
+ * consults before it applies its strategies. A traversal is looked up by the shape of the steps it has before its
+ * strategies are applied: the class of each step, its label and the values of its fields, recursing into its child
+ * traversals. The values of the {@link HasContainer}s are the parameters of a traversal and are left out of its shape,
+ * so {@code has("name","marko")} and {@code has("name","vadas")} share a compilation. On a hit, the traversal takes on
+ * a clone of the steps of the cached traversal with its own parameters bound to the containers that the strategies
+ * compiled them into and neither its strategies nor those of its children are applied.
+ * <p/>
+ * Any other value of a step is part of the shape as the strategies may compile the steps differently for different
+ * values (e.g. {@code count().is(0)} or {@code order().limit(10)}) and so is the number of values that a container
+ * tests for (e.g. {@code within("a","b")}). A traversal is not cached if a step holds an element, a lambda or any other
+ * value that is neither a literal, a collection of those nor a traversal or helper object built of them, if a step
+ * holds traversers or references to steps or traversals outside of it or if a strategy replaces a container with a
+ * copy. Only root traversals of the {@link StandardTraversalEngine} are cached and the strategies are expected to
+ * compile a traversal the same way every time. A {@link HasContainerHolder} is expected to clone its containers
+ * when it is cloned.
+ *
+ * @author agent (agent@local)
+ */
+public final class TraversalPlanCache {
+
+    private static final int MAXIMUM_DEPTH = 32;
+    private static final Object PARAMETER = new Object();
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Boolean> EQUALITY = new ConcurrentHashMap<>();
+
+    private final Map<List<Object>, Plan> plans;
+    private final AtomicLong hits = new AtomicLong(0l);
+
+    private TraversalPlanCache(final int maximumSize) {
+        this.plans = new LinkedHashMap<List<Object>, Plan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<Object>, Plan> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Compute the key of the traversal, which is {@code null} if the traversal can not be cached.
+     */
+    Key getKey(final DefaultTraversal<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep) || !(traversal.getEngine() instanceof StandardTraversalEngine))
+            return null;
+        final Key key = new Key();
+        key.shape.add(new Identity(traversal.getGraph().orElse(null)));
+        final TraversalStrategies strategies = traversal.getStrategies();
+        key.shape.add(new Identity(strategies.getTraverserGeneratorFactory()));
+        for (final TraversalStrategy strategy : strategies.toList()) {
+            key.shape.add(new Identity(strategy));
+        }
+        return TraversalPlanCache.addSteps(key.shape, key.parameters, traversal, Collections.newSetFromMap(new IdentityHashMap<>()), 0) ? key : null;
+    }
+
+    /**
+     * Replace the steps of the traversal with a clone of the steps of its cached compilation and bind the parameters
+     * of the traversal to the clone.
+     *
+     * @return whether the traversal had a cached compilation
+     */
+    boolean instantiate(final Key key, final DefaultTraversal<?, ?> traversal) {
+        final Plan plan;
+        synchronized (this.plans) {
+            plan = this.plans.get(key.shape);
+        }
+        if (null == plan)
+            return false;
+        final Traversal.Admin<?, ?> clone;
+        synchronized (plan) {
+            // cloning the steps of a parent re-integrates the clones of its children with the side-effects of the plan
+            clone = plan.traversal.clone();
+        }
+        final List<HasContainerHolder> holders = TraversalPlanCache.getHolders(clone, new ArrayList<>());
+        for (int i = 0; i < plan.bindings.length; i = i + 3) {
+            holders.get(plan.bindings[i]).getHasContainers().get(plan.bindings[i + 1]).value = key.parameters.get(plan.bindings[i + 2]).value;
+        }
+        traversal.steps.clear();
+        for (final Step<?, ?> step : clone.getSteps()) {
+            step.setTraversal(traversal);
+            traversal.steps.add(step);
+        }
+        TraversalPlanCache.setSideEffects(traversal, traversal.getSideEffects());
+        this.hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Cache the compilation of the traversal, which must not have been iterated yet, unless a parameter of the
+     * traversal can not be found in a container of the compilation.
+     */
+    void store(final Key key, final DefaultTraversal<?, ?> traversal) {
+        final Map<HasContainer, Integer> parameters = new IdentityHashMap<>();
+        for (int i = 0; i < key.parameters.size(); i++) {
+            parameters.put(key.parameters.get(i), i);
+        }
+        final Traversal.Admin<?, ?> plan = traversal.clone();
+        final List<HasContainerHolder> holders = TraversalPlanCache.getHolders(traversal, new ArrayList<>());
+        final List<HasContainerHolder> planHolders = TraversalPlanCache.getHolders(plan, new ArrayList<>());
+        final List<Integer> bindings = new ArrayList<>();
+        final BitSet bound = new BitSet(key.parameters.size());
+        for (int i = 0; i < holders.size(); i++) {
+            final List<HasContainer> hasContainers = holders.get(i).getHasContainers();
+            for (int j = 0; j < hasContainers.size(); j++) {
+                final Integer parameter = parameters.get(hasContainers.get(j));
+                if (null != parameter) {
+                    // binding a container that the plan shares with its clones would bind it for every clone
+                    if (planHolders.get(i).getHasContainers().get(j) == hasContainers.get(j))
+                        return;
+                    bindings.add(i);
+                    bindings.add(j);
+                    bindings.add(parameter);
+                    bound.set(parameter);
+                }
+            }
+        }
+        // a strategy that copied or dropped a container may have compiled its value into the plan
+        if (bound.cardinality() < key.parameters.size())
+            return;
+        TraversalPlanCache.setSideEffects(plan, plan.getSideEffects());
+        final Plan cached = new Plan(plan, bindings.stream().mapToInt(Integer::intValue).toArray());
+        synchronized (this.plans) {
+            this.plans.put(key.shape, cached);
+        }
+    }
+
+    /**
+     * The number of traversals that took on a cached compilation.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public int size() {
+        synchronized (this.plans) {
+            return this.plans.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (this.plans) {
+            this.plans.clear();
+        }
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    ////////////
+
+    private static void setSideEffects(final Traversal.Admin<?, ?> traversal, final TraversalSideEffects sideEffects) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    child.setSideEffects(sideEffects);
+                    TraversalPlanCache.setSideEffects(child, sideEffects);
+                }
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                    child.setSideEffects(sideEffects);
+                    TraversalPlanCache.setSideEffects(child, sideEffects);
+                }
+            }
+        }
+    }
+
+    /**
+     * The container holding steps of the traversal and its children in an order that a clone of the traversal shares.
+     */
+    private static List<HasContainerHolder> getHolders(final Traversal.Admin<?, ?> traversal, final List<HasContainerHolder> holders) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof HasContainerHolder)
+                holders.add((HasContainerHolder) step);
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getGlobalChildren()) {
+                    TraversalPlanCache.getHolders(child, holders);
+                }
+                for (final Traversal.Admin<?, ?> child : ((TraversalParent) step).getLocalChildren()) {
+                    TraversalPlanCache.getHolders(child, holders);
+                }
+            }
+        }
+        return holders;
+    }
+
+    /**
+     * The traversals and helper objects that are being added are tracked so that a cycle makes the traversal uncacheable.
+     */
+    private static boolean addSteps(final List<Object> key, final List<HasContainer> parameters, final Traversal.Admin<?, ?> traversal,
+                                    final Set<Object> path, final int depth) {
+        if (depth > MAXIMUM_DEPTH || !path.add(traversal))
+            return false;
+        key.add(traversal.getClass());
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            final List<Object> stepKey = new ArrayList<>();
+            stepKey.add(step.getClass());
+            stepKey.add(step.getLabel().orElse(null));
+            for (final Field field : TraversalPlanCache.getFields(step.getClass(), AbstractStep.class)) {
+                if (!TraversalPlanCache.addValue(stepKey, parameters, TraversalPlanCache.getValue(field, step), path, depth + 1))
+                    return false;
+            }
+            key.add(stepKey);
+        }
+        path.remove(traversal);
+        return true;
+    }
+
+    private static boolean addValue(final List<Object> key, final List<HasContainer> parameters, final Object value,
+                                    final Set<Object> path, final int depth) {
+        if (depth > MAXIMUM_DEPTH)
+            return false;
+        if (null == value || TraversalPlanCache.isLiteral(value) || value instanceof Enum || value instanceof Class) {
+            key.add(value);
+        } else if (value instanceof AtomicLong || value instanceof AtomicInteger || value instanceof AtomicBoolean) {
+            key.add(Arrays.asList(value.getClass(), value.toString()));
+        } else if (value instanceof HasContainer) {
+            final HasContainer hasContainer = (HasContainer) value;
+            key.add(HasContainer.class);
+            key.add(hasContainer.key);
+            if (!TraversalPlanCache.addValue(key, parameters, hasContainer.predicate, path, depth + 1))
+                return false;
+            if (null == hasContainer.value)
+                key.add(null);
+            else if (TraversalPlanCache.isLiteral(hasContainer.value))
+                key.add(PARAMETER);
+            else if (hasContainer.value instanceof Collection && ((Collection<?>) hasContainer.value).stream().allMatch(TraversalPlanCache::isLiteral))
+                key.add(((Collection) hasContainer.value).size());
+            else
+                return false;
+            if (null != hasContainer.value)
+                parameters.add(hasContainer);
+        } else if (value instanceof Traversal.Admin) {
+            final List<Object> traversalKey = new ArrayList<>();
+            if (!TraversalPlanCache.addSteps(traversalKey, parameters, (Traversal.Admin) value, path, depth + 1))
+                return false;
+            key.add(traversalKey);
+        } else if (value instanceof Step || value instanceof Traversal || value instanceof Traverser ||
+                value instanceof TraversalSideEffects || value instanceof TraversalStrategies || value instanceof TraversalEngine) {
+            return false;
+        } else if (value instanceof Element || value instanceof Property) {
+            return false;
+        } else if (value instanceof Graph) {
+            key.add(new Identity(value));
+        } else if (value.getClass().isArray()) {
+            final List<Object> arrayKey = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(value); i++) {
+                if (!TraversalPlanCache.addValue(arrayKey, parameters, Array.get(value, i), path, depth + 1))
+                    return false;
+            }
+            key.add(arrayKey);
+        } else if (value instanceof Collection) {
+            final List<Object> collectionKey = new ArrayList<>();
+            collectionKey.add(value.getClass());
+            for (final Object object : (Collection) value) {
+                if (!TraversalPlanCache.addValue(collectionKey, parameters, object, path, depth + 1))
+                    return false;
+            }
+            key.add(collectionKey);
+        } else if (value instanceof Map) {
+            final List<Object> mapKey = new ArrayList<>();
+            mapKey.add(value.getClass());
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!TraversalPlanCache.addValue(mapKey, parameters, entry.getKey(), path, depth + 1) ||
+                        !TraversalPlanCache.addValue(mapKey, parameters, entry.getValue(), path, depth + 1))
+                    return false;
+            }
+            key.add(mapKey);
+        } else if (TraversalPlanCache.hasEquality(value.getClass())) {
+            key.add(value);
+        } else if (value.getClass().getName().startsWith("org.apache.tinkerpop.gremlin.") && !value.getClass().isSynthetic()) {
+            // helper objects of the steps (e.g. an element value comparator) are compared by the values of their fields
+            if (!path.add(value))
+                return false;
+            final List<Object> objectKey = new ArrayList<>();
+            objectKey.add(value.getClass());
+            for (final Field field : TraversalPlanCache.getFields(value.getClass(), Object.class)) {
+                if (!TraversalPlanCache.addValue(objectKey, parameters, TraversalPlanCache.getValue(field, value), path, depth + 1))
+                    return false;
+            }
+            path.remove(value);
+            key.add(objectKey);
+        } else
+            // a lambda can only be compared by its identity and would be held by the cache for as long as its plan
+            return false;
+        return true;
+    }
+
+    private static boolean isLiteral(final Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Character ||
+                value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long ||
+                value instanceof Float || value instanceof Double || value instanceof BigInteger || value instanceof BigDecimal;
+    }
+
+    /**
+     * The instance fields of the class and its super classes below the stop class. Transient fields are left out as
+     * they hold what a step derives from its other fields.
+     */
+    private static List<Field> getFields(final Class<?> type, final Class<?> stopClass) {
+        return FIELDS.computeIfAbsent(type, t -> {
+            final List<Field> fields = new ArrayList<>();
+            for (Class<?> c = t; null != c && !c.equals(stopClass) && !c.equals(Object.class); c = c.getSuperclass()) {
+                for (final Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) && !field.isSynthetic()) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields;
+        });
+    }
+
+    private static Object getValue(final Field field, final Object object) {
+        try {
+            return field.get(object);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    private static boolean hasEquality(final Class<?> type) {
+        return EQUALITY.computeIfAbsent(type, t -> {
+            try {
+                return !t.getMethod("equals", Object.class).getDeclaringClass().equals(Object.class) &&
+                        !t.getMethod("hashCode").getDeclaringClass().equals(Object.class);
+            } catch (final NoSuchMethodException e) {
+                return false;
+            }
+        });
+    }
+
+    private static final class Identity {
+
+        private final Object object;
+
+        private Identity(final Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Identity && this.object == ((Identity) other).object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.object);
+        }
+    }
+
+    /**
+     * The shape of a traversal and its parameters in the order they were found in its steps.
+     */
+    static final class Key {
+
+        private final List<Object> shape = new ArrayList<>();
+        private final List<HasContainer> parameters = new ArrayList<>();
+
+        private Key() {
+        }
+    }
+
+    /**
+     * A compiled traversal and the bindings of the parameters of a traversal to its containers, each a triple of the
+     * index of the container holder, the index of the container in the holder and the index of the parameter.
+     */
+    private static final class Plan {
+
+        private final Traversal.Admin<?, ?> traversal;
+        private final int[] bindings;
+
+        private Plan(final Traversal.Admin<?, ?> traversal, final int[] bindings) {
+            this.traversal = traversal;
+            this.bindings = bindings;
+        }
+    }
+
+    public static class Builder {
+
+        private int maximumSize = 1000;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of compiled traversals the cache holds before it evicts the least recently used. Defaults to 1000.
+         */
+        public Builder maximumSize(final int maximumSize) {
+            if (maximumSize < 1)
+                throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public TraversalPlanCache create() {
+            return new TraversalPlanCache(this.maximumSize);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.util;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+/**
+ * The statistics that a graph provider exposes for the estimation of the selectivity of the filters of a traversal,
+ * such as the {@link org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer}s of a graph step. A
+ * count that the provider does not keep is {@link #UNKNOWN}, in which case a default estimate is used instead. The
+ * statistics are read when a traversal is executed, so they need not be exact but they should be cheap to read.
+ *
+ * @author agent (agent@local)
+ */
+public interface GraphStatistics {
+
+    public static final long UNKNOWN = -1l;
+
+    /**
+     * The number of elements of the class ({@link Vertex} or {@link Edge}) in the graph.
+     */
+    public long count(final Class<? extends Element> elementClass);
+
+    /**
+     * The number of elements of the class with the label.
+     */
+    public default long count(final Class<? extends Element> elementClass, final String label) {
+        return UNKNOWN;
+    }
+
+    /**
+     * The number of elements of the class with the value for the property key, which is typically only known for
+     * an indexed key.
+     */
+    public default long count(final Class<? extends Element> elementClass, final String key, final Object value) {
+        return UNKNOWN;
+    }
+
+    /**
+     * The average number of edges incident to a vertex in one direction.
+     */
+    public default double averageDegree() {
+        final long vertices = this.count(Vertex.class);
+        final long edges = this.count(Edge.class);
+        return vertices <= 0 || edges < 0 ? UNKNOWN : (double) edges / (double) vertices;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author agent (agent@local)
+ */
+public class BatchExecutionStrategyTest {
+
+    private static Traversal.Admin<?, ?> applyBatchExecutionStrategy(final Traversal<?, ?> traversal, final TraversalEngine engine) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(BatchExecutionStrategy.build().batchSize(16).create());
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().setEngine(engine);
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    private static void assertBatchSizes(final Traversal.Admin<?, ?> traversal, final int... batchSizes) {
+        assertEquals(batchSizes.length, traversal.getSteps().size());
+        for (int i = 0; i < batchSizes.length; i++) {
+            assertEquals(batchSizes[i], ((AbstractStep) traversal.getSteps().get(i)).getBatchSize());
+        }
+    }
+
+    @Test
+    public void shouldBatchFilterMapFlatMapAndReducingSteps() {
+        final Traversal.Admin<?, ?> traversal = applyBatchExecutionStrategy(__.out().has("age").values("name").count(), StandardTraversalEngine.instance());
+        assertBatchSizes(traversal, 16, 16, 16, 16);
+    }
+
+    @Test
+    public void shouldNotBatchStepsUpToARange() {
+        final Traversal.Admin<?, ?> traversal = applyBatchExecutionStrategy(__.out().has("age").limit(2).values("name").count(), StandardTraversalEngine.instance());
+        assertBatchSizes(traversal, 1, 1, 1, 16, 16);
+    }
+
+    @Test
+    public void shouldNotBatchTraversalsWithLambdas() {
+        final Traversal.Admin<?, ?> traversal = applyBatchExecutionStrategy(__.out().filter(t -> true).count(), StandardTraversalEngine.instance());
+        assertBatchSizes(traversal, 1, 1, 1);
+    }
+
+    @Test
+    public void shouldNotBatchTraversalsWithLambdasInChildren() {
+        final Traversal.Admin<?, ?> traversal = applyBatchExecutionStrategy(__.out().local(__.map(t -> t.get())).count(), StandardTraversalEngine.instance());
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            assertEquals(1, ((AbstractStep) step).getBatchSize());
+        }
+    }
+
+    @Test
+    public void shouldNotBatchComputerTraversals() {
+        final Traversal.Admin<?, ?> traversal = applyBatchExecutionStrategy(__.out().has("age").count(), mock(TraversalEngine.class));
+        assertBatchSizes(traversal, 1, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowNonPositiveBatchSize() {
+        BatchExecutionStrategy.build().batchSize(0);
+    }
+
+    @Test
+    public void shouldNotLoseStartsWhenAMapStepIsDoneMidBatch() {
+        for (final int batchSize : new int[]{1, 4, 16}) {
+            final Traversal.Admin<Integer, Integer> traversal = __.<Integer>inject(1, 2, 3, 4, 5, 6).asAdmin();
+            traversal.addStep(new MapStep<Integer, Integer>(traversal) {
+                @Override
+                protected Integer map(final Traverser.Admin<Integer> traverser) {
+                    if (traverser.get() == 3) throw FastNoSuchElementException.instance();
+                    return traverser.get() * 10;
+                }
+            });
+            assertEquals(Arrays.asList(10, 20, 40, 50, 60), drain(traversal, batchSize));
+        }
+    }
+
+    @Test
+    public void shouldNotLoseStartsWhenAFilterStepIsDoneMidBatch() {
+        for (final int batchSize : new int[]{1, 4, 16}) {
+            final Traversal.Admin<Integer, Integer> traversal = __.<Integer>inject(1, 2, 3, 4, 5, 6).asAdmin();
+            traversal.addStep(new FilterStep<Integer>(traversal) {
+                @Override
+                protected boolean filter(final Traverser.Admin<Integer> traverser) {
+                    if (traverser.get() == 3) throw FastNoSuchElementException.instance();
+                    return traverser.get() != 5;
+                }
+            });
+            assertEquals(Arrays.asList(1, 2, 4, 6), drain(traversal, batchSize));
+        }
+    }
+
+    /**
+     * Iterate the traversal past the ends its steps are done with, as one at a time a start that a step is done with
+     * only ends the current iteration.
+     */
+    private static <E> List<E> drain(final Traversal.Admin<?, E> traversal, final int batchSize) {
+        traversal.applyStrategies();
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            ((AbstractStep) step).setBatchSize(batchSize);
+        }
+        final List<E> ends = new ArrayList<>();
+        while (traversal.hasNext() || traversal.hasNext()) {
+            ends.add(traversal.next());
+        }
+        return ends;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.T;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent (agent@local)
+ */
+public class HasContainerOrderStrategyTest {
+
+    private static Traversal.Admin<?, ?> applyHasContainerOrderStrategy(final Traversal<?, ?> traversal) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(HasContainerOrderStrategy.instance());
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().setEngine(StandardTraversalEngine.instance());
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    private static String getKey(final Traversal.Admin<?, ?> traversal, final int index) {
+        return ((HasStep<?>) traversal.getSteps().get(index)).getHasContainers().get(0).key;
+    }
+
+    @Test
+    public void shouldTestAccessorsAndEqualitiesFirst() {
+        final Traversal.Admin<?, ?> traversal = applyHasContainerOrderStrategy(__.out().has("age", Compare.gt, 30).has("name", "marko").hasLabel("person").out());
+        assertEquals(5, traversal.getSteps().size());
+        assertEquals(T.label.getAccessor(), getKey(traversal, 1));
+        assertEquals("name", getKey(traversal, 2));
+        assertEquals("age", getKey(traversal, 3));
+    }
+
+    @Test
+    public void shouldNotReorderAcrossLabeledHasSteps() {
+        final Traversal.Admin<?, ?> traversal = applyHasContainerOrderStrategy(__.out().has("age", Compare.gt, 30).as("a").hasLabel("person").has("name", "marko"));
+        assertEquals("age", getKey(traversal, 1));
+        assertEquals(T.label.getAccessor(), getKey(traversal, 2));
+        assertEquals("name", getKey(traversal, 3));
+    }
+
+    @Test
+    public void shouldOrderByStatistics() {
+        final GraphStatistics statistics = mock(GraphStatistics.class);
+        when(statistics.count(Vertex.class)).thenReturn(1000l);
+        when(statistics.count(Vertex.class, "person")).thenReturn(900l);
+        when(statistics.count(Vertex.class, "name", "marko")).thenReturn(1l);
+        when(statistics.count(Vertex.class, "age", 29)).thenReturn(GraphStatistics.UNKNOWN);
+
+        final HasContainer label = new HasContainer(T.label, Compare.eq, "person");
+        final HasContainer name = new HasContainer("name", Compare.eq, "marko");
+        final HasContainer age = new HasContainer("age", Compare.eq, 29);
+        final List<HasContainer> hasContainers = new ArrayList<>(Arrays.asList(label, age, name));
+        HasContainerOrderStrategy.order(hasContainers, Vertex.class, statistics);
+        assertEquals(Arrays.asList(name, age, label), hasContainers);
+
+        HasContainerOrderStrategy.order(hasContainers, Vertex.class, null);
+        assertEquals(Arrays.asList(label, name, age), hasContainers);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author agent (agent@local)
+ */
+public class LazyBarrierStrategyTest {
+
+    private static Traversal.Admin<?, ?> applyLazyBarrierStrategy(final Traversal<?, ?> traversal, final TraversalEngine engine) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(LazyBarrierStrategy.build().maxBarrierSize(10).create());
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().setEngine(engine);
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    @Test
+    public void shouldInsertBarriersBetweenVertexSteps() {
+        final Traversal.Admin<?, ?> traversal = applyLazyBarrierStrategy(__.out().out().out().count(), StandardTraversalEngine.instance());
+        assertEquals(6, traversal.getSteps().size());
+        assertTrue(traversal.getSteps().get(1) instanceof NoOpBarrierStep);
+        assertTrue(traversal.getSteps().get(3) instanceof NoOpBarrierStep);
+        assertEquals(10, ((NoOpBarrierStep) traversal.getSteps().get(1)).getMaxBarrierSize());
+    }
+
+    @Test
+    public void shouldNotInsertBarriersAfterEdgeSteps() {
+        final Traversal.Admin<?, ?> traversal = applyLazyBarrierStrategy(__.outE().inV().out().count(), StandardTraversalEngine.instance());
+        assertEquals(0, TraversalHelper.getStepsOfClass(NoOpBarrierStep.class, traversal).size());
+    }
+
+    @Test
+    public void shouldNotInsertBarriersWhenTraversersRequirePaths() {
+        assertEquals(0, countBarriers(applyLazyBarrierStrategy(__.out().out().out().path(), StandardTraversalEngine.instance())));
+        assertEquals(0, countBarriers(applyLazyBarrierStrategy(__.as("a").out().out().out().select("a"), StandardTraversalEngine.instance())));
+    }
+
+    @Test
+    public void shouldNotInsertBarriersWhenTraversalObservesEveryTraverser() {
+        assertEquals(0, countBarriers(applyLazyBarrierStrategy(__.out().out().sideEffect(t -> {
+        }).out(), StandardTraversalEngine.instance())));
+        assertEquals(0, countBarriers(applyLazyBarrierStrategy(__.out().out().out().limit(1), StandardTraversalEngine.instance())));
+    }
+
+    @Test
+    public void shouldNotInsertBarriersOnComputer() {
+        assertEquals(0, countBarriers(applyLazyBarrierStrategy(__.out().out().out().count(), mock(TraversalEngine.class))));
+    }
+
+    private static int countBarriers(final Traversal.Admin<?, ?> traversal) {
+        final List<NoOpBarrierStep> barriers = TraversalHelper.getStepsOfClass(NoOpBarrierStep.class, traversal);
+        return barriers.size();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.step.sideEffect.mapreduce.TraverserMapReduce;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Order;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent (agent@local)
+ */
+public class OrderLimitStrategyTest {
+
+    private static Traversal.Admin<?, ?> applyOrderLimitStrategy(final Traversal<?, ?> traversal, final TraversalEngine engine) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(OrderLimitStrategy.instance());
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().setEngine(engine);
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    private static TraversalEngine computerEngine() {
+        final TraversalEngine engine = mock(TraversalEngine.class);
+        when(engine.isComputer()).thenReturn(true);
+        return engine;
+    }
+
+    @Test
+    public void shouldFoldRangeIntoOrder() {
+        final Traversal.Admin<?, ?> traversal = applyOrderLimitStrategy(__.out().order().by("age", Order.incr).range(2, 5).values("name"), StandardTraversalEngine.instance());
+        assertEquals(3, traversal.getSteps().size());
+        final OrderGlobalStep<?> orderStep = (OrderGlobalStep<?>) traversal.getSteps().get(1);
+        assertEquals(2l, orderStep.getLowRange());
+        assertEquals(5l, orderStep.getHighRange());
+    }
+
+    @Test
+    public void shouldNotFoldUnboundedOrLabeledRange() {
+        assertTrue(TraversalHelper.hasStepOfClass(RangeGlobalStep.class, applyOrderLimitStrategy(__.out().order().range(2, -1), StandardTraversalEngine.instance())));
+        assertTrue(TraversalHelper.hasStepOfClass(RangeGlobalStep.class, applyOrderLimitStrategy(__.out().order().limit(2).as("a").select("a"), StandardTraversalEngine.instance())));
+        assertTrue(TraversalHelper.hasStepOfClass(RangeGlobalStep.class, applyOrderLimitStrategy(__.out().order().out().limit(2), StandardTraversalEngine.instance())));
+    }
+
+    @Test
+    public void shouldOnlyFoldEndingRangeOnComputer() {
+        final Traversal.Admin<?, ?> traversal = applyOrderLimitStrategy(__.out().order().limit(2), computerEngine());
+        assertEquals(2, traversal.getSteps().size());
+        assertEquals(2l, ((OrderGlobalStep<?>) traversal.getEndStep()).getHighRange());
+        assertTrue(TraversalHelper.hasStepOfClass(RangeGlobalStep.class, applyOrderLimitStrategy(__.out().order().limit(2).out(), computerEngine())));
+    }
+
+    @Test
+    public void shouldNotSortMapKeysOfRangedOrderOnComputer() {
+        // the traversers of a ranged ordering are emitted under the default key, so the map keys must not be sorted
+        final Traversal.Admin<?, ?> ranged = applyOrderLimitStrategy(__.out().order().by("age", Order.incr).limit(2), computerEngine());
+        final TraverserMapReduce rangedMapReduce = new TraverserMapReduce(ranged.getEndStep());
+        assertFalse(rangedMapReduce.getMapKeySort().isPresent());
+        assertTrue(rangedMapReduce.doStage(MapReduce.Stage.REDUCE));
+
+        final Traversal.Admin<?, ?> unranged = applyOrderLimitStrategy(__.out().order().by("age", Order.incr), computerEngine());
+        final TraverserMapReduce unrangedMapReduce = new TraverserMapReduce(unranged.getEndStep());
+        assertTrue(unrangedMapReduce.getMapKeySort().isPresent());
+        assertFalse(unrangedMapReduce.doStage(MapReduce.Stage.REDUCE));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.StandardTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversalStrategies;
+import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class VertexCentricQueryStrategyTest {
+
+    private static Traversal.Admin<?, ?> applyVertexCentricQueryStrategy(final Traversal<?, ?> traversal) {
+        final TraversalStrategies strategies = new DefaultTraversalStrategies();
+        strategies.addStrategies(VertexCentricQueryStrategy.instance());
+        traversal.asAdmin().setStrategies(strategies);
+        traversal.asAdmin().setEngine(StandardTraversalEngine.instance());
+        traversal.asAdmin().applyStrategies();
+        return traversal.asAdmin();
+    }
+
+    @Test
+    public void shouldFoldHasStepsIntoEdgeVertexSteps() {
+        final Traversal.Admin<?, ?> traversal = applyVertexCentricQueryStrategy(__.outE().has("weight", Compare.gt, 0.5d).hasLabel("knows").inV());
+        assertEquals(2, traversal.getSteps().size());
+        final VertexStep<?> vertexStep = (VertexStep<?>) traversal.getStartStep();
+        assertArrayEquals(new String[]{"knows"}, vertexStep.getEdgeLabels());
+        assertEquals(1, vertexStep.getHasContainers().size());
+        assertEquals("weight", vertexStep.getHasContainers().get(0).key);
+        assertTrue(traversal.getEndStep() instanceof EdgeVertexStep);
+    }
+
+    @Test
+    public void shouldKeepLabelsOfHasSteps() {
+        final Traversal.Admin<?, ?> traversal = applyVertexCentricQueryStrategy(__.outE("knows", "created").hasLabel("created", "uses").as("a").has("weight", 1.0d));
+        assertEquals(2, traversal.getSteps().size());
+        final VertexStep<?> vertexStep = (VertexStep<?>) traversal.getStartStep();
+        assertArrayEquals(new String[]{"created"}, vertexStep.getEdgeLabels());
+        assertEquals("weight", vertexStep.getHasContainers().get(0).key);
+        assertTrue(traversal.getEndStep() instanceof IdentityStep);
+        assertEquals("a", traversal.getEndStep().getLabel().get());
+    }
+
+    @Test
+    public void shouldNotFoldIntoVertexStepsThatEmitVertices() {
+        final Traversal.Admin<?, ?> traversal = applyVertexCentricQueryStrategy(__.out("knows").has("age", 29));
+        assertEquals(2, traversal.getSteps().size());
+        assertTrue(((VertexStep<?>) traversal.getStartStep()).getHasContainers().isEmpty());
+        assertTrue(traversal.getEndStep() instanceof HasStep);
+    }
+}
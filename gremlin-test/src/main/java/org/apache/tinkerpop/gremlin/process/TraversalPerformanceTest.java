@@ -127,4 +127,46 @@ public class TraversalPerformanceTest extends AbstractGremlinTest {
     public void g_E_hasLabelXwrittenByX_hasNotXinV_inEXsungByXX_subgraphXsgX() throws Exception {
         g.E().hasLabel("writtenBy").hasNot(__.inV().inE("sungBy")).subgraph("sg").iterate();
     }
-}
\ No newline at end of file
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+    @Test
+    public void g_V_localXbothE_limitX1XX() throws Exception {
+        g.V().local(__.bothE().limit(1)).iterate();
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+    @Test
+    public void g_V_hasXname_GarciaX_repeatXinX_timesX2X_limitX10X() throws Exception {
+        g.V().has("name", "Garcia").repeat(__.in()).times(2).limit(10).iterate();
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+    @Test
+    public void g_V_out_out_out_simplePath() throws Exception {
+        g.V().out().out().out().simplePath().iterate();
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+    @Test
+    public void g_V_asXaX_out_asXbX_out_asXcX_selectXa_cX() throws Exception {
+        g.V().as("a").out().as("b").out().as("c").select("a", "c").iterate();
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+    @Test
+    public void g_V_outE_inV_outE_inV_outE_inV_path() throws Exception {
+        g.V().outE().inV().outE().inV().outE().inV().path().iterate();
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @LoadGraphWith(LoadGraphWith.GraphData.GRATEFUL)
+    @Test
+    public void g_V_hasXname_GarciaX_repeatXbothE_otherV_simplePathX_timesX4X_path() throws Exception {
+        g.V().has("name", "Garcia").repeat(__.bothE().otherV().simplePath()).times(4).path().iterate();
+    }
+}
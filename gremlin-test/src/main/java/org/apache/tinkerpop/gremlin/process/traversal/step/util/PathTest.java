@@ -119,4 +119,33 @@ public class PathTest extends AbstractGremlinProcessTest {
             assertTrue(path.labels().get(2).contains("d"));
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldHandlePathsLongerThanTheirFlatPrefix() {
+        Arrays.asList(MutablePath.make(), ImmutablePath.make()).forEach(path -> {
+            for (int i = 0; i < 20; i++) {
+                path = i % 3 == 0 ? path.extend(i, "a") : path.extend(i);
+            }
+            path.addLabel("b");
+            path.addLabel("b");
+            assertEquals(20, path.size());
+            assertEquals(20, path.objects().size());
+            assertEquals(20, path.labels().size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals(Integer.valueOf(i), path.get(i));
+                assertEquals(Integer.valueOf(i), path.objects().get(i));
+                assertEquals(i % 3 == 0, path.labels().get(i).contains("a"));
+            }
+            assertEquals(Arrays.asList(0, 3, 6, 9, 12, 15, 18), path.get("a"));
+            assertEquals(Integer.valueOf(19), path.get("b"));
+            assertEquals(1, path.labels().get(19).size());
+            assertTrue(path.hasLabel("a"));
+            assertTrue(path.hasLabel("b"));
+            assertFalse(path.hasLabel("c"));
+            assertTrue(path.isSimple());
+            final Path extended = path.extend(0, "c");
+            assertFalse(extended.isSimple());
+            assertEquals(Integer.valueOf(0), extended.get("c"));
+        });
+    }
+}
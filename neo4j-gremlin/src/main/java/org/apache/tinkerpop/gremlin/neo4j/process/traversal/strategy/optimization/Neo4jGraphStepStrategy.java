@@ -19,19 +19,14 @@
 package org.apache.tinkerpop.gremlin.neo4j.process.traversal.strategy.optimization;
 
 import org.apache.tinkerpop.gremlin.neo4j.process.traversal.step.sideEffect.Neo4jGraphStep;
-import org.apache.tinkerpop.gremlin.process.traversal.Step;
-import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
-import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
-import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
-import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
-import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.AbstractHasContainerPushdownStrategy;
 
 /**
  * @author Pieter Martin
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public class Neo4jGraphStepStrategy extends AbstractTraversalStrategy {
+public class Neo4jGraphStepStrategy extends AbstractHasContainerPushdownStrategy {
 
     private static final Neo4jGraphStepStrategy INSTANCE = new Neo4jGraphStepStrategy();
 
@@ -39,34 +34,8 @@ public class Neo4jGraphStepStrategy extends AbstractTraversalStrategy {
     }
 
     @Override
-    public void apply(final Traversal.Admin<?, ?> traversal) {
-        if (traversal.getEngine().isComputer())
-            return;
-
-        final Step<?, ?> startStep = traversal.getStartStep();
-        if (startStep instanceof GraphStep) {
-            final GraphStep<?> originalGraphStep = (GraphStep) startStep;
-            final Neo4jGraphStep<?> neo4jGraphStep = new Neo4jGraphStep<>(originalGraphStep);
-            TraversalHelper.replaceStep(startStep, (Step) neo4jGraphStep, traversal);
-
-            Step<?, ?> currentStep = neo4jGraphStep.getNextStep();
-            while (true) {
-                if (currentStep instanceof HasContainerHolder) {
-                    neo4jGraphStep.hasContainers.addAll(((HasContainerHolder) currentStep).getHasContainers());
-                    if (currentStep.getLabel().isPresent()) {
-                        final IdentityStep identityStep = new IdentityStep<>(traversal);
-                        identityStep.setLabel(currentStep.getLabel().get());
-                        TraversalHelper.insertAfterStep(identityStep, currentStep, traversal);
-                    }
-                    traversal.removeStep(currentStep);
-                } else if (currentStep instanceof IdentityStep) {
-                    // do nothing
-                } else {
-                    break;
-                }
-                currentStep = currentStep.getNextStep();
-            }
-        }
+    protected GraphStep<?> createGraphStep(final GraphStep<?> originalGraphStep) {
+        return new Neo4jGraphStep<>(originalGraphStep);
     }
 
     public static Neo4jGraphStepStrategy instance() {
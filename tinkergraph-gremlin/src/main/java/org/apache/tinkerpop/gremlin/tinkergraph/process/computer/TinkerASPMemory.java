@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+
+import java.util.Set;
+
+/**
+ * The {@link org.apache.tinkerpop.gremlin.process.computer.Memory} of an
+ * {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer.Isolation#ASP} computation.
+ * There are no sub-rounds and thus, an update is visible as soon as it is made.
+ *
+ * @author agent (agent@local)
+ */
+public class TinkerASPMemory extends TinkerMemory {
+
+    public TinkerASPMemory(final VertexProgram<?> vertexProgram, final Set<MapReduce> mapReducers) {
+        super(vertexProgram, mapReducers);
+        this.previousMap = this.currentMap;
+    }
+
+    @Override
+    protected void completeSubRound() {
+        // updates are visible as soon as they are made
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.process.computer.Memory;
 import org.apache.tinkerpop.gremlin.process.computer.util.DefaultComputerResult;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -34,6 +35,6 @@ public class TinkerComputerResult extends DefaultComputerResult {
 
     @Override
     public void close() {
-        ((TinkerGraph) this.graph).close();
+        TinkerHelper.dropGraphView((TinkerGraph) this.graph);
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The slots of the vertices to execute in the current iteration and those scheduled for the next iteration.
+ * Workers claim chunks of the current frontier until it is exhausted. A slot is added to the next frontier at most once
+ * as its scheduled flag is only cleared when the next frontier becomes the current frontier.
+ * <p/>
+ * A vertex is scheduled if it has not voted to halt or if it has been sent a message. Until the first vote to halt,
+ * every vertex is active and thus, there is no need to schedule the receivers of local messages. The iteration after
+ * the first vote to halt is conservatively executed over all slots as local messages sent during the iteration of
+ * the vote were not scheduled.
+ * <p/>
+ * For {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer.Isolation#ASP}, the frontier is a work queue.
+ * After the initial iteration, a vertex that is sent a message is queued and executed again within the same
+ * iteration, which only ends once the queue is empty and no worker is executing a vertex. Each slot moves from idle to
+ * queued to running, so a vertex is never executed by two workers at once and a vertex that is sent a message while
+ * it is running is queued again once it completes.
+ *
+ * @author agent (agent@local)
+ */
+class TinkerFrontier {
+
+    private static final int IDLE = 0;
+    private static final int QUEUED = 1;
+    private static final int RUNNING = 2;
+    private static final int RESCHEDULED = 3;
+
+    private final AtomicIntegerArray scheduled;
+    private final AtomicInteger cursor = new AtomicInteger(0);
+    private final AtomicInteger nextSize = new AtomicInteger(0);
+    private final int numberOfSlots;
+    private volatile boolean halted = false;
+    private volatile boolean halting = false;
+    private int[] current;
+    private int[] next;
+    private int size;
+
+    private final boolean asynchronous;
+    private final AtomicIntegerArray states;
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private final int[] queue;
+    private int queueHead = 0;
+    private int queueSize = 0;
+    private volatile boolean immediate = false;
+
+    /**
+     * Create a frontier whose initial iteration contains all slots.
+     */
+    public TinkerFrontier(final int numberOfSlots, final boolean asynchronous) {
+        this.numberOfSlots = numberOfSlots;
+        this.scheduled = new AtomicIntegerArray(numberOfSlots);
+        this.current = new int[numberOfSlots];
+        this.next = new int[numberOfSlots];
+        this.asynchronous = asynchronous;
+        this.states = asynchronous ? new AtomicIntegerArray(numberOfSlots) : null;
+        this.queue = asynchronous ? new int[numberOfSlots] : null;
+        this.scheduleAll();
+        this.startIteration();
+    }
+
+    public boolean isAsynchronous() {
+        return this.asynchronous;
+    }
+
+    /**
+     * Schedule the slot for the next iteration.
+     */
+    public void schedule(final int slot) {
+        if (this.scheduled.compareAndSet(slot, 0, 1))
+            this.next[this.nextSize.getAndIncrement()] = slot;
+    }
+
+    /**
+     * Schedule the slot of a vertex that was sent a message, which is for the next iteration unless the frontier is
+     * asynchronous and past its initial iteration, in which case it is queued for the current iteration.
+     */
+    public void scheduleReceiver(final int slot) {
+        if (!this.immediate) {
+            this.schedule(slot);
+            return;
+        }
+        while (true) {
+            final int state = this.states.get(slot);
+            if (IDLE == state) {
+                if (this.states.compareAndSet(slot, IDLE, QUEUED)) {
+                    // the sender is running, so the pending count can not drop to zero before it is incremented
+                    this.pending.incrementAndGet();
+                    this.offer(slot);
+                    return;
+                }
+            } else if (RUNNING == state) {
+                if (this.states.compareAndSet(slot, RUNNING, RESCHEDULED))
+                    return;
+            } else
+                return; // the vertex will receive the message when it runs
+        }
+    }
+
+    public void voteToHalt() {
+        if (!this.halted)
+            this.halted = true;
+    }
+
+    /**
+     * Whether any vertex voted to halt before the current iteration.
+     */
+    public boolean isHalting() {
+        return this.halting;
+    }
+
+    /**
+     * Claim a chunk of the current frontier.
+     *
+     * @return the index of the first claimed slot, which is greater than or equal to {@link #size()} if the current frontier is exhausted
+     */
+    public int claim(final int chunkSize) {
+        return this.cursor.getAndAdd(chunkSize);
+    }
+
+    public int get(final int index) {
+        return this.current[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Take a slot to execute from an asynchronous frontier, first from the current frontier and then from the queue,
+     * waiting while the queue is empty and other workers are still executing. The slot must be handed back to
+     * {@link #complete(int)} once its vertex has been executed.
+     *
+     * @return the slot, or -1 once there is nothing left to execute in the current iteration
+     */
+    public int take() {
+        while (true) {
+            if (this.cursor.get() < this.size) {
+                final int index = this.cursor.getAndIncrement();
+                if (index < this.size) {
+                    final int slot = this.current[index];
+                    this.states.set(slot, RUNNING);
+                    return slot;
+                }
+            }
+            final int slot = this.poll();
+            if (slot >= 0) {
+                this.states.set(slot, RUNNING);
+                return slot;
+            }
+            if (0 == this.pending.get())
+                return -1;
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Complete the execution of a slot taken from an asynchronous frontier and queue it again if its vertex was sent
+     * a message while it was running.
+     */
+    public void complete(final int slot) {
+        if (this.states.compareAndSet(slot, RUNNING, IDLE))
+            this.pending.decrementAndGet();
+        else {
+            this.states.set(slot, QUEUED);
+            this.offer(slot);
+        }
+    }
+
+    /**
+     * Make the next frontier the current frontier. This must not be called while workers are executing.
+     *
+     * @return whether the new current frontier has any slots
+     */
+    public boolean completeIteration() {
+        // asynchronous local messages are pushed to the adjacent vertices and thus, their receivers are scheduled
+        if (this.halted && !this.halting && !this.asynchronous) {
+            this.halting = true;
+            this.nextSize.set(0);
+            for (int slot = 0; slot < this.numberOfSlots; slot++) {
+                this.scheduled.set(slot, 0);
+            }
+            this.scheduleAll();
+        } else {
+            final int[] temp = this.current;
+            this.current = this.next;
+            this.next = temp;
+            this.size = this.nextSize.getAndSet(0);
+            for (int i = 0; i < this.size; i++) {
+                this.scheduled.set(this.current[i], 0);
+            }
+        }
+        this.cursor.set(0);
+        // the receivers of messages sent in the initial iteration wait for the next iteration so that they do not
+        // execute the initial iteration twice
+        this.immediate = this.asynchronous;
+        this.startIteration();
+        return this.size > 0;
+    }
+
+    private void scheduleAll() {
+        for (int slot = 0; slot < this.numberOfSlots; slot++) {
+            this.current[slot] = slot;
+        }
+        this.size = this.numberOfSlots;
+    }
+
+    private void startIteration() {
+        if (!this.asynchronous) return;
+        for (int i = 0; i < this.size; i++) {
+            this.states.set(this.current[i], QUEUED);
+        }
+        this.pending.set(this.size);
+    }
+
+    private void offer(final int slot) {
+        // a slot is queued at most once and never while it is in the current frontier, so the queue can not overflow
+        synchronized (this.queue) {
+            this.queue[(this.queueHead + this.queueSize++) % this.queue.length] = slot;
+        }
+    }
+
+    private int poll() {
+        synchronized (this.queue) {
+            if (0 == this.queueSize)
+                return -1;
+            final int slot = this.queue[this.queueHead];
+            this.queueHead = (this.queueHead + 1) % this.queue.length;
+            this.queueSize--;
+            return slot;
+        }
+    }
+}
@@ -25,14 +25,15 @@ import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
 import org.apache.tinkerpop.gremlin.process.computer.util.GraphComputerHelper;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
@@ -46,6 +47,8 @@ import java.util.concurrent.Future;
  */
 public class TinkerGraphComputer implements GraphComputer {
 
+    private static final int FRONTIER_CHUNK_SIZE = 256;
+
     private Isolation isolation = Isolation.BSP;
     private Optional<ResultGraph> resultGraph = Optional.empty();
     private Optional<Persist> persist = Optional.empty();
@@ -53,9 +56,10 @@ public class TinkerGraphComputer implements GraphComputer {
     private VertexProgram<?> vertexProgram;
     private final TinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
+    private TinkerMessageBoard messageBoard;
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
+    private int workers = Runtime.getRuntime().availableProcessors();
 
 
     public TinkerGraphComputer(final TinkerGraph graph) {
@@ -96,6 +100,20 @@ public class TinkerGraphComputer implements GraphComputer {
         return this;
     }
 
+    /**
+     * Set the number of worker threads that concurrently execute the {@link VertexProgram} and {@link MapReduce} jobs.
+     * By default, this is the number of available processors.
+     *
+     * @param workers the number of workers
+     * @return the updated GraphComputer with the newly set number of workers
+     */
+    public TinkerGraphComputer workers(final int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("The number of workers must be greater than zero: " + workers);
+        this.workers = workers;
+        return this;
+    }
+
     @Override
     public Future<ComputerResult> submit() {
         if (this.executed)
@@ -109,6 +127,8 @@ public class TinkerGraphComputer implements GraphComputer {
         // it is possible to run mapreducers without a vertex program
         if (null != this.vertexProgram) {
             GraphComputerHelper.validateProgramOnComputer(this, this.vertexProgram);
+            if (!this.vertexProgram.getFeatures().supportsIsolation(this.isolation))
+                throw GraphComputer.Exceptions.isolationNotSupportedByVertexProgram(this.vertexProgram, this.isolation);
             this.mapReducers.addAll(this.vertexProgram.getMapReducers());
         }
 
@@ -122,31 +142,55 @@ public class TinkerGraphComputer implements GraphComputer {
 
         //final Graph computeGraph = this.graph;
         final ComputerGraph computeGraph = new ComputerGraph(this.graph, null == this.vertexProgram ? Collections.emptySet() : this.vertexProgram.getElementComputeKeys());
-        this.memory = new TinkerMemory(this.vertexProgram, this.mapReducers);
+        this.memory = this.isolation.equals(Isolation.ASP) ?
+                new TinkerASPMemory(this.vertexProgram, this.mapReducers) :
+                new TinkerMemory(this.vertexProgram, this.mapReducers);
         return CompletableFuture.<ComputerResult>supplyAsync(() -> {
             final long time = System.currentTimeMillis();
-            try (final TinkerWorkerPool workers = new TinkerWorkerPool(Runtime.getRuntime().availableProcessors())) {
+            try (final TinkerWorkerPool workers = new TinkerWorkerPool(this.workers)) {
+                // each vertex is assigned a dense slot for the duration of the computation and each map worker is assigned a contiguous range of slots
+                final TinkerVertex[] vertices = TinkerHelper.assignSlots(this.graph);
+                final int[] partitions = TinkerGraphComputer.partition(vertices.length, workers.getNumberOfWorkers());
                 if (null != this.vertexProgram) {
-                    TinkerHelper.createGraphView(this.graph, this.isolation, this.vertexProgram.getElementComputeKeys());
+                    TinkerHelper.createGraphView(this.graph, this.isolation, this.vertexProgram.getElementComputeKeys(), vertices.length);
                     computeGraph.setState(ComputerGraph.State.VERTEX_PROGRAM);
                     // execute the vertex program
                     this.vertexProgram.setup(this.memory);
                     this.memory.completeSubRound();
+                    // workers claim vertices from a frontier of those vertices that have not voted to halt or have been sent messages
+                    final TinkerFrontier frontier = new TinkerFrontier(vertices.length, this.isolation.equals(Isolation.ASP));
+                    this.messageBoard = new TinkerMessageBoard<>(this.graph, vertices.length, this.vertexProgram.getMessageCombiner(), this.isolation.equals(Isolation.ASP));
                     while (true) {
                         workers.setVertexProgram(this.vertexProgram);
                         workers.vertexProgramWorkerIterationStart(this.memory.asImmutable());
-                        final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(computeGraph.vertices());
-                        workers.executeVertexProgram(vertexProgram -> {
-                            while (true) {
-                                final Vertex vertex = vertices.next();
-                                if (null == vertex) return;
-                                vertexProgram.execute(vertex, new TinkerMessenger(vertex, this.messageBoard, vertexProgram.getMessageCombiner()), this.memory);
+                        workers.executeVertexProgram((workerId, vertexProgram) -> {
+                            if (frontier.isAsynchronous()) {
+                                // workers take vertices one at a time as a vertex that is sent a message is queued again
+                                int slot;
+                                while ((slot = frontier.take()) >= 0) {
+                                    try {
+                                        this.execute(vertexProgram, computeGraph, vertices[slot], slot, frontier);
+                                    } finally {
+                                        frontier.complete(slot);
+                                    }
+                                }
+                            } else {
+                                int start;
+                                while ((start = frontier.claim(FRONTIER_CHUNK_SIZE)) < frontier.size()) {
+                                    final int end = Math.min(start + FRONTIER_CHUNK_SIZE, frontier.size());
+                                    for (int i = start; i < end; i++) {
+                                        final int slot = frontier.get(i);
+                                        this.execute(vertexProgram, computeGraph, vertices[slot], slot, frontier);
+                                    }
+                                }
                             }
                         });
                         workers.vertexProgramWorkerIterationEnd(this.memory.asImmutable());
                         this.messageBoard.completeIteration();
                         this.memory.completeSubRound();
-                        if (this.vertexProgram.terminate(this.memory)) {
+                        // if no vertex is active, then the computation can make no further progress
+                        final boolean active = frontier.completeIteration();
+                        if (this.vertexProgram.terminate(this.memory) || !active) {
                             this.memory.incrIteration();
                             this.memory.completeSubRound();
                             break;
@@ -162,14 +206,11 @@ public class TinkerGraphComputer implements GraphComputer {
                 for (final MapReduce mapReduce : mapReducers) {
                     if (mapReduce.doStage(MapReduce.Stage.MAP)) {
                         final TinkerMapEmitter<?, ?> mapEmitter = new TinkerMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
-                        final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(computeGraph.vertices());
                         workers.setMapReduce(mapReduce);
                         workers.mapReduceWorkerStart(MapReduce.Stage.MAP);
-                        workers.executeMapReduce(workerMapReduce -> {
-                            while (true) {
-                                final Vertex vertex = vertices.next();
-                                if (null == vertex) return;
-                                workerMapReduce.map(vertex, mapEmitter);
+                        workers.executeMapReduce((workerId, workerMapReduce) -> {
+                            for (int slot = partitions[workerId]; slot < partitions[workerId + 1]; slot++) {
+                                workerMapReduce.map(computeGraph.wrapVertex(vertices[slot]), mapEmitter);
                             }
                         });
                         workers.mapReduceWorkerEnd(MapReduce.Stage.MAP);
@@ -180,13 +221,12 @@ public class TinkerGraphComputer implements GraphComputer {
                         // no need to run combiners as this is single machine
                         if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
                             final TinkerReduceEmitter<?, ?> reduceEmitter = new TinkerReduceEmitter<>();
-                            final SynchronizedIterator<Map.Entry<?, Queue<?>>> keyValues = new SynchronizedIterator((Iterator) mapEmitter.reduceMap.entrySet().iterator());
+                            final List<Map.Entry<?, Queue<?>>> keyValues = new ArrayList<>((Set) mapEmitter.reduceMap.entrySet());
+                            final int[] keyValuePartitions = TinkerGraphComputer.partition(keyValues.size(), workers.getNumberOfWorkers());
                             workers.mapReduceWorkerStart(MapReduce.Stage.REDUCE);
-                            workers.executeMapReduce(workerMapReduce -> {
-                                while (true) {
-                                    final Map.Entry<?, Queue<?>> entry = keyValues.next();
-                                    if (null == entry) return;
-                                    workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
+                            workers.executeMapReduce((workerId, workerMapReduce) -> {
+                                for (int i = keyValuePartitions[workerId]; i < keyValuePartitions[workerId + 1]; i++) {
+                                    workerMapReduce.reduce(keyValues.get(i).getKey(), keyValues.get(i).getValue().iterator(), reduceEmitter);
                                 }
                             });
                             workers.mapReduceWorkerEnd(MapReduce.Stage.REDUCE);
@@ -208,21 +248,29 @@ public class TinkerGraphComputer implements GraphComputer {
         });
     }
 
+    private void execute(final VertexProgram vertexProgram, final ComputerGraph computeGraph, final TinkerVertex vertex, final int slot, final TinkerFrontier frontier) {
+        final TinkerMessenger<?> messenger = new TinkerMessenger<>(vertex, this.messageBoard, frontier);
+        vertexProgram.execute(computeGraph.wrapVertex(vertex), messenger, this.memory);
+        if (messenger.isHalted())
+            frontier.voteToHalt();
+        else
+            frontier.schedule(slot);
+    }
+
     @Override
     public String toString() {
         return StringFactory.graphComputerString(this);
     }
 
-    private static class SynchronizedIterator<V> {
-
-        private final Iterator<V> iterator;
-
-        public SynchronizedIterator(final Iterator<V> iterator) {
-            this.iterator = iterator;
-        }
-
-        public synchronized V next() {
-            return this.iterator.hasNext() ? this.iterator.next() : null;
+    /**
+     * Split the range 0 until size into the provided number of contiguous partitions of (nearly) equal size.
+     * Partition i is the range from partitions[i] (inclusive) until partitions[i + 1] (exclusive).
+     */
+    private static int[] partition(final int size, final int numberOfPartitions) {
+        final int[] partitions = new int[numberOfPartitions + 1];
+        for (int i = 0; i <= numberOfPartitions; i++) {
+            partitions[i] = (int) (((long) size * i) / numberOfPartitions);
         }
+        return partitions;
     }
-}
\ No newline at end of file
+}
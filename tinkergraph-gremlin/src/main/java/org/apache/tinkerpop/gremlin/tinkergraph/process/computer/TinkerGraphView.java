@@ -19,9 +19,7 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
-import org.apache.tinkerpop.gremlin.structure.Element;
-import org.apache.tinkerpop.gremlin.structure.Property;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
@@ -30,97 +28,246 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
+ * The compute properties of a {@link TinkerGraphComputer} execution. Compute properties are stored in columns, one per
+ * compute key, that are indexed by the dense slot assigned to each vertex at the start of the computation. A single
+ * {@link Double}, {@link Long} or {@link Integer} value is stored unboxed and its {@link VertexProperty} is only
+ * materialized when read. All other values (or multiple values, or values with meta-properties) are stored as
+ * {@link VertexProperty} objects.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TinkerGraphView {
 
+    private static final byte ABSENT = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte LONG = 2;
+    private static final byte INTEGER = 3;
+    private static final byte OBJECT = 4;
+
     protected final Set<String> computeKeys;
     protected final GraphComputer.Isolation isolation;
-    private Map<Element, Map<String, List<VertexProperty>>> computeProperties;
+    private final Map<String, ComputeColumn> columns = new HashMap<>();
 
-    public TinkerGraphView(final GraphComputer.Isolation isolation, final Set<String> computeKeys) {
+    public TinkerGraphView(final GraphComputer.Isolation isolation, final Set<String> computeKeys, final int numberOfSlots) {
         this.isolation = isolation;
         this.computeKeys = computeKeys;
-        this.computeProperties = new ConcurrentHashMap<>();
+        int keyIndex = 0;
+        for (final String key : computeKeys) {
+            this.columns.put(key, new ComputeColumn(key, keyIndex++, computeKeys.size(), numberOfSlots));
+        }
     }
 
-    public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
+    public <V> VertexProperty<V> addProperty(final TinkerVertex vertex, final String key, final V value, final Object... keyValues) {
         ElementHelper.validateProperty(key, value);
         if (isComputeKey(key)) {
-            final TinkerVertexProperty<V> property = new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
-                @Override
-                public void remove() {
-                    removeProperty(vertex, key, this);
-                }
-            };
-            this.addValue(vertex, key, property);
-            return property;
+            return this.columns.get(key).add(vertex, value, keyValues);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
     }
 
     public List<VertexProperty> getProperty(final TinkerVertex vertex, final String key) {
-        return isComputeKey(key) ? this.getValue(vertex, key) : TinkerHelper.getProperties(vertex).getOrDefault(key, Collections.emptyList());
+        return isComputeKey(key) ? this.columns.get(key).get(vertex) : TinkerHelper.getProperties(vertex).getOrDefault(key, Collections.emptyList());
     }
 
-    public List<Property> getProperties(final TinkerVertex vertex) {
-        final Stream<Property> a = TinkerHelper.getProperties(vertex).values().stream().flatMap(list -> list.stream());
-        final Stream<Property> b = this.computeProperties.containsKey(vertex) ?
-                this.computeProperties.get(vertex).values().stream().flatMap(list -> list.stream()) :
-                Stream.empty();
-        return Stream.concat(a, b).collect(Collectors.toList());
+    public List<VertexProperty> getProperties(final TinkerVertex vertex, final String... propertyKeys) {
+        if (propertyKeys.length == 1)
+            return Graph.Hidden.isHidden(propertyKeys[0]) ? Collections.emptyList() : this.getProperty(vertex, propertyKeys[0]);
+        final List<VertexProperty> properties = new ArrayList<>();
+        for (final Map.Entry<String, List<VertexProperty>> entry : TinkerHelper.getProperties(vertex).entrySet()) {
+            if (ElementHelper.keyExists(entry.getKey(), propertyKeys))
+                properties.addAll(entry.getValue());
+        }
+        for (final ComputeColumn column : this.columns.values()) {
+            if (ElementHelper.keyExists(column.key, propertyKeys))
+                properties.addAll(column.get(vertex));
+        }
+        return properties;
     }
 
     public void removeProperty(final TinkerVertex vertex, final String key, final VertexProperty property) {
         if (isComputeKey(key)) {
-            this.removeValue(vertex, key, property);
+            this.columns.get(key).remove(vertex, property);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
     }
 
+    public boolean isComputeKey(final String key) {
+        return this.computeKeys.contains(key);
+    }
+
     //////////////////////
 
-    private void addValue(final Vertex vertex, final String key, final VertexProperty property) {
-        final Map<String, List<VertexProperty>> elementProperties = this.computeProperties.computeIfAbsent(vertex, k -> new ConcurrentHashMap<>());
-        elementProperties.compute(key, (k, v) -> {
-            if (null == v) v = Collections.synchronizedList(new ArrayList<>());
-            v.add(property);
-            return v;
-        });
-    }
+    /**
+     * A slot is only ever written by the worker that owns the vertex of that slot and thus, per-slot access is not
+     * synchronized. Only the lazy allocation of the typed arrays, which are shared by all workers, is.
+     */
+    private final class ComputeColumn {
 
-    private void removeValue(final Vertex vertex, final String key) {
-        this.computeProperties.computeIfPresent(vertex, (k, v) -> {
-            v.remove(key);
-            return v;
-        });
-    }
+        private final String key;
+        private final int keyIndex;
+        private final int numberOfKeys;
+        private final int numberOfSlots;
+        private final byte[] types;
+        private volatile double[] doubles;
+        private volatile long[] longs;
+        private volatile Object[] objects; // a VertexProperty or a List<VertexProperty>
+
+        public ComputeColumn(final String key, final int keyIndex, final int numberOfKeys, final int numberOfSlots) {
+            this.key = key;
+            this.keyIndex = keyIndex;
+            this.numberOfKeys = numberOfKeys;
+            this.numberOfSlots = numberOfSlots;
+            this.types = new byte[numberOfSlots];
+        }
 
-    private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
-        this.computeProperties.computeIfPresent(vertex, (k, v) -> {
-            v.computeIfPresent(key, (k1, v1) -> {
-                v1.remove(property);
-                return v1;
-            });
-            return v;
-        });
+        public <V> VertexProperty<V> add(final TinkerVertex vertex, final V value, final Object... keyValues) {
+            final int slot = this.slot(vertex);
+            if (ABSENT == this.types[slot] && 0 == keyValues.length) {
+                if (value instanceof Double) {
+                    this.doubles()[slot] = (Double) value;
+                    this.types[slot] = DOUBLE;
+                    return this.materialize(vertex, slot);
+                } else if (value instanceof Long) {
+                    this.longs()[slot] = (Long) value;
+                    this.types[slot] = LONG;
+                    return this.materialize(vertex, slot);
+                } else if (value instanceof Integer) {
+                    this.longs()[slot] = (Integer) value;
+                    this.types[slot] = INTEGER;
+                    return this.materialize(vertex, slot);
+                }
+            }
+            final VertexProperty<V> property = createProperty(vertex, this.key, value);
+            ElementHelper.attachProperties(property, keyValues);
+            if (ABSENT == this.types[slot]) {
+                this.objects()[slot] = property;
+            } else {
+                final List<VertexProperty> properties = new ArrayList<>(this.get(vertex));
+                properties.add(property);
+                this.objects()[slot] = properties;
+            }
+            this.types[slot] = OBJECT;
+            return property;
+        }
+
+        public List<VertexProperty> get(final TinkerVertex vertex) {
+            final int slot = this.slot(vertex);
+            switch (this.types[slot]) {
+                case ABSENT:
+                    return Collections.emptyList();
+                case OBJECT:
+                    final Object object = this.objects[slot];
+                    return object instanceof List ? new ArrayList<>((List<VertexProperty>) object) : Collections.singletonList((VertexProperty) object);
+                default:
+                    return Collections.singletonList(this.materialize(vertex, slot));
+            }
+        }
+
+        public void remove(final TinkerVertex vertex, final VertexProperty property) {
+            final int slot = this.slot(vertex);
+            switch (this.types[slot]) {
+                case ABSENT:
+                    return;
+                case OBJECT:
+                    final Object object = this.objects[slot];
+                    if (object instanceof List) {
+                        ((List) object).remove(property);
+                        if (((List) object).isEmpty()) {
+                            this.objects[slot] = null;
+                            this.types[slot] = ABSENT;
+                        }
+                    } else if (object.equals(property)) {
+                        this.objects[slot] = null;
+                        this.types[slot] = ABSENT;
+                    }
+                    return;
+                default:
+                    if (this.materializedId(slot).equals(property.id()))
+                        this.types[slot] = ABSENT;
+            }
+        }
+
+        private <V> VertexProperty<V> materialize(final TinkerVertex vertex, final int slot) {
+            final Object value;
+            switch (this.types[slot]) {
+                case DOUBLE:
+                    value = this.doubles[slot];
+                    break;
+                case LONG:
+                    value = this.longs[slot];
+                    break;
+                default:
+                    value = (int) this.longs[slot];
+            }
+            return createProperty(this.materializedId(slot), vertex, this.key, (V) value);
+        }
+
+        /**
+         * Unboxed values have no property object to hold an id and thus, a stable id is derived from the slot and key.
+         * The ids are negative so as to not collide with the ids generated for {@link TinkerVertexProperty} objects.
+         */
+        private Long materializedId(final int slot) {
+            return -1l - (((long) slot * this.numberOfKeys) + this.keyIndex);
+        }
+
+        private int slot(final TinkerVertex vertex) {
+            final int slot = TinkerHelper.getSlot(vertex);
+            if (slot < 0 || slot >= this.numberOfSlots)
+                throw new IllegalStateException("The vertex was not a part of the graph when the computation started: " + vertex);
+            return slot;
+        }
+
+        private double[] doubles() {
+            if (null == this.doubles) {
+                synchronized (this) {
+                    if (null == this.doubles) this.doubles = new double[this.numberOfSlots];
+                }
+            }
+            return this.doubles;
+        }
+
+        private long[] longs() {
+            if (null == this.longs) {
+                synchronized (this) {
+                    if (null == this.longs) this.longs = new long[this.numberOfSlots];
+                }
+            }
+            return this.longs;
+        }
+
+        private Object[] objects() {
+            if (null == this.objects) {
+                synchronized (this) {
+                    if (null == this.objects) this.objects = new Object[this.numberOfSlots];
+                }
+            }
+            return this.objects;
+        }
     }
 
-    private List<VertexProperty> getValue(final Vertex vertex, final String key) {
-        return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
+    private <V> VertexProperty<V> createProperty(final TinkerVertex vertex, final String key, final V value) {
+        return new TinkerVertexProperty<V>(vertex, key, value) {
+            @Override
+            public void remove() {
+                removeProperty(vertex, key, this);
+            }
+        };
     }
 
-    public boolean isComputeKey(final String key) {
-        return this.computeKeys.contains(key);
+    private <V> VertexProperty<V> createProperty(final Object id, final TinkerVertex vertex, final String key, final V value) {
+        return new TinkerVertexProperty<V>(id, vertex, key, value) {
+            @Override
+            public void remove() {
+                removeProperty(vertex, key, this);
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -18,22 +18,123 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * A message board that addresses messages by the dense slot assigned to each vertex at the start of the computation.
+ * Messages are double-buffered in two arrays that are swapped (not reallocated) at the end of each iteration.
+ * When the vertex program has a {@link MessageCombiner}, each slot holds a single combined message. The first message
+ * into a slot is installed with a compare-and-set and subsequent messages are combined under a lock stripe as
+ * {@link MessageCombiner#combine} is allowed to mutate the message it is handed. Without a combiner, each slot
+ * holds a list of messages appended to under a lock stripe.
+ * <p/>
+ * For {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer.Isolation#ASP}, there is a single buffer.
+ * A message is visible as soon as it is sent and receiving the messages of a slot removes them.
+ * <p/>
+ * The messages of each {@link MessageScope.Local} are kept on a board of their own so that the messages of the
+ * different scopes of a vertex program are not handed out with one another.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 class TinkerMessageBoard<M> {
 
-    public Map<Vertex, Queue<M>> sendMessages = new ConcurrentHashMap<>();
-    public Map<Vertex, Queue<M>> receiveMessages = new ConcurrentHashMap<>();
+    private static final int LOCK_STRIPES = 1024; // must be a power of two
+
+    private final TinkerGraph graph;
+    private final MessageCombiner<M> combiner;
+    private final boolean asynchronous;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final Map<MessageScope.Local<?>, TinkerMessageBoard<M>> localBoards = new ConcurrentHashMap<>();
+
+    private AtomicReferenceArray<Object> sendMessages;
+    private AtomicReferenceArray<Object> receiveMessages;
+
+    public TinkerMessageBoard(final TinkerGraph graph, final int numberOfSlots, final Optional<MessageCombiner<M>> combiner, final boolean asynchronous) {
+        this.graph = graph;
+        this.combiner = combiner.orElse(null);
+        this.asynchronous = asynchronous;
+        this.sendMessages = new AtomicReferenceArray<>(numberOfSlots);
+        this.receiveMessages = this.isAsynchronous() ? this.sendMessages : new AtomicReferenceArray<>(numberOfSlots);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new Object();
+        }
+    }
+
+    public int getSlot(final Vertex vertex) {
+        return TinkerHelper.getSlot(this.graph, vertex);
+    }
+
+    public boolean isAsynchronous() {
+        return this.asynchronous;
+    }
+
+    /**
+     * The board of the messages of the local scope, which is created when the scope is first used. Local scopes are
+     * told apart by identity. An asynchronous local message is pushed to the slot of every adjacent vertex, so it is
+     * not combined as that would alter the message in the other slots as well.
+     */
+    public TinkerMessageBoard<M> getLocalBoard(final MessageScope.Local<?> localMessageScope) {
+        return this.localBoards.computeIfAbsent(localMessageScope, scope -> new TinkerMessageBoard<>(this.graph, this.sendMessages.length(),
+                this.asynchronous ? Optional.empty() : Optional.ofNullable(this.combiner), this.asynchronous));
+    }
+
+    public void sendMessage(final int slot, final M message) {
+        if (slot < 0) return; // the vertex is not part of the computation
+        if (null != this.combiner) {
+            if (null == this.sendMessages.get(slot) && this.sendMessages.compareAndSet(slot, null, message))
+                return;
+            synchronized (this.locks[slot & (LOCK_STRIPES - 1)]) {
+                final M combinedMessage = (M) this.sendMessages.get(slot);
+                this.sendMessages.set(slot, null == combinedMessage ? message : this.combiner.combine(combinedMessage, message));
+            }
+        } else {
+            synchronized (this.locks[slot & (LOCK_STRIPES - 1)]) {
+                List<M> messages = (List<M>) this.sendMessages.get(slot);
+                if (null == messages) {
+                    messages = new ArrayList<>(1);
+                    this.sendMessages.set(slot, messages);
+                }
+                messages.add(message);
+            }
+        }
+    }
+
+    public List<M> receiveMessages(final int slot) {
+        if (slot < 0) return Collections.emptyList();
+        final Object messages;
+        if (this.isAsynchronous()) {
+            synchronized (this.locks[slot & (LOCK_STRIPES - 1)]) {
+                messages = this.receiveMessages.getAndSet(slot, null);
+            }
+        } else
+            messages = this.receiveMessages.get(slot);
+        if (null == messages)
+            return Collections.emptyList();
+        else
+            return null != this.combiner ? Collections.singletonList((M) messages) : (List<M>) messages;
+    }
 
     public void completeIteration() {
+        this.localBoards.values().forEach(TinkerMessageBoard::completeIteration);
+        if (this.isAsynchronous()) return;
+        final AtomicReferenceArray<Object> temp = this.receiveMessages;
         this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
+        this.sendMessages = temp;
+        for (int i = 0; i < this.sendMessages.length(); i++) {
+            this.sendMessages.lazySet(i, null);
+        }
     }
 }
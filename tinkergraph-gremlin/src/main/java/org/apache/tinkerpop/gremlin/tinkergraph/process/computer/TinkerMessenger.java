@@ -18,75 +18,107 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
-import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
-import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.process.computer.Messenger;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.util.StreamFactory;
 
-import java.util.Optional;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Stream;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TinkerMessenger<M> implements Messenger<M> {
 
-    private final Vertex vertex;
+    private final TinkerVertex vertex;
+    private final int slot;
     private final TinkerMessageBoard<M> messageBoard;
-    private final MessageCombiner<M> combiner;
+    private final TinkerFrontier frontier;
+    private boolean halted = false;
 
-
-    public TinkerMessenger(final Vertex vertex, final TinkerMessageBoard<M> messageBoard, final Optional<MessageCombiner<M>> combiner) {
+    public TinkerMessenger(final TinkerVertex vertex, final TinkerMessageBoard<M> messageBoard, final TinkerFrontier frontier) {
         this.vertex = vertex;
+        this.slot = TinkerHelper.getSlot(vertex);
         this.messageBoard = messageBoard;
-        this.combiner = combiner.isPresent() ? combiner.get() : null;
+        this.frontier = frontier;
+    }
+
+    public boolean isHalted() {
+        return this.halted;
     }
 
     @Override
     public Iterable<M> receiveMessages(final MessageScope messageScope) {
-        if (messageScope instanceof MessageScope.Local) {
+        if (messageScope instanceof MessageScope.Local && !this.messageBoard.isAsynchronous()) {
             final MessageScope.Local<M> localMessageScope = (MessageScope.Local) messageScope;
+            final TinkerMessageBoard<M> localBoard = this.messageBoard.getLocalBoard(localMessageScope);
             final Traversal.Admin<Vertex, Edge> incidentTraversal = TinkerMessenger.setVertexStart(localMessageScope.getIncidentTraversal().get().asAdmin(), this.vertex);
             final Direction direction = TinkerMessenger.getDirection(incidentTraversal);
             final Edge[] edge = new Edge[1]; // simulates storage side-effects available in Gremlin, but not Java8 streams
             return StreamFactory.iterable(StreamFactory.stream(VertexProgramHelper.reverse(incidentTraversal.asAdmin()))
-                    .map(e -> this.messageBoard.receiveMessages.get((edge[0] = e).vertices(direction).next()))
-                    .filter(q -> null != q)
-                    .flatMap(q -> q.stream())
+                    .map(e -> localBoard.receiveMessages(localBoard.getSlot((edge[0] = e).vertices(direction).next())))
+                    .flatMap(List::stream)
                     .map(message -> localMessageScope.getEdgeFunction().apply(message, edge[0])));
 
+        } else if (messageScope instanceof MessageScope.Local) {
+            return this.messageBoard.getLocalBoard((MessageScope.Local) messageScope).receiveMessages(this.slot);
         } else {
-            return StreamFactory.iterable(Stream.of(this.vertex)
-                    .map(this.messageBoard.receiveMessages::get)
-                    .filter(q -> null != q)
-                    .flatMap(q -> q.stream()));
+            return this.messageBoard.receiveMessages(this.slot);
         }
     }
 
     @Override
     public void sendMessage(final MessageScope messageScope, final M message) {
         if (messageScope instanceof MessageScope.Local) {
-            addMessage(this.vertex, message);
+            final MessageScope.Local<M> localMessageScope = (MessageScope.Local) messageScope;
+            final TinkerMessageBoard<M> localBoard = this.messageBoard.getLocalBoard(localMessageScope);
+            if (localBoard.isAsynchronous()) {
+                // local messages are pushed to the adjacent vertices as messages are removed when they are received
+                this.forEachAdjacentVertex(localMessageScope, (edge, adjacentVertex) -> {
+                    final int adjacentSlot = localBoard.getSlot(adjacentVertex);
+                    localBoard.sendMessage(adjacentSlot, localMessageScope.getEdgeFunction().apply(message, edge));
+                    this.schedule(adjacentSlot);
+                });
+            } else {
+                localBoard.sendMessage(this.slot, message);
+                // the adjacent vertices only need to be scheduled if they may have voted to halt
+                if (this.frontier.isHalting())
+                    this.forEachAdjacentVertex(localMessageScope, (edge, adjacentVertex) -> this.schedule(this.messageBoard.getSlot(adjacentVertex)));
+            }
         } else {
-            ((MessageScope.Global) messageScope).vertices().forEach(v -> addMessage(v, message));
+            ((MessageScope.Global) messageScope).vertices().forEach(v -> {
+                final int slot = this.messageBoard.getSlot(v);
+                this.messageBoard.sendMessage(slot, message);
+                this.schedule(slot);
+            });
         }
     }
 
-    private final void addMessage(final Vertex vertex, final M message) {
-        final Queue<M> queue = this.messageBoard.sendMessages.computeIfAbsent(vertex, v -> new ConcurrentLinkedQueue<>());
-        synchronized (queue) {
-            queue.add(null != this.combiner && !queue.isEmpty() ? this.combiner.combine(queue.remove(), message) : message);
-        }
+    @Override
+    public void voteToHalt() {
+        this.halted = true;
+    }
+
+    private void schedule(final int slot) {
+        if (slot >= 0) this.frontier.scheduleReceiver(slot);
+    }
+
+    private void forEachAdjacentVertex(final MessageScope.Local<M> localMessageScope, final BiConsumer<Edge, Vertex> consumer) {
+        final Traversal.Admin<Vertex, Edge> incidentTraversal = TinkerMessenger.setVertexStart(localMessageScope.getIncidentTraversal().get().asAdmin(), this.vertex);
+        final Direction direction = TinkerMessenger.getDirection(incidentTraversal);
+        incidentTraversal.forEachRemaining(edge -> consumer.accept(edge, direction.equals(Direction.BOTH) ?
+                TinkerMessenger.getAdjacentVertex(edge, this.vertex) :
+                edge.vertices(direction.opposite()).next()));
     }
 
     ///////////
@@ -97,6 +129,11 @@ public class TinkerMessenger<M> implements Messenger<M> {
         return (T) traversal;
     }
 
+    private static Vertex getAdjacentVertex(final Edge edge, final Vertex vertex) {
+        final Vertex outVertex = edge.outVertex();
+        return outVertex.id().equals(vertex.id()) ? edge.inVertex() : outVertex;
+    }
+
     private static Direction getDirection(final Traversal.Admin<Vertex, Edge> incidentTraversal) {
         final VertexStep step = TraversalHelper.getLastStepOfAssignableClass(VertexStep.class, incidentTraversal).get();
         return step.getDirection();
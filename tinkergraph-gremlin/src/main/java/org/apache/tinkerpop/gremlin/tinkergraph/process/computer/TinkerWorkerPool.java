@@ -25,9 +25,12 @@ import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.MapReducePool;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramPool;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.function.Consumer;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -66,16 +69,26 @@ public class TinkerWorkerPool implements AutoCloseable {
         this.vertexProgramPool.workerIterationEnd(memory);
     }
 
-    public void executeVertexProgram(final Consumer<VertexProgram> worker) {
-        try {
-            this.workerPool.submit(() -> {
+    public int getNumberOfWorkers() {
+        return this.numberOfWorkers;
+    }
+
+    /**
+     * Execute the worker function once per worker, concurrently, and block until all workers have completed.
+     * The worker function is handed the worker id (0 until the number of workers) and a {@link VertexProgram}
+     * clone that is not shared with any other worker for the duration of the call.
+     */
+    public void executeVertexProgram(final BiConsumer<Integer, VertexProgram> worker) {
+        final List<Future<?>> futures = new ArrayList<>(this.numberOfWorkers);
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            final int workerId = i;
+            futures.add(this.workerPool.submit(() -> {
                 final VertexProgram vp = this.vertexProgramPool.take();
-                worker.accept(vp);
+                worker.accept(workerId, vp);
                 this.vertexProgramPool.offer(vp);
-            }).get();
-        } catch (final Exception e) {
-            throw new IllegalStateException(e.getMessage(), e);
+            }));
         }
+        this.barrier(futures);
     }
 
     ///
@@ -89,14 +102,30 @@ public class TinkerWorkerPool implements AutoCloseable {
     }
 
 
-    public void executeMapReduce(final Consumer<MapReduce> worker) {
-        try {
-            this.workerPool.submit(() -> {
+    /**
+     * Execute the worker function once per worker, concurrently, and block until all workers have completed.
+     * The worker function is handed the worker id (0 until the number of workers) and a {@link MapReduce} clone.
+     */
+    public void executeMapReduce(final BiConsumer<Integer, MapReduce> worker) {
+        final List<Future<?>> futures = new ArrayList<>(this.numberOfWorkers);
+        for (int i = 0; i < this.numberOfWorkers; i++) {
+            final int workerId = i;
+            futures.add(this.workerPool.submit(() -> {
                 final MapReduce mr = this.mapReducePool.take();
-                worker.accept(mr);
+                worker.accept(workerId, mr);
                 this.mapReducePool.offer(mr);
-            }).get();
+            }));
+        }
+        this.barrier(futures);
+    }
+
+    private void barrier(final List<Future<?>> futures) {
+        try {
+            for (final Future<?> future : futures) {
+                future.get();
+            }
         } catch (final Exception e) {
+            futures.forEach(future -> future.cancel(true));
             throw new IllegalStateException(e.getMessage(), e);
         }
     }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.Iterator;
+
+/**
+ * A {@link VertexStep} that emits the incident edges of its vertices that satisfy its {@link HasContainer}s, which
+ * are answered from the vertex-centric indices of the vertices (see
+ * {@link TinkerGraph#CONFIG_VERTEX_CENTRIC_INDEX_KEYS}) when a container is on an indexed key.
+ *
+ * @author agent (agent@local)
+ */
+public final class TinkerVertexStep<E extends Element> extends VertexStep<E> {
+
+    public TinkerVertexStep(final VertexStep<E> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), originalVertexStep.getReturnClass(), originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        if (originalVertexStep.getLabel().isPresent())
+            this.setLabel(originalVertexStep.getLabel().get());
+        // the containers are added as they are, as their label filters are already folded into the edge labels
+        this.getHasContainers().addAll(originalVertexStep.getHasContainers());
+    }
+
+    @Override
+    protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
+        final Vertex vertex = traverser.get();
+        if (!(vertex instanceof TinkerVertex))
+            return super.flatMap(traverser);
+        return (Iterator<E>) IteratorUtils.filter(
+                TinkerHelper.getEdges((TinkerVertex) vertex, this.getDirection(), this.getHasContainers(), this.getEdgeLabels()),
+                edge -> HasContainer.testAll(edge, this.getHasContainers()));
+    }
+}
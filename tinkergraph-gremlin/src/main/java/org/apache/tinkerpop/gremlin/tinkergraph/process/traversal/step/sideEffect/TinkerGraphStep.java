@@ -18,23 +18,30 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
 import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.HasContainerOrderStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
-import org.apache.tinkerpop.gremlin.structure.Compare;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -42,51 +49,58 @@ import java.util.stream.Collectors;
  */
 public class TinkerGraphStep<S extends Element> extends GraphStep<S> implements HasContainerHolder {
 
-    public final List<HasContainer> hasContainers = new ArrayList<>();
+    public List<HasContainer> hasContainers = new ArrayList<>();
+    private transient Supplier<Iterator<S>> elementSupplier = null;
 
     public TinkerGraphStep(final GraphStep<S> originalGraphStep) {
         super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.getIds());
         if (originalGraphStep.getLabel().isPresent())
             this.setLabel(originalGraphStep.getLabel().get());
+        this.setIteratorSupplier();
+    }
+
+    private void setIteratorSupplier() {
         //No need to do anything if the first element is an Element, all elements are guaranteed to be an element and will be return as is
-        if ((this.ids.length == 0 || !(this.ids[0] instanceof Element)))
-            this.setIteratorSupplier(() -> (Iterator<S>) (Vertex.class.isAssignableFrom(this.returnClass) ? this.vertices() : this.edges()));
+        if ((this.ids.length == 0 || !(this.ids[0] instanceof Element))) {
+            this.elementSupplier = () -> (Iterator<S>) (Vertex.class.isAssignableFrom(this.returnClass) ? this.vertices() : this.edges());
+            this.setIteratorSupplier(this.elementSupplier);
+        }
     }
 
     private Iterator<? extends Edge> edges() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
+        final List<HasContainer> hasContainers = this.orderHasContainers(graph, Edge.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
-            return this.iteratorList(graph.edges(this.ids));
-        else
-            return null == indexedContainer ?
-                    this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.key, indexedContainer.value).stream()
-                            .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                            .collect(Collectors.<Edge>toList()).iterator();
+            return this.iteratorList(graph.edges(this.ids), hasContainers);
+        final List<TinkerEdge> indexedEdges = TinkerHelper.queryEdgeIndex(graph, hasContainers);
+        return null == indexedEdges ?
+                this.iteratorList(graph.edges(), hasContainers) :
+                this.iteratorList(indexedEdges.iterator(), hasContainers);
     }
 
     private Iterator<? extends Vertex> vertices() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
+        final List<HasContainer> hasContainers = this.orderHasContainers(graph, Vertex.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
-            return this.iteratorList(graph.vertices(this.ids));
-        else
-            return null == indexedContainer ?
-                    this.iteratorList(graph.vertices()) :
-                    TinkerHelper.queryVertexIndex(graph, indexedContainer.key, indexedContainer.value).stream()
-                            .filter(vertex -> HasContainer.testAll(vertex, this.hasContainers))
-                            .collect(Collectors.<Vertex>toList()).iterator();
+            return this.iteratorList(graph.vertices(this.ids), hasContainers);
+        final List<TinkerVertex> indexedVertices = TinkerHelper.queryVertexIndex(graph, hasContainers);
+        return null == indexedVertices ?
+                this.iteratorList(graph.vertices(), hasContainers) :
+                this.iteratorList(indexedVertices.iterator(), hasContainers);
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
-        return this.hasContainers.stream()
-                .filter(c -> indexedKeys.contains(c.key) && c.predicate.equals(Compare.eq))
-                .findAny()
-                .orElseGet(() -> null);
+    /**
+     * The containers are ordered by the current statistics of the graph each time the step is executed, as the
+     * traversal may have been compiled long before.
+     */
+    private List<HasContainer> orderHasContainers(final TinkerGraph graph, final Class<? extends Element> elementClass) {
+        if (this.hasContainers.size() < 2)
+            return this.hasContainers;
+        final List<HasContainer> hasContainers = new ArrayList<>(this.hasContainers);
+        HasContainerOrderStrategy.order(hasContainers, elementClass, graph.statistics());
+        return hasContainers;
     }
 
     public String toString() {
@@ -98,16 +112,70 @@ public class TinkerGraphStep<S extends Element> extends GraphStep<S> implements
                     TraversalHelper.makeStepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
     }
 
-    private final <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator) {
+    /**
+     * The matching elements are streamed so that a traversal that only needs its first results (e.g. with a
+     * {@code limit()}) does not test every element of the graph. A traversal that mutates the graph has the
+     * matching elements collected up front instead so that it never sees the elements it adds itself. As a lambda
+     * (e.g. {@code sideEffect{it.get().addEdge(...)}}) may mutate the graph too, a traversal with a lambda step is
+     * treated as mutating.
+     */
+    private final <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator, final List<HasContainer> hasContainers) {
+        if (this.isStreaming())
+            return hasContainers.isEmpty() ? iterator : IteratorUtils.filter(iterator, e -> HasContainer.testAll(e, hasContainers));
         final List<E> list = new ArrayList<>();
         while (iterator.hasNext()) {
             final E e = iterator.next();
-            if (HasContainer.testAll(e, this.hasContainers))
+            if (HasContainer.testAll(e, hasContainers))
                 list.add(e);
         }
         return list.iterator();
     }
 
+    private boolean isStreaming() {
+        final Traversal.Admin<?, ?> rootTraversal = TraversalHelper.getRootTraversal(this.getTraversal());
+        return !TraversalHelper.hasStepOfAssignableClassRecursively(Mutating.class, rootTraversal) &&
+                !TraversalHelper.hasStepOfAssignableClassRecursively(LambdaHolder.class, rootTraversal);
+    }
+
+    /**
+     * Unless the step has ids or its matching elements are collected up front, the elements are split from the
+     * graph (or the index that answers the containers) and are only tested against the containers as each split
+     * is traversed.
+     */
+    @Override
+    public Spliterator<S> getSpliterator() {
+        if (this.ids.length > 0 || !this.isStreaming())
+            return super.getSpliterator();
+        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+        final boolean vertices = Vertex.class.isAssignableFrom(this.returnClass);
+        final List<HasContainer> hasContainers = this.orderHasContainers(graph, vertices ? Vertex.class : Edge.class);
+        final List<? extends Element> indexedElements = vertices ?
+                TinkerHelper.queryVertexIndex(graph, hasContainers) :
+                TinkerHelper.queryEdgeIndex(graph, hasContainers);
+        final Spliterator<S> elements = (Spliterator<S>) (null != indexedElements ?
+                indexedElements.spliterator() :
+                vertices ? TinkerHelper.getVertexSpliterator(graph) : TinkerHelper.getEdgeSpliterator(graph));
+        return hasContainers.isEmpty() ?
+                elements :
+                StreamSupport.stream(elements, true).filter(e -> HasContainer.testAll(e, hasContainers)).spliterator();
+    }
+
+    /**
+     * The clone tests its own copies of the containers, so unless the supplier of the elements was replaced (e.g. by
+     * a computer engine), the clone gets a supplier that is bound to itself.
+     */
+    @Override
+    public TinkerGraphStep<S> clone() {
+        final TinkerGraphStep<S> clone = (TinkerGraphStep<S>) super.clone();
+        clone.hasContainers = new ArrayList<>(this.hasContainers.size());
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.hasContainers.add(hasContainer.clone());
+        }
+        if (null != this.elementSupplier && this.elementSupplier == this.iteratorSupplier)
+            clone.setIteratorSupplier();
+        return clone;
+    }
+
     @Override
     public List<HasContainer> getHasContainers() {
         return this.hasContainers;
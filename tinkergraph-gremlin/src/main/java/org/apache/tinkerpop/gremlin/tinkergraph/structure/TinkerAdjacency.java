@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.Iterator;
+
+/**
+ * The incident edges of a {@link TinkerVertex} in one direction.
+ * <p/>
+ * Iterators are lazy and remain valid when the adjacency is mutated during iteration: edges added after the
+ * creation of an iterator are not returned and removed edges are skipped.
+ *
+ * @author agent (agent@local)
+ */
+interface TinkerAdjacency {
+
+    public void add(final Edge edge);
+
+    public void remove(final Edge edge);
+
+    /**
+     * Get an iterator over the edges with one of the provided labels (or every edge if no labels are provided).
+     */
+    public Iterator<Edge> iterator(final String... edgeLabels);
+}
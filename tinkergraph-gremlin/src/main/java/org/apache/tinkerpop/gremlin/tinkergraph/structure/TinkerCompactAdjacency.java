@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A compact {@link TinkerAdjacency} that stores the edges as a compressed-sparse-row: a single array of edges grouped
+ * by label with the offset of each label group in a primitive array. Added edges are appended to a delta array and
+ * removed edges are nulled out. The delta and the removed edges are folded into the row when either grows to half
+ * the size of the row and thus, the cost of compaction is amortized over the mutations.
+ * <p/>
+ * As compaction creates new arrays, appends are beyond the size of the delta seen by an iterator and removals only
+ * null out entries, iterators simply read the arrays as they were at the time of their creation.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerCompactAdjacency implements TinkerAdjacency {
+
+    private static final String[] NO_LABELS = new String[0];
+    private static final int[] NO_OFFSETS = new int[]{0};
+    private static final Edge[] NO_EDGES = new Edge[0];
+    private static final int MINIMUM_COMPACTION = 4;
+
+    // the edges with labels[i] are edges[offsets[i]] until edges[offsets[i + 1]]
+    private String[] labels = NO_LABELS;
+    private int[] offsets = NO_OFFSETS;
+    private Edge[] edges = NO_EDGES;
+    private int removed = 0;
+    // the edges added since the last compaction
+    private Edge[] delta = NO_EDGES;
+    private int deltaSize = 0;
+
+    @Override
+    public void add(final Edge edge) {
+        if (this.deltaSize == this.delta.length) {
+            if (this.deltaSize >= Math.max(MINIMUM_COMPACTION, this.size() >> 1))
+                this.compact();
+            else
+                this.delta = Arrays.copyOf(this.delta, this.deltaSize + (this.deltaSize >> 1) + 1);
+        }
+        if (this.deltaSize == this.delta.length)
+            this.delta = new Edge[1];
+        this.delta[this.deltaSize++] = edge;
+    }
+
+    @Override
+    public void remove(final Edge edge) {
+        if (!this.remove(edge, this.delta, 0, this.deltaSize)) {
+            final int labelIndex = TinkerCompactAdjacency.labelIndex(this.labels, edge.label());
+            if (labelIndex < 0 || !this.remove(edge, this.edges, this.offsets[labelIndex], this.offsets[labelIndex + 1]))
+                return;
+        }
+        if (this.removed >= Math.max(MINIMUM_COMPACTION, (this.edges.length + this.deltaSize) >> 1))
+            this.compact();
+    }
+
+    @Override
+    public Iterator<Edge> iterator(final String... edgeLabels) {
+        return new EdgeIterator(edgeLabels);
+    }
+
+    private boolean remove(final Edge edge, final Edge[] edges, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (edges[i] == edge) {
+                edges[i] = null;
+                this.removed++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int size() {
+        return this.edges.length + this.deltaSize - this.removed;
+    }
+
+    private static int labelIndex(final String[] labels, final String label) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(label))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Fold the delta and the removed edges into a new row, keeping the existing order of the edges.
+     */
+    private void compact() {
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        for (final Edge edge : this.edges) {
+            if (null != edge) counts.merge(edge.label(), 1, Integer::sum);
+        }
+        for (int i = 0; i < this.deltaSize; i++) {
+            if (null != this.delta[i]) counts.merge(this.delta[i].label(), 1, Integer::sum);
+        }
+        final int size = this.size();
+        if (0 == size) {
+            this.labels = NO_LABELS;
+            this.offsets = NO_OFFSETS;
+            this.edges = NO_EDGES;
+        } else {
+            final String[] labels = counts.keySet().toArray(new String[counts.size()]);
+            final int[] offsets = new int[labels.length + 1];
+            for (int i = 0; i < labels.length; i++) {
+                offsets[i + 1] = offsets[i] + counts.get(labels[i]);
+                counts.put(labels[i], offsets[i]); // reuse the count as the next position of the label group
+            }
+            final Edge[] edges = new Edge[size];
+            for (final Edge edge : this.edges) {
+                if (null != edge) edges[counts.merge(edge.label(), 1, Integer::sum) - 1] = edge;
+            }
+            for (int i = 0; i < this.deltaSize; i++) {
+                if (null != this.delta[i]) edges[counts.merge(this.delta[i].label(), 1, Integer::sum) - 1] = this.delta[i];
+            }
+            this.labels = labels;
+            this.offsets = offsets;
+            this.edges = edges;
+        }
+        this.removed = 0;
+        this.delta = NO_EDGES;
+        this.deltaSize = 0;
+    }
+
+    private final class EdgeIterator implements Iterator<Edge> {
+
+        private final String[] edgeLabels;
+        private final String[] labels = TinkerCompactAdjacency.this.labels;
+        private final int[] offsets = TinkerCompactAdjacency.this.offsets;
+        private final Edge[] edges = TinkerCompactAdjacency.this.edges;
+        private final Edge[] delta = TinkerCompactAdjacency.this.delta;
+        private final int deltaSize = TinkerCompactAdjacency.this.deltaSize;
+
+        private int labelCursor = -1;
+        private String label = null; // null when every label is being iterated
+        private boolean inDelta;
+        private int position;
+        private int end;
+        private Edge next = null;
+        private boolean exhausted = false;
+
+        public EdgeIterator(final String[] edgeLabels) {
+            this.edgeLabels = edgeLabels;
+            this.nextLabel();
+        }
+
+        /**
+         * Position the iterator at the row of the next requested label (or the entire row if no labels are requested).
+         */
+        private boolean nextLabel() {
+            this.labelCursor++;
+            this.inDelta = false;
+            if (this.edgeLabels.length == 0) {
+                if (this.labelCursor > 0) return false;
+                this.position = 0;
+                this.end = this.edges.length;
+            } else {
+                if (this.labelCursor >= this.edgeLabels.length) return false;
+                this.label = this.edgeLabels[this.labelCursor];
+                final int labelIndex = TinkerCompactAdjacency.labelIndex(this.labels, this.label);
+                this.position = labelIndex < 0 ? 0 : this.offsets[labelIndex];
+                this.end = labelIndex < 0 ? 0 : this.offsets[labelIndex + 1];
+            }
+            return true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == this.next) {
+                if (this.exhausted) {
+                    return false;
+                } else if (this.position < this.end) {
+                    final Edge edge = this.inDelta ? this.delta[this.position++] : this.edges[this.position++];
+                    if (null != edge && !((TinkerEdge) edge).removed && (!this.inDelta || null == this.label || this.label.equals(edge.label())))
+                        this.next = edge;
+                } else if (!this.inDelta) {
+                    this.inDelta = true;
+                    this.position = 0;
+                    this.end = this.deltaSize;
+                } else if (!this.nextLabel()) {
+                    this.exhausted = true;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Edge next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            final Edge edge = this.next;
+            this.next = null;
+            return edge;
+        }
+    }
+}
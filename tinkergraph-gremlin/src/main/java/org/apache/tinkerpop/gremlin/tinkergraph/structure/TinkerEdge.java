@@ -55,12 +55,22 @@ public class TinkerEdge extends TinkerElement implements Edge {
     @Override
     public <V> Property<V> property(final String key, final V value) {
         ElementHelper.validateProperty(key, value);
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
-        return newProperty;
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations((TinkerGraph) this.graph());
+        try {
+            final Property oldProperty = super.property(key);
+            final Property<V> newProperty = new TinkerProperty<>(this, key, value);
+            if (null == this.properties) this.properties = new HashMap<>();
+            this.properties.put(key, newProperty);
+            TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+            // properties attached while the edge is created are logged and indexed with the edge itself
+            if (((TinkerGraph) this.graph()).edges.get(this.id) == this) {
+                TinkerHelper.updateVertexCentricIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+                TinkerHelper.logMutation((TinkerGraph) this.graph(), TinkerWriteAheadLog.Mutation.SET_EDGE_PROPERTY, this.id, key, value);
+            }
+            return newProperty;
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
 
     }
 
@@ -79,24 +89,26 @@ public class TinkerEdge extends TinkerElement implements Edge {
     public void remove() {
         if (this.removed)
             throw Element.Exceptions.elementAlreadyRemoved(Edge.class, this.id);
-        final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
-        final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
-
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations((TinkerGraph) this.graph());
+        try {
+            final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
+            final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
+
+            if (null != outVertex && null != outVertex.outEdges)
+                outVertex.outEdges.remove(this);
+            if (null != inVertex && null != inVertex.inEdges)
+                inVertex.inEdges.remove(this);
+
+            ((TinkerGraph) this.graph()).edges.remove(this.id());
+            TinkerHelper.removeElementIndex(this);
+            TinkerHelper.removeVertexCentricIndex(this);
+            ((TinkerGraph) this.graph()).statistics.removeElement(this);
+            this.properties = null;
+            this.removed = true;
+            TinkerHelper.logMutation((TinkerGraph) this.graph(), TinkerWriteAheadLog.Mutation.REMOVE_EDGE, this.id);
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
         }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-
-        TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
-        this.properties = null;
-        this.removed = true;
     }
 
     @Override
@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.T;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
@@ -29,18 +30,28 @@ import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 /**
@@ -69,21 +80,128 @@ public class TinkerGraph implements Graph {
         this.setProperty(Graph.GRAPH, TinkerGraph.class.getName());
     }};
 
-    protected Long currentId = -1l;
-    protected Map<Object, Vertex> vertices = new ConcurrentHashMap<>();
-    protected Map<Object, Edge> edges = new ConcurrentHashMap<>();
+    /**
+     * When true, the incident edges of each vertex are stored in a compact, label-partitioned array representation
+     * instead of a set per label. This trades the cost of edge addition and removal for far less memory per edge.
+     */
+    public static final String CONFIG_COMPACT_ADJACENCY = "gremlin.tinkergraph.compactAdjacency";
+
+    /**
+     * A comma separated list of edge property keys by which the incident edges of each vertex are indexed in
+     * sorted order, so that a traversal such as {@code v.outE('knows').has('weight', gt(0.5))} only visits the edges
+     * that can match instead of every edge of the vertex. The index of a vertex is created once one of its edges has
+     * one of the keys. Defaults to no keys.
+     */
+    public static final String CONFIG_VERTEX_CENTRIC_INDEX_KEYS = "gremlin.tinkergraph.vertexCentricIndexKeys";
+
+    /**
+     * When true, vertices and edges with {@code Long} ids are stored in concurrent open-addressing tables keyed by
+     * the unboxed id rather than in {@link ConcurrentHashMap}s, which cuts the memory per element and the cost of a
+     * lookup by id. Elements with other ids are still stored in a {@link ConcurrentHashMap}.
+     */
+    public static final String CONFIG_PRIMITIVE_ID_STORAGE = "gremlin.tinkergraph.primitiveIdStorage";
+
+    /**
+     * The path of a binary snapshot of the graph. When set, the snapshot is loaded on open, if it exists, and the
+     * graph is written back to it on {@link #close()}.
+     */
+    public static final String CONFIG_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
+
+    /**
+     * When true, every mutation is appended to a write-ahead log next to the {@link #CONFIG_GRAPH_LOCATION}
+     * snapshot, which is replayed on open so that mutations since the last snapshot survive a crash.
+     */
+    public static final String CONFIG_WAL = "gremlin.tinkergraph.writeAheadLog";
+
+    /**
+     * The number of pending write-ahead log records that forces them to disk. Defaults to 1000.
+     */
+    public static final String CONFIG_WAL_SYNC_RECORDS = "gremlin.tinkergraph.writeAheadLog.syncRecords";
+
+    /**
+     * The interval in milliseconds at which pending write-ahead log records are forced to disk. Defaults to 100.
+     */
+    public static final String CONFIG_WAL_SYNC_MILLIS = "gremlin.tinkergraph.writeAheadLog.syncMillis";
+
+    /**
+     * The number of write-ahead log records after which the log is compacted into a new snapshot. Defaults to
+     * 1000000.
+     */
+    public static final String CONFIG_WAL_COMPACTION_RECORDS = "gremlin.tinkergraph.writeAheadLog.compactionRecords";
+
+    /**
+     * The {@link IdManager} that generates the ids of elements added without a user supplied id: either the name of
+     * a {@link DefaultIdManager} or the class name of an {@link IdManager} with a no-argument constructor. Defaults
+     * to {@link DefaultIdManager#LONG}.
+     */
+    public static final String CONFIG_ID_MANAGER = "gremlin.tinkergraph.idManager";
+
+    protected final AtomicLong currentId = new AtomicLong(-1l);
+    protected final AtomicLong maxSuppliedId = new AtomicLong(-1l);
+    protected ThreadLocal<long[]> idBlock = TinkerHelper.createIdBlock();
+    protected final IdManager idManager;
+    protected final Map<Object, Vertex> vertices;
+    protected final Map<Object, Edge> edges;
 
     protected TinkerGraphVariables variables = null;
     protected TinkerGraphView graphView = null;
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
+    protected TinkerWriteAheadLog writeAheadLog = null;
+    protected final TinkerGraphStatistics statistics = new TinkerGraphStatistics(this);
+    protected final boolean compactAdjacency;
+    protected final Set<String> vertexCentricIndexKeys;
+
+    private final Configuration configuration;
+    protected final Path graphLocation;
 
-    private final static TinkerGraph EMPTY_GRAPH = new TinkerGraph();
+    private final static TinkerGraph EMPTY_GRAPH = new TinkerGraph(EMPTY_CONFIGURATION);
 
     /**
-     * An empty private constructor that initializes {@link TinkerGraph} with no {@link org.apache.tinkerpop.gremlin.structure.strategy.GraphStrategy}.
+     * A private constructor that initializes {@link TinkerGraph} with no {@link org.apache.tinkerpop.gremlin.structure.strategy.GraphStrategy}.
      */
-    private TinkerGraph() {
+    private TinkerGraph(final Configuration configuration) {
+        this.configuration = configuration;
+        this.compactAdjacency = configuration.getBoolean(CONFIG_COMPACT_ADJACENCY, false);
+        this.vertexCentricIndexKeys = new HashSet<>();
+        for (final String key : configuration.getStringArray(CONFIG_VERTEX_CENTRIC_INDEX_KEYS)) {
+            if (!key.trim().isEmpty())
+                this.vertexCentricIndexKeys.add(key.trim());
+        }
+        if (configuration.getBoolean(CONFIG_PRIMITIVE_ID_STORAGE, false)) {
+            this.vertices = new TinkerPrimitiveIdMap<>();
+            this.edges = new TinkerPrimitiveIdMap<>();
+        } else {
+            this.vertices = new ConcurrentHashMap<>();
+            this.edges = new ConcurrentHashMap<>();
+        }
+        this.idManager = configuration.containsKey(CONFIG_ID_MANAGER) ?
+                createIdManager(configuration.getString(CONFIG_ID_MANAGER)) : DefaultIdManager.LONG;
+        this.graphLocation = configuration.containsKey(CONFIG_GRAPH_LOCATION) ?
+                Paths.get(configuration.getString(CONFIG_GRAPH_LOCATION)) : null;
+        if (null != this.graphLocation && Files.exists(this.graphLocation)) {
+            try {
+                TinkerSnapshot.read(this, this.graphLocation);
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not load the graph snapshot from " + this.graphLocation + ": " + e.getMessage(), e);
+            }
+        }
+        if (configuration.getBoolean(CONFIG_WAL, false)) {
+            if (null == this.graphLocation)
+                throw new IllegalArgumentException("The write-ahead log requires " + CONFIG_GRAPH_LOCATION + " to be configured");
+            try {
+                // fold the mutations since the last snapshot into a new one so that the log starts out empty
+                if (TinkerWriteAheadLog.replay(this, this.graphLocation) > 0)
+                    TinkerSnapshot.write(this, this.graphLocation);
+                TinkerWriteAheadLog.delete(this.graphLocation);
+                this.writeAheadLog = new TinkerWriteAheadLog(this, this.graphLocation,
+                        configuration.getInt(CONFIG_WAL_SYNC_RECORDS, 1000),
+                        configuration.getLong(CONFIG_WAL_SYNC_MILLIS, 100l),
+                        configuration.getInt(CONFIG_WAL_COMPACTION_RECORDS, 1000000));
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not replay the write-ahead log of " + this.graphLocation + ": " + e.getMessage(), e);
+            }
+        }
     }
 
     public static TinkerGraph empty() {
@@ -118,7 +236,7 @@ public class TinkerGraph implements Graph {
      * @return a newly opened {@link org.apache.tinkerpop.gremlin.structure.Graph}
      */
     public static TinkerGraph open(final Configuration configuration) {
-        return new TinkerGraph();
+        return new TinkerGraph(null == configuration ? EMPTY_CONFIGURATION : configuration);
     }
 
     ////////////// STRUCTURE API METHODS //////////////////
@@ -129,17 +247,28 @@ public class TinkerGraph implements Graph {
         Object idValue = ElementHelper.getIdValue(keyValues).orElse(null);
         final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
 
-        if (null != idValue) {
-            if (this.vertices.containsKey(idValue))
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+        try {
+            if (null != idValue) {
+                if (this.vertices.containsKey(idValue))
+                    throw Exceptions.vertexWithIdAlreadyExists(idValue);
+                this.idManager.observeId(this, idValue);
+            } else {
+                idValue = this.idManager.getNextId(this);
+            }
+
+            final Vertex vertex = new TinkerVertex(idValue, label, this);
+            // the vertex is only indexed once it is the one that is stored under its id
+            if (null != this.vertices.putIfAbsent(idValue, vertex))
                 throw Exceptions.vertexWithIdAlreadyExists(idValue);
-        } else {
-            idValue = TinkerHelper.getNextId(this);
+            TinkerHelper.autoUpdateIndex((TinkerVertex) vertex, T.label.getAccessor(), label, null);
+            this.statistics.addElement(vertex);
+            TinkerHelper.logMutation(this, TinkerWriteAheadLog.Mutation.ADD_VERTEX, idValue, label);
+            ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+            return vertex;
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
         }
-
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
-        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
-        return vertex;
     }
 
     @Override
@@ -157,7 +286,7 @@ public class TinkerGraph implements Graph {
     @Override
     public Variables variables() {
         if (null == this.variables)
-            this.variables = new TinkerGraphVariables();
+            this.variables = new TinkerGraphVariables(this);
         return this.variables;
     }
 
@@ -167,17 +296,46 @@ public class TinkerGraph implements Graph {
     }
 
     public void clear() {
-        this.vertices.clear();
-        this.edges.clear();
-        this.variables = null;
-        this.currentId = 0l;
-        this.vertexIndex = null;
-        this.edgeIndex = null;
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+        try {
+            this.vertices.clear();
+            this.edges.clear();
+            this.statistics.clear();
+            this.variables = null;
+            this.currentId.set(0l);
+            this.maxSuppliedId.set(-1l);
+            this.idBlock = TinkerHelper.createIdBlock();
+            this.vertexIndex = null;
+            this.edgeIndex = null;
+            TinkerHelper.logMutation(this, TinkerWriteAheadLog.Mutation.CLEAR);
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
     }
 
+    /**
+     * Write the graph to its {@link #CONFIG_GRAPH_LOCATION} snapshot, if configured, which also retires its
+     * write-ahead log.
+     */
     @Override
     public void close() {
         this.graphView = null;
+        if (null != this.graphLocation) {
+            try {
+                final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+                try {
+                    TinkerSnapshot.write(this, this.graphLocation);
+                    if (null != this.writeAheadLog) {
+                        this.writeAheadLog.close();
+                        this.writeAheadLog = null;
+                    }
+                } finally {
+                    TinkerHelper.unlockMutations(writeAheadLog);
+                }
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not write the graph snapshot to " + this.graphLocation + ": " + e.getMessage(), e);
+            }
+        }
     }
 
     @Override
@@ -187,7 +345,7 @@ public class TinkerGraph implements Graph {
 
     @Override
     public Configuration configuration() {
-        return EMPTY_CONFIGURATION;
+        return this.configuration;
     }
 
     @Override
@@ -220,19 +378,23 @@ public class TinkerGraph implements Graph {
      */
     @Override
     public Features features() {
-        return TinkerGraphFeatures.INSTANCE;
+        return null == this.graphLocation ? TinkerGraphFeatures.INSTANCE : TinkerGraphFeatures.PERSISTENT_INSTANCE;
     }
 
     public static class TinkerGraphFeatures implements Features {
 
-        static final TinkerGraphFeatures INSTANCE = new TinkerGraphFeatures();
+        static final TinkerGraphFeatures INSTANCE = new TinkerGraphFeatures(TinkerGraphGraphFeatures.INSTANCE);
+        static final TinkerGraphFeatures PERSISTENT_INSTANCE = new TinkerGraphFeatures(TinkerGraphGraphFeatures.PERSISTENT_INSTANCE);
 
-        private TinkerGraphFeatures() {
+        private final TinkerGraphGraphFeatures graphFeatures;
+
+        private TinkerGraphFeatures(final TinkerGraphGraphFeatures graphFeatures) {
+            this.graphFeatures = graphFeatures;
         }
 
         @Override
         public GraphFeatures graph() {
-            return TinkerGraphGraphFeatures.INSTANCE;
+            return this.graphFeatures;
         }
 
         @Override
@@ -276,9 +438,13 @@ public class TinkerGraph implements Graph {
     }
 
     public static class TinkerGraphGraphFeatures implements Features.GraphFeatures {
-        static final TinkerGraphGraphFeatures INSTANCE = new TinkerGraphGraphFeatures();
+        static final TinkerGraphGraphFeatures INSTANCE = new TinkerGraphGraphFeatures(false);
+        static final TinkerGraphGraphFeatures PERSISTENT_INSTANCE = new TinkerGraphGraphFeatures(true);
+
+        private final boolean persistent;
 
-        private TinkerGraphGraphFeatures() {
+        private TinkerGraphGraphFeatures(final boolean persistent) {
+            this.persistent = persistent;
         }
 
         @Override
@@ -288,7 +454,7 @@ public class TinkerGraph implements Graph {
 
         @Override
         public boolean supportsPersistence() {
-            return false;
+            return this.persistent;
         }
 
         @Override
@@ -297,8 +463,91 @@ public class TinkerGraph implements Graph {
         }
     }
 
+    ///////////// GRAPH SPECIFIC ID METHODS ///////////////
+
+    /**
+     * Generates the ids of the elements, vertex properties included, that are added without a user supplied id.
+     * Elements are added concurrently, so implementations must be thread-safe.
+     */
+    public interface IdManager {
+
+        /**
+         * Generate an id that no element of the graph has.
+         */
+        public Object getNextId(final TinkerGraph graph);
+
+        /**
+         * Take note of a user supplied id so that {@link #getNextId(TinkerGraph)} never generates it.
+         */
+        public default void observeId(final TinkerGraph graph, final Object id) {
+        }
+    }
+
+    public enum DefaultIdManager implements IdManager {
+        /**
+         * Generates ascending {@code Long} ids from blocks reserved per thread, skipping over user supplied
+         * {@code Long} ids. This is the default.
+         */
+        LONG {
+            @Override
+            public Object getNextId(final TinkerGraph graph) {
+                return TinkerHelper.getNextId(graph);
+            }
+
+            @Override
+            public void observeId(final TinkerGraph graph, final Object id) {
+                TinkerHelper.observeId(graph, id);
+            }
+        },
+        /**
+         * Generates random (version 4) {@link java.util.UUID} ids from a thread local source of randomness.
+         */
+        UUID {
+            @Override
+            public Object getNextId(final TinkerGraph graph) {
+                return TinkerHelper.getNextUuid();
+            }
+        },
+        /**
+         * Generates the {@link #UUID} ids as strings.
+         */
+        STRING {
+            @Override
+            public Object getNextId(final TinkerGraph graph) {
+                return TinkerHelper.getNextUuid().toString();
+            }
+        }
+    }
+
+    private static IdManager createIdManager(final String name) {
+        for (final DefaultIdManager idManager : DefaultIdManager.values()) {
+            if (idManager.name().equals(name))
+                return idManager;
+        }
+        try {
+            return (IdManager) Class.forName(name).newInstance();
+        } catch (final Exception e) {
+            throw new IllegalStateException("Could not create the id manager " + name + ": " + e.getMessage(), e);
+        }
+    }
+
     ///////////// GRAPH SPECIFIC INDEXING METHODS ///////////////
 
+    /**
+     * The kinds of index that can be created with {@link #createIndex(String, Class, IndexType)}.
+     */
+    public enum IndexType {
+        /**
+         * A hash index that answers equality and {@code within} lookups.
+         */
+        HASH,
+        /**
+         * A sorted index that additionally answers {@code gt}, {@code gte}, {@code lt}, {@code lte} and
+         * {@code inside} lookups over values of the same class.
+         */
+        SORTED
+    }
+
     /**
      * Create an index for said element class ({@link Vertex} or {@link Edge}) and said property key.
      * Whenever an element has the specified key mutated, the index is updated.
@@ -309,14 +558,33 @@ public class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
-        if (Vertex.class.isAssignableFrom(elementClass)) {
-            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
-        } else if (Edge.class.isAssignableFrom(elementClass)) {
-            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
-        } else {
-            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        this.createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. A key can only be indexed by one type of index at a time.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to maintain for the key
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+        try {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+                this.vertexIndex.createKeyIndex(key, indexType);
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+                this.edgeIndex.createKeyIndex(key, indexType);
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
+            TinkerHelper.logMutation(this, TinkerWriteAheadLog.Mutation.CREATE_INDEX, Vertex.class.isAssignableFrom(elementClass), key, indexType.name());
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
         }
     }
 
@@ -328,12 +596,18 @@ public class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void dropIndex(final String key, final Class<E> elementClass) {
-        if (Vertex.class.isAssignableFrom(elementClass)) {
-            if (null != this.vertexIndex) this.vertexIndex.dropKeyIndex(key);
-        } else if (Edge.class.isAssignableFrom(elementClass)) {
-            if (null != this.edgeIndex) this.edgeIndex.dropKeyIndex(key);
-        } else {
-            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+        try {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null != this.vertexIndex) this.vertexIndex.dropKeyIndex(key);
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null != this.edgeIndex) this.edgeIndex.dropKeyIndex(key);
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
+            TinkerHelper.logMutation(this, TinkerWriteAheadLog.Mutation.DROP_INDEX, key, Vertex.class.isAssignableFrom(elementClass));
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
         }
     }
 
@@ -353,4 +627,83 @@ public class TinkerGraph implements Graph {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
     }
+
+    /**
+     * Return the statistics of the graph by which the has-containers of a traversal are ordered when it is executed.
+     *
+     * @return the number of elements per label and per value of an indexed key
+     */
+    public GraphStatistics statistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the ordered tuple of the
+     * specified property keys, where the accessor of {@link org.apache.tinkerpop.gremlin.process.traversal.T#label}
+     * may be used as a key. An equality lookup on any prefix of the keys can be answered by the index, so order the
+     * keys from the most to the least frequently constrained.
+     * Whenever an element has one of the keys mutated, the index is updated and all existing elements are indexed
+     * when the index is created.
+     *
+     * @param elementClass the element class to index
+     * @param keys         the property keys to index, in tuple order
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final Class<E> elementClass, final String... keys) {
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+        try {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+                this.vertexIndex.createCompositeIndex(keys);
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+                this.edgeIndex.createCompositeIndex(keys);
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
+            TinkerHelper.logMutation(this, TinkerWriteAheadLog.Mutation.CREATE_COMPOSITE_INDEX, Vertex.class.isAssignableFrom(elementClass), new ArrayList<>(Arrays.asList(keys)));
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and ordered keys.
+     *
+     * @param elementClass the element class of the index to drop
+     * @param keys         the property keys of the index, in tuple order
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final Class<E> elementClass, final String... keys) {
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this);
+        try {
+            if (Vertex.class.isAssignableFrom(elementClass)) {
+                if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(keys);
+            } else if (Edge.class.isAssignableFrom(elementClass)) {
+                if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(keys);
+            } else {
+                throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+            }
+            TinkerHelper.logMutation(this, TinkerWriteAheadLog.Mutation.DROP_COMPOSITE_INDEX, Vertex.class.isAssignableFrom(elementClass), new ArrayList<>(Arrays.asList(keys)));
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
+    }
+
+    /**
+     * Return the ordered keys of all the composite indices for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indices for
+     * @param <E>          The type of the element class
+     * @return the set of ordered keys currently being indexed together
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeIndexKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeIndexKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
 }
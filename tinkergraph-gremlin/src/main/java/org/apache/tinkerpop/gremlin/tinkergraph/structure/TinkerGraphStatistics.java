@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link GraphStatistics} of a {@link TinkerGraph}. The number of elements per label is counted as elements are
+ * added and removed, while the number of elements per property value is only known for indexed keys, whose buckets
+ * are counted when asked for.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerGraphStatistics implements GraphStatistics {
+
+    private final TinkerGraph graph;
+    private final Map<String, LongAdder> vertexLabels = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> edgeLabels = new ConcurrentHashMap<>();
+
+    TinkerGraphStatistics(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    void addElement(final Element element) {
+        this.getLabels(element.getClass()).computeIfAbsent(element.label(), label -> new LongAdder()).increment();
+    }
+
+    void removeElement(final Element element) {
+        final LongAdder count = this.getLabels(element.getClass()).get(element.label());
+        if (null != count) count.decrement();
+    }
+
+    void clear() {
+        this.vertexLabels.clear();
+        this.edgeLabels.clear();
+    }
+
+    private Map<String, LongAdder> getLabels(final Class<? extends Element> elementClass) {
+        return Vertex.class.isAssignableFrom(elementClass) ? this.vertexLabels : this.edgeLabels;
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass))
+            return this.graph.vertices.size();
+        else if (Edge.class.isAssignableFrom(elementClass))
+            return this.graph.edges.size();
+        else
+            return UNKNOWN;
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass, final String label) {
+        if (!Vertex.class.isAssignableFrom(elementClass) && !Edge.class.isAssignableFrom(elementClass))
+            return UNKNOWN;
+        final LongAdder count = this.getLabels(elementClass).get(label);
+        return null == count ? 0l : count.sum();
+    }
+
+    @Override
+    public long count(final Class<? extends Element> elementClass, final String key, final Object value) {
+        final TinkerIndex<?> index = Vertex.class.isAssignableFrom(elementClass) ? this.graph.vertexIndex :
+                Edge.class.isAssignableFrom(elementClass) ? this.graph.edgeIndex : null;
+        return null == index || !index.getIndexedKeys().contains(key) ? UNKNOWN : index.count(key, value);
+    }
+}
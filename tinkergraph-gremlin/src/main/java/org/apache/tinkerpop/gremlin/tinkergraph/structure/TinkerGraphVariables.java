@@ -33,9 +33,14 @@ import java.util.concurrent.ConcurrentHashMap;
 public class TinkerGraphVariables implements Graph.Variables {
 
     private final Map<String, Object> variables = new ConcurrentHashMap<>();
+    private final TinkerGraph graph;
 
     public TinkerGraphVariables() {
+        this(null);
+    }
 
+    TinkerGraphVariables(final TinkerGraph graph) {
+        this.graph = graph;
     }
 
     @Override
@@ -50,13 +55,27 @@ public class TinkerGraphVariables implements Graph.Variables {
 
     @Override
     public void remove(final String key) {
-        this.variables.remove(key);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this.graph);
+        try {
+            this.variables.remove(key);
+            if (null != this.graph)
+                TinkerHelper.logMutation(this.graph, TinkerWriteAheadLog.Mutation.REMOVE_VARIABLE, key);
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
     }
 
     @Override
     public void set(final String key, final Object value) {
         GraphVariableHelper.validateVariable(key, value);
-        this.variables.put(key, value);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this.graph);
+        try {
+            this.variables.put(key, value);
+            if (null != this.graph)
+                TinkerHelper.logMutation(this.graph, TinkerWriteAheadLog.Mutation.SET_VARIABLE, key, value);
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
     }
 
     public String toString() {
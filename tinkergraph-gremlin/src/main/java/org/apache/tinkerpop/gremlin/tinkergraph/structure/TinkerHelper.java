@@ -19,24 +19,26 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphView;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -46,8 +48,50 @@ public final class TinkerHelper {
     private TinkerHelper() {
     }
 
-    protected final synchronized static long getNextId(final TinkerGraph graph) {
-        return Stream.generate(() -> (++graph.currentId)).filter(id -> !graph.vertices.containsKey(id) && !graph.edges.containsKey(id)).findAny().get();
+    private static final int ID_BLOCK_SIZE = 1024;
+
+    protected static ThreadLocal<long[]> createIdBlock() {
+        return ThreadLocal.withInitial(() -> new long[]{0l, -1l});
+    }
+
+    /**
+     * Hand out the next id of the block of ids reserved by the calling thread, reserving a new block once it is
+     * used up. Ids up to the largest user supplied {@code Long} id are skipped, so no id is ever probed for.
+     */
+    protected static long getNextId(final TinkerGraph graph) {
+        final long[] block = graph.idBlock.get();
+        final long maxSuppliedId = graph.maxSuppliedId.get();
+        if (block[0] <= maxSuppliedId)
+            block[0] = maxSuppliedId + 1;
+        if (block[0] > block[1]) {
+            long currentId;
+            do {
+                currentId = graph.currentId.get();
+                block[0] = Math.max(currentId, graph.maxSuppliedId.get()) + 1;
+                block[1] = block[0] + ID_BLOCK_SIZE - 1;
+            } while (!graph.currentId.compareAndSet(currentId, block[1]));
+        }
+        return block[0]++;
+    }
+
+    protected static void observeId(final TinkerGraph graph, final Object id) {
+        if (id instanceof Long) {
+            final long value = (Long) id;
+            long maxSuppliedId;
+            do {
+                maxSuppliedId = graph.maxSuppliedId.get();
+            } while (value > maxSuppliedId && !graph.maxSuppliedId.compareAndSet(maxSuppliedId, value));
+        }
+    }
+
+    /**
+     * A random (version 4) {@link UUID} that, unlike {@link UUID#randomUUID()}, does not contend on a shared
+     * {@link java.security.SecureRandom}.
+     */
+    protected static UUID getNextUuid() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new UUID((random.nextLong() & 0xffffffffffff0fffl) | 0x0000000000004000l,
+                (random.nextLong() & 0x3fffffffffffffffl) | 0x8000000000000000l);
     }
 
     protected static Edge addEdge(final TinkerGraph graph, final TinkerVertex outVertex, final TinkerVertex inVertex, final String label, final Object... keyValues) {
@@ -56,41 +100,110 @@ public final class TinkerHelper {
 
         Object idValue = ElementHelper.getIdValue(keyValues).orElse(null);
 
-        final Edge edge;
-        if (null != idValue) {
-            if (graph.edges.containsKey(idValue))
-                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
-        } else {
-            idValue = TinkerHelper.getNextId(graph);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(graph);
+        try {
+            final Edge edge;
+            if (null != idValue) {
+                if (graph.edges.containsKey(idValue))
+                    throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+                graph.idManager.observeId(graph, idValue);
+            } else {
+                idValue = graph.idManager.getNextId(graph);
+            }
+
+            edge = new TinkerEdge(idValue, outVertex, label, inVertex);
+            ElementHelper.attachProperties(edge, keyValues);
+            graph.edges.put(edge.id(), edge);
+            graph.statistics.addElement(edge);
+            TinkerHelper.addOutEdge(outVertex, edge);
+            TinkerHelper.addInEdge(inVertex, edge);
+            TinkerHelper.logMutation(graph, TinkerWriteAheadLog.Mutation.ADD_EDGE, edge.id(), label, outVertex.id(), inVertex.id(), TinkerWriteAheadLog.properties((TinkerEdge) edge));
+            return edge;
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
         }
 
-        edge = new TinkerEdge(idValue, outVertex, label, inVertex);
-        ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
-        return edge;
+    }
 
+    /**
+     * Take the lock of the write-ahead log of the graph, if it has one, before a mutation is applied, so that it is
+     * logged in the order it was applied in and a compaction of the log never snapshots it partially applied.
+     *
+     * @return the log to pass to {@link #unlockMutations(TinkerWriteAheadLog)} once the mutation has been logged
+     */
+    protected static TinkerWriteAheadLog lockMutations(final TinkerGraph graph) {
+        final TinkerWriteAheadLog writeAheadLog = graph.writeAheadLog;
+        if (null != writeAheadLog) writeAheadLog.lock();
+        return writeAheadLog;
     }
 
-    protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
-        Set<Edge> edges = vertex.outEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.outEdges.put(label, edges);
+    protected static void unlockMutations(final TinkerWriteAheadLog writeAheadLog) {
+        if (null != writeAheadLog) writeAheadLog.unlock();
+    }
+
+    /**
+     * Append the mutation, which has already been applied, to the write-ahead log of the graph if it has one. The
+     * mutation holds the lock of {@link #lockMutations(TinkerGraph)}.
+     */
+    protected static void logMutation(final TinkerGraph graph, final TinkerWriteAheadLog.Mutation mutation, final Object... fields) {
+        if (null != graph.writeAheadLog)
+            graph.writeAheadLog.append(mutation, fields);
+    }
+
+    protected static void addOutEdge(final TinkerVertex vertex, final Edge edge) {
+        if (null == vertex.outEdges) vertex.outEdges = TinkerHelper.createAdjacency((TinkerGraph) vertex.graph());
+        vertex.outEdges.add(edge);
+        vertex.outEdgeIndex = TinkerHelper.indexEdge(vertex.outEdgeIndex, (TinkerEdge) edge);
+    }
+
+    protected static void addInEdge(final TinkerVertex vertex, final Edge edge) {
+        if (null == vertex.inEdges) vertex.inEdges = TinkerHelper.createAdjacency((TinkerGraph) vertex.graph());
+        vertex.inEdges.add(edge);
+        vertex.inEdgeIndex = TinkerHelper.indexEdge(vertex.inEdgeIndex, (TinkerEdge) edge);
+    }
+
+    private static TinkerVertexCentricIndex indexEdge(TinkerVertexCentricIndex index, final TinkerEdge edge) {
+        final TinkerGraph graph = (TinkerGraph) edge.graph();
+        if (graph.vertexCentricIndexKeys.isEmpty() || null == edge.properties)
+            return index;
+        for (final String key : graph.vertexCentricIndexKeys) {
+            final Property property = edge.properties.get(key);
+            if (null != property) {
+                if (null == index) index = new TinkerVertexCentricIndex();
+                index.put(key, property.value(), edge);
+            }
         }
-        edges.add(edge);
+        return index;
     }
 
-    protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
-        Set<Edge> edges = vertex.inEdges.get(label);
-        if (null == edges) {
-            edges = new HashSet<>();
-            vertex.inEdges.put(label, edges);
+    /**
+     * Replace the old value of the key of the edge with the new value in the vertex-centric indices of its vertices,
+     * if the key is indexed. A {@code null} value is absent.
+     */
+    protected static void updateVertexCentricIndex(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
+        if (!((TinkerGraph) edge.graph()).vertexCentricIndexKeys.contains(key))
+            return;
+        final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+        final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+        if (null != oldValue) {
+            if (null != outVertex.outEdgeIndex) outVertex.outEdgeIndex.remove(key, oldValue, edge);
+            if (null != inVertex.inEdgeIndex) inVertex.inEdgeIndex.remove(key, oldValue, edge);
         }
-        edges.add(edge);
+        if (null != newValue) {
+            if (null == outVertex.outEdgeIndex) outVertex.outEdgeIndex = new TinkerVertexCentricIndex();
+            outVertex.outEdgeIndex.put(key, newValue, edge);
+            if (null == inVertex.inEdgeIndex) inVertex.inEdgeIndex = new TinkerVertexCentricIndex();
+            inVertex.inEdgeIndex.put(key, newValue, edge);
+        }
+    }
+
+    protected static void removeVertexCentricIndex(final TinkerEdge edge) {
+        if (null != edge.properties)
+            edge.properties.forEach((key, property) -> TinkerHelper.updateVertexCentricIndex(edge, key, null, property.value()));
+    }
+
+    private static TinkerAdjacency createAdjacency(final TinkerGraph graph) {
+        return graph.compactAdjacency ? new TinkerCompactAdjacency() : new TinkerMapAdjacency();
     }
 
     public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
@@ -101,12 +214,69 @@ public final class TinkerHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.lookup(hasContainers);
+    }
+
+    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final List<HasContainer> hasContainers) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.lookup(hasContainers);
+    }
+
+    /**
+     * Get the vertices of the graph as a {@link Spliterator} that is split by the structure of the graph.
+     */
+    public static Spliterator<Vertex> getVertexSpliterator(final TinkerGraph graph) {
+        return graph.vertices.values().spliterator();
+    }
+
+    /**
+     * Get the edges of the graph as a {@link Spliterator} that is split by the structure of the graph.
+     */
+    public static Spliterator<Edge> getEdgeSpliterator(final TinkerGraph graph) {
+        return graph.edges.values().spliterator();
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphView;
     }
 
-    public static TinkerGraphView createGraphView(final TinkerGraph graph, final GraphComputer.Isolation isolation, final Set<String> computeKeys) {
-        return graph.graphView = new TinkerGraphView(isolation, computeKeys);
+    public static void dropGraphView(final TinkerGraph graph) {
+        graph.graphView = null;
+    }
+
+    public static TinkerGraphView createGraphView(final TinkerGraph graph, final GraphComputer.Isolation isolation, final Set<String> computeKeys, final int numberOfSlots) {
+        return graph.graphView = new TinkerGraphView(isolation, computeKeys, numberOfSlots);
+    }
+
+    /**
+     * Assign each vertex of the graph a dense integer slot (0 until the number of vertices) for use by the
+     * {@link org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer}.
+     *
+     * @return the vertices of the graph ordered by their slot
+     */
+    public static TinkerVertex[] assignSlots(final TinkerGraph graph) {
+        final List<TinkerVertex> vertices = new ArrayList<>(graph.vertices.size());
+        for (final Vertex vertex : graph.vertices.values()) {
+            ((TinkerVertex) vertex).slot = vertices.size();
+            vertices.add((TinkerVertex) vertex);
+        }
+        return vertices.toArray(new TinkerVertex[vertices.size()]);
+    }
+
+    /**
+     * Get the slot assigned to the vertex by {@link #assignSlots(TinkerGraph)}. If the vertex is not a {@link TinkerVertex}
+     * (e.g. detached or wrapped), then it is resolved by its id. If the vertex does not exist or has not been
+     * assigned a slot, -1 is returned.
+     */
+    public static int getSlot(final TinkerGraph graph, final Vertex vertex) {
+        if (vertex instanceof TinkerVertex)
+            return ((TinkerVertex) vertex).slot;
+        final TinkerVertex tinkerVertex = (TinkerVertex) graph.vertices.get(vertex.id());
+        return null == tinkerVertex ? -1 : tinkerVertex.slot;
+    }
+
+    public static int getSlot(final TinkerVertex vertex) {
+        return vertex.slot;
     }
 
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
@@ -150,52 +320,55 @@ public final class TinkerHelper {
     }
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Edge> edges = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
-            }
-        }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(edges::addAll);
-                else if (edgeLabels.length == 1)
-                    edges.addAll(vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).forEach(edges::addAll);
-            }
-        }
-        return (Iterator) edges.iterator();
+        if (direction.equals(Direction.OUT))
+            return (Iterator) TinkerHelper.getEdges(vertex.outEdges, edgeLabels);
+        else if (direction.equals(Direction.IN))
+            return (Iterator) TinkerHelper.getEdges(vertex.inEdges, edgeLabels);
+        else
+            return (Iterator) IteratorUtils.concat(TinkerHelper.getEdges(vertex.outEdges, edgeLabels), TinkerHelper.getEdges(vertex.inEdges, edgeLabels));
     }
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
-        final List<Vertex> vertices = new ArrayList<>();
-        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
-            if (vertex.outEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.outEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.outEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.outEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).inVertex));
-            }
-        }
-        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
-            if (vertex.inEdges != null) {
-                if (edgeLabels.length == 0)
-                    vertex.inEdges.values().forEach(set -> set.forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex)));
-                else if (edgeLabels.length == 1)
-                    vertex.inEdges.getOrDefault(edgeLabels[0], Collections.emptySet()).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-                else
-                    Stream.of(edgeLabels).map(vertex.inEdges::get).filter(Objects::nonNull).flatMap(Set::stream).forEach(edge -> vertices.add(((TinkerEdge) edge).outVertex));
-            }
-        }
-        return (Iterator) vertices.iterator();
+        if (direction.equals(Direction.OUT))
+            return IteratorUtils.map(TinkerHelper.getEdges(vertex.outEdges, edgeLabels), edge -> (TinkerVertex) ((TinkerEdge) edge).inVertex);
+        else if (direction.equals(Direction.IN))
+            return IteratorUtils.map(TinkerHelper.getEdges(vertex.inEdges, edgeLabels), edge -> (TinkerVertex) ((TinkerEdge) edge).outVertex);
+        else
+            return IteratorUtils.concat(
+                    IteratorUtils.map(TinkerHelper.getEdges(vertex.outEdges, edgeLabels), edge -> (TinkerVertex) ((TinkerEdge) edge).inVertex),
+                    IteratorUtils.map(TinkerHelper.getEdges(vertex.inEdges, edgeLabels), edge -> (TinkerVertex) ((TinkerEdge) edge).outVertex));
+    }
+
+    /**
+     * Get the incident edges of the vertex that can satisfy the containers, answering them from the vertex-centric
+     * indices of the vertex if one of them is on an indexed key. The edges must still be filtered by the containers.
+     */
+    public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final List<HasContainer> hasContainers, final String... edgeLabels) {
+        final Set<String> indexedKeys = ((TinkerGraph) vertex.graph()).vertexCentricIndexKeys;
+        if (indexedKeys.isEmpty() || hasContainers.isEmpty())
+            return TinkerHelper.getEdges(vertex, direction, edgeLabels);
+        if (direction.equals(Direction.OUT))
+            return (Iterator) TinkerHelper.getEdges(vertex.outEdges, vertex.outEdgeIndex, indexedKeys, hasContainers, edgeLabels);
+        else if (direction.equals(Direction.IN))
+            return (Iterator) TinkerHelper.getEdges(vertex.inEdges, vertex.inEdgeIndex, indexedKeys, hasContainers, edgeLabels);
+        else
+            return (Iterator) IteratorUtils.concat(
+                    TinkerHelper.getEdges(vertex.outEdges, vertex.outEdgeIndex, indexedKeys, hasContainers, edgeLabels),
+                    TinkerHelper.getEdges(vertex.inEdges, vertex.inEdgeIndex, indexedKeys, hasContainers, edgeLabels));
+    }
+
+    private static Iterator<Edge> getEdges(final TinkerAdjacency adjacency, final TinkerVertexCentricIndex index, final Set<String> indexedKeys,
+                                           final List<HasContainer> hasContainers, final String... edgeLabels) {
+        final List<TinkerEdge> edges = TinkerVertexCentricIndex.lookup(index, indexedKeys, hasContainers);
+        if (null == edges)
+            return TinkerHelper.getEdges(adjacency, edgeLabels);
+        else if (edgeLabels.length == 0)
+            return (Iterator) edges.iterator();
+        else
+            return (Iterator) IteratorUtils.filter(edges.iterator(), edge -> ElementHelper.keyExists(edge.label(), edgeLabels));
+    }
+
+    private static Iterator<Edge> getEdges(final TinkerAdjacency adjacency, final String... edgeLabels) {
+        return null == adjacency ? Collections.emptyIterator() : adjacency.iterator(edgeLabels);
     }
 }
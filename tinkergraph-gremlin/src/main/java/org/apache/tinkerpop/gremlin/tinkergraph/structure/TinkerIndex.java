@@ -18,47 +18,121 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.apache.tinkerpop.gremlin.structure.Contains;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
-import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 class TinkerIndex<T extends Element> {
 
+    /**
+     * Orders the values of a {@link TinkerGraph.IndexType#SORTED} index. Values of the same {@link Comparable} class
+     * are in their natural order and values of different classes are grouped by class name, so a range over one
+     * class is a contiguous sub-map. Values that are not {@link Comparable} are ordered by hash code and a collision
+     * merely shares a bucket, as index results are always filtered by their {@link HasContainer} afterwards. Values
+     * that compare as equal are expected to have the same hash code, as writers are striped by it.
+     */
+    static final Comparator<Object> SORTED_ORDER = (a, b) -> {
+        if (a.getClass().equals(b.getClass())) {
+            return a instanceof Comparable ?
+                    ((Comparable) a).compareTo(b) :
+                    Integer.compare(a.hashCode(), b.hashCode());
+        } else
+            return a.getClass().getName().compareTo(b.getClass().getName());
+    };
+
+    /**
+     * Orders the value tuples of a composite index component-wise, with a tuple sorting directly before all the
+     * tuples it is a prefix of.
+     */
+    private static final Comparator<List<Object>> TUPLE_ORDER = (a, b) -> {
+        final int length = Math.min(a.size(), b.size());
+        for (int i = 0; i < length; i++) {
+            final int comparison = SORTED_ORDER.compare(a.get(i), b.get(i));
+            if (comparison != 0) return comparison;
+        }
+        return Integer.compare(a.size(), b.size());
+    };
+
+    /**
+     * The number of locks that writers of a value bucket, and writers of the index entries of an element, are
+     * striped over. Readers never lock.
+     */
+    private static final int LOCK_STRIPES = 64;
+
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+    protected Map<List<String>, CompositeIndex> compositeIndex = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
-    private final Set<String> indexedKeys = new HashSet<>();
+    private final Map<String, TinkerGraph.IndexType> indexedKeys = new ConcurrentHashMap<>();
+    /**
+     * The values under which each element is indexed by key, so that it can be removed without walking the index.
+     */
+    private final Map<T, Map<String, Set<Object>>> elementValues = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Object[] elementLocks = new Object[LOCK_STRIPES];
     private final TinkerGraph graph;
 
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new Object();
+            this.elementLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Get the lock guarding the index entries of the element, so that an element read while an index is built can
+     * not be indexed under values that a concurrent update of the element has already replaced. It is always taken
+     * before the lock of a bucket.
+     */
+    private Object elementLock(final Element element) {
+        int hash = element.hashCode();
+        hash = hash ^ (hash >>> 16);
+        return this.elementLocks[hash & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Get the lock guarding the bucket of the value, as adding to a bucket and dropping it once it is empty must
+     * not interleave.
+     */
+    private Object lock(final Object key, final Object value) {
+        int hash = 31 * key.hashCode() + value.hashCode();
+        hash = hash ^ (hash >>> 16);
+        return this.locks[hash & (LOCK_STRIPES - 1)];
     }
 
     protected void put(final String key, final Object value, final T element) {
-        Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (keyMap == null) {
-            keyMap = new ConcurrentHashMap<>();
-            this.index.put(key, keyMap);
+        final Map<Object, Set<T>> keyMap = this.index.computeIfAbsent(key, k ->
+                TinkerGraph.IndexType.SORTED == this.indexedKeys.get(k) ?
+                        new ConcurrentSkipListMap<>(SORTED_ORDER) :
+                        new ConcurrentHashMap<>());
+        synchronized (this.lock(key, value)) {
+            keyMap.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(element);
         }
-        Set<T> objects = keyMap.get(value);
-        if (null == objects) {
-            objects = new HashSet<>();
-            keyMap.put(value, objects);
-        }
-        objects.add(element);
-
+        this.elementValues.compute(element, (e, values) -> {
+            if (null == values) values = new ConcurrentHashMap<>();
+            values.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(value);
+            return values;
+        });
     }
 
     public List<T> get(final String key, final Object value) {
@@ -87,14 +161,162 @@ class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Answer the given {@link HasContainer} set from the index using the most selective container that an indexed
+     * key supports, or the longest equality prefix of a composite index. Equality and {@link Contains#within} are
+     * supported by every index type, while range predicates are only supported by
+     * {@link TinkerGraph.IndexType#SORTED} indices. The candidates of each index are counted and the smallest set
+     * wins. The returned elements are a superset of the matches and must still be filtered by all the containers.
+     *
+     * @return the candidate elements or {@code null} if no container can be answered by the index
+     */
+    public List<T> lookup(final List<HasContainer> hasContainers) {
+        List<Set<T>> best = null;
+        long bestCount = Long.MAX_VALUE;
+        for (final HasContainer hasContainer : hasContainers) {
+            if (isRange(hasContainer)) continue;
+            final List<Set<T>> buckets = this.buckets(hasContainer, Long.MAX_VALUE);
+            final long count = count(buckets);
+            if (count < bestCount) {
+                best = buckets;
+                bestCount = count;
+            }
+        }
+        for (final CompositeIndex composite : this.compositeIndex.values()) {
+            final List<Set<T>> buckets = composite.buckets(hasContainers);
+            final long count = count(buckets);
+            if (count < bestCount) {
+                best = buckets;
+                bestCount = count;
+            }
+        }
+        // a range is only walked for as long as it holds fewer candidates than the best of the other containers
+        for (final HasContainer hasContainer : hasContainers) {
+            if (!isRange(hasContainer)) continue;
+            final List<Set<T>> buckets = this.buckets(hasContainer, bestCount);
+            final long count = count(buckets);
+            if (count < bestCount) {
+                best = buckets;
+                bestCount = count;
+            }
+        }
+        if (null == best)
+            return null;
+        else if (best.size() == 1)
+            return new ArrayList<>(best.get(0));
+        else {
+            // multi-properties and within() can place the same element in several buckets
+            final Set<T> elements = new LinkedHashSet<>();
+            best.forEach(elements::addAll);
+            return new ArrayList<>(elements);
+        }
+    }
+
+    static <T> long count(final List<Set<T>> buckets) {
+        if (null == buckets)
+            return Long.MAX_VALUE;
+        long count = 0;
+        for (final Set<T> bucket : buckets) {
+            count = count + bucket.size();
+        }
+        return count;
+    }
+
+    private List<Set<T>> buckets(final HasContainer hasContainer, final long limit) {
+        if (!this.indexedKeys.containsKey(hasContainer.key) || null == hasContainer.value)
+            return null;
+        final Map<Object, Set<T>> keyMap = this.index.getOrDefault(hasContainer.key,
+                TinkerGraph.IndexType.SORTED == this.indexedKeys.get(hasContainer.key) ?
+                        Collections.emptyNavigableMap() :
+                        Collections.emptyMap());
+        return buckets(keyMap, hasContainer, limit);
+    }
+
+    static boolean isRange(final HasContainer hasContainer) {
+        return Compare.gt == hasContainer.predicate || Compare.gte == hasContainer.predicate ||
+                Compare.lt == hasContainer.predicate || Compare.lte == hasContainer.predicate ||
+                Compare.inside == hasContainer.predicate;
+    }
+
+    /**
+     * Get the buckets of the value map of a key that hold the candidates of the container. Range predicates are only
+     * answered by a {@link NavigableMap} in {@link #SORTED_ORDER} and the walk of a range stops once its buckets hold
+     * more than {@code limit} candidates, as it would then not be used.
+     *
+     * @return the buckets or {@code null} if the container can not be answered by the map within the limit
+     */
+    static <T> List<Set<T>> buckets(final Map<Object, Set<T>> keyMap, final HasContainer hasContainer, final long limit) {
+        if (null == hasContainer.value)
+            return null;
+        else if (Compare.eq == hasContainer.predicate) {
+            final Set<T> set = keyMap.get(hasContainer.value);
+            return null == set ? Collections.emptyList() : Collections.singletonList(set);
+        } else if (Contains.within == hasContainer.predicate && hasContainer.value instanceof Collection) {
+            final List<Set<T>> buckets = new ArrayList<>();
+            for (final Object value : (Collection) hasContainer.value) {
+                final Set<T> set = null == value ? null : keyMap.get(value);
+                if (null != set) buckets.add(set);
+            }
+            return buckets;
+        } else if (keyMap instanceof NavigableMap) {
+            final NavigableMap<Object, Set<T>> sortedMap = (NavigableMap<Object, Set<T>>) keyMap;
+            final Object value = hasContainer.value;
+            if (Compare.gt == hasContainer.predicate || Compare.gte == hasContainer.predicate)
+                return range(sortedMap.tailMap(value, Compare.gte == hasContainer.predicate), value.getClass(), limit);
+            else if (Compare.lt == hasContainer.predicate || Compare.lte == hasContainer.predicate)
+                return range(sortedMap.headMap(value, Compare.lte == hasContainer.predicate).descendingMap(), value.getClass(), limit);
+            else if (Compare.inside == hasContainer.predicate && value instanceof List && ((List) value).size() == 2) {
+                final Object low = ((List) value).get(0);
+                final Object high = ((List) value).get(1);
+                if (null == low || null == high || !low.getClass().equals(high.getClass()))
+                    return null;
+                if (SORTED_ORDER.compare(low, high) >= 0)
+                    return Collections.emptyList();
+                return range(sortedMap.subMap(low, false, high, false), low.getClass(), limit);
+            }
+        }
+        return null;
+    }
+
+    private static <T> List<Set<T>> range(final NavigableMap<Object, Set<T>> subMap, final Class<?> valueClass, final long limit) {
+        // values of other classes sort outside the range of the value class and are not comparable to it
+        if (!Comparable.class.isAssignableFrom(valueClass))
+            return Collections.emptyList();
+        final List<Set<T>> buckets = new ArrayList<>();
+        long count = 0;
+        for (final Map.Entry<Object, Set<T>> entry : subMap.entrySet()) {
+            if (!entry.getKey().getClass().equals(valueClass)) break;
+            count = count + entry.getValue().size();
+            if (count > limit)
+                return null;
+            buckets.add(entry.getValue());
+        }
+        return buckets;
+    }
+
     public void remove(final String key, final Object value, final T element) {
+        synchronized (this.elementLock(element)) {
+            this.removeFromBucket(key, value, element);
+            this.elementValues.computeIfPresent(element, (e, values) -> {
+                values.computeIfPresent(key, (k, keyValues) -> {
+                    keyValues.remove(value);
+                    return keyValues.isEmpty() ? null : keyValues;
+                });
+                return values.isEmpty() ? null : values;
+            });
+        }
+    }
+
+    private void removeFromBucket(final String key, final Object value, final T element) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null != keyMap) {
-            Set<T> objects = keyMap.get(value);
-            if (null != objects) {
-                objects.remove(element);
-                if (objects.size() == 0) {
-                    keyMap.remove(value);
+            synchronized (this.lock(key, value)) {
+                final Set<T> objects = keyMap.get(value);
+                if (null != objects) {
+                    objects.remove(element);
+                    if (objects.size() == 0) {
+                        keyMap.remove(value);
+                    }
                 }
             }
         }
@@ -102,53 +324,259 @@ class TinkerIndex<T extends Element> {
 
     public void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
-            for (Map<Object, Set<T>> map : index.values()) {
-                for (Set<T> set : map.values()) {
-                    set.remove(element);
+            synchronized (this.elementLock(element)) {
+                final Map<String, Set<Object>> values = this.elementValues.remove(element);
+                if (null != values)
+                    values.forEach((key, keyValues) -> keyValues.forEach(value -> this.removeFromBucket(key, value, element)));
+                for (final CompositeIndex composite : this.compositeIndex.values()) {
+                    composite.remove(element);
                 }
             }
         }
     }
 
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key)) {
-            if (oldValue != null)
-                this.remove(key, oldValue, element);
-            this.put(key, newValue, element);
+        synchronized (this.elementLock(element)) {
+            if (this.indexedKeys.containsKey(key)) {
+                if (oldValue != null)
+                    this.remove(key, oldValue, element);
+                this.put(key, newValue, element);
+            }
+            this.updateCompositeIndex(key, element);
         }
     }
 
     public void autoRemove(final String key, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key))
-            this.remove(key, oldValue, element);
+        synchronized (this.elementLock(element)) {
+            if (this.indexedKeys.containsKey(key))
+                this.remove(key, oldValue, element);
+            this.updateCompositeIndex(key, element);
+        }
+    }
+
+    private void updateCompositeIndex(final String key, final T element) {
+        for (final CompositeIndex composite : this.compositeIndex.values()) {
+            if (composite.keys.contains(key))
+                composite.update(element);
+        }
     }
 
-    public void createKeyIndex(final String key) {
+    public void createKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
 
-        if (this.indexedKeys.contains(key))
+        final TinkerGraph.IndexType existingType = this.indexedKeys.putIfAbsent(key, indexType);
+        if (null != existingType) {
+            if (existingType != indexType)
+                throw new IllegalStateException("The key " + key + " is already indexed as " + existingType);
             return;
-        this.indexedKeys.add(key);
+        }
 
+        // elements mutated while the index is built are maintained by autoUpdate as the key is already indexed, and
+        // each element is read and indexed under its lock so that such an update either precedes or follows it
         (Vertex.class.isAssignableFrom(this.indexClass) ?
-                this.graph.vertices.values().<T>parallelStream() :
-                this.graph.edges.values().<T>parallelStream())
-                .map(e -> new Object[]{((T) e).property(key), e})
-                .filter(a -> ((Property) a[0]).isPresent())
-                .forEach(a -> this.put(key, ((Property) a[0]).value(), (T) a[1]));
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> {
+                    synchronized (this.elementLock(e)) {
+                        if (this.contains(e))
+                            values(e, key).forEach(value -> this.put(key, value, (T) e));
+                    }
+                });
+    }
+
+    /**
+     * Determine if the element is still in the graph, as an element is only dropped from the index after it is
+     * removed from the graph.
+     */
+    private boolean contains(final Element element) {
+        return Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.containsKey(element.id()) :
+                this.graph.edges.containsKey(element.id());
     }
 
     public void dropKeyIndex(final String key) {
+        this.indexedKeys.remove(key);
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
-
-        this.indexedKeys.remove(key);
+        this.elementValues.values().forEach(values -> values.remove(key));
+        this.elementValues.values().removeIf(Map::isEmpty);
     }
 
     public Set<String> getIndexedKeys() {
-        return this.indexedKeys;
+        return this.indexedKeys.keySet();
+    }
+
+    public TinkerGraph.IndexType getIndexType(final String key) {
+        return this.indexedKeys.get(key);
+    }
+
+    /**
+     * Register the key without indexing the existing elements, as its buckets are restored with {@link #put}.
+     */
+    protected void restoreKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
+        this.indexedKeys.put(key, indexType);
+    }
+
+    /**
+     * Register the composite index without indexing the existing elements, as its tuples are restored with
+     * {@link #restoreTuple}.
+     */
+    protected void restoreCompositeIndex(final List<String> keys) {
+        final List<String> compositeKeys = Collections.unmodifiableList(new ArrayList<>(keys));
+        this.compositeIndex.putIfAbsent(compositeKeys, new CompositeIndex(compositeKeys));
+    }
+
+    protected void restoreTuple(final List<String> keys, final List<Object> tuple, final T element) {
+        final CompositeIndex composite = this.compositeIndex.get(keys);
+        synchronized (this.lock(keys, tuple)) {
+            composite.tuples.computeIfAbsent(tuple, t -> ConcurrentHashMap.newKeySet()).add(element);
+        }
+        composite.elementTuples.computeIfAbsent(element, e -> new ArrayList<>()).add(tuple);
+    }
+
+    protected Map<List<Object>, Set<T>> getTuples(final List<String> keys) {
+        return this.compositeIndex.get(keys).tuples;
+    }
+
+    public void createCompositeIndex(final String... keys) {
+        if (null == keys)
+            throw Graph.Exceptions.argumentCanNotBeNull("keys");
+        if (keys.length < 2)
+            throw new IllegalArgumentException("A composite index requires at least two keys: " + Arrays.toString(keys));
+        for (final String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+
+        final List<String> compositeKeys = Collections.unmodifiableList(Arrays.asList(keys.clone()));
+        if (this.compositeIndex.containsKey(compositeKeys))
+            return;
+        final CompositeIndex composite = new CompositeIndex(compositeKeys);
+        if (null != this.compositeIndex.putIfAbsent(compositeKeys, composite))
+            return;
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().parallelStream() :
+                this.graph.edges.values().parallelStream())
+                .forEach(e -> {
+                    synchronized (this.elementLock(e)) {
+                        if (this.contains(e))
+                            composite.update((T) e);
+                    }
+                });
+    }
+
+    public void dropCompositeIndex(final String... keys) {
+        this.compositeIndex.remove(Arrays.asList(keys));
+    }
+
+    public Set<List<String>> getCompositeIndexKeys() {
+        return this.compositeIndex.keySet();
+    }
+
+    /**
+     * Get the values of the key on the element, where the label accessor yields the label of the element.
+     */
+    private static List<Object> values(final Element element, final String key) {
+        if (org.apache.tinkerpop.gremlin.process.traversal.T.label.getAccessor().equals(key))
+            return Collections.singletonList(element.label());
+        final List<Object> values = new ArrayList<>();
+        element.properties(key).forEachRemaining(property -> values.add(property.value()));
+        return values;
+    }
+
+    /**
+     * An index over the ordered tuple of values of several keys. Tuples are kept sorted so that any prefix of the
+     * keys can be answered, and each element remembers its tuples so that it can be re-indexed when one of its
+     * values changes.
+     */
+    protected final class CompositeIndex {
+
+        private final List<String> keys;
+        private final NavigableMap<List<Object>, Set<T>> tuples = new ConcurrentSkipListMap<>(TUPLE_ORDER);
+        private final Map<T, List<List<Object>>> elementTuples = new ConcurrentHashMap<>();
+
+        private CompositeIndex(final List<String> keys) {
+            this.keys = keys;
+        }
+
+        private void update(final T element) {
+            this.remove(element);
+            // the cartesian product of the values of the keys, as vertices may have multiple values per key, which
+            // ends at the first missing key so that the element is still found by a lookup on the keys before it
+            List<List<Object>> tuples = Collections.singletonList(Collections.emptyList());
+            for (final String key : this.keys) {
+                final List<Object> values = values(element, key);
+                if (values.isEmpty())
+                    break;
+                final List<List<Object>> extended = new ArrayList<>(tuples.size() * values.size());
+                for (final List<Object> tuple : tuples) {
+                    for (final Object value : values) {
+                        final List<Object> extendedTuple = new ArrayList<>(tuple);
+                        extendedTuple.add(value);
+                        extended.add(extendedTuple);
+                    }
+                }
+                tuples = extended;
+            }
+            if (tuples.get(0).isEmpty())
+                return;
+            for (final List<Object> tuple : tuples) {
+                synchronized (lock(this.keys, tuple)) {
+                    this.tuples.computeIfAbsent(tuple, t -> ConcurrentHashMap.newKeySet()).add(element);
+                }
+            }
+            this.elementTuples.put(element, tuples);
+        }
+
+        private void remove(final T element) {
+            final List<List<Object>> tuples = this.elementTuples.remove(element);
+            if (null != tuples) {
+                for (final List<Object> tuple : tuples) {
+                    synchronized (lock(this.keys, tuple)) {
+                        final Set<T> objects = this.tuples.get(tuple);
+                        if (null != objects) {
+                            objects.remove(element);
+                            if (objects.size() == 0)
+                                this.tuples.remove(tuple);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the buckets of the longest prefix of the keys that has an equality {@link HasContainer}, or
+         * {@code null} if the first key has none.
+         */
+        private List<Set<T>> buckets(final List<HasContainer> hasContainers) {
+            final List<Object> prefix = new ArrayList<>(this.keys.size());
+            for (final String key : this.keys) {
+                final Object value = hasContainers.stream()
+                        .filter(c -> key.equals(c.key) && Compare.eq == c.predicate && null != c.value)
+                        .findFirst().map(c -> c.value).orElse(null);
+                if (null == value) break;
+                prefix.add(value);
+            }
+            if (prefix.isEmpty())
+                return null;
+            else if (prefix.size() == this.keys.size()) {
+                final Set<T> set = this.tuples.get(prefix);
+                return null == set ? Collections.emptyList() : Collections.singletonList(set);
+            } else {
+                final List<Set<T>> buckets = new ArrayList<>();
+                for (final Map.Entry<List<Object>, Set<T>> entry : this.tuples.tailMap(prefix, true).entrySet()) {
+                    if (TUPLE_ORDER.compare(entry.getKey().subList(0, prefix.size()), prefix) != 0) break;
+                    buckets.add(entry.getValue());
+                }
+                return buckets;
+            }
+        }
     }
 }
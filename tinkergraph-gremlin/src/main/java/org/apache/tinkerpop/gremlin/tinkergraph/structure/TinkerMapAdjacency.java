@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default {@link TinkerAdjacency} which maintains a set of edges for each label.
+ * <p/>
+ * Each set is copied on write once an iterator has been handed it, as the iterator may still be reading it. Only the
+ * set of the label of the mutated edge is copied and the next writes to it mutate the copy in place. Thus, the common
+ * case of repeated mutations without iteration in between does not copy, and an iterator that is never exhausted
+ * costs at most one copy of the sets it read.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerMapAdjacency implements TinkerAdjacency {
+
+    private final Map<String, LabelEdges> edges = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(final Edge edge) {
+        this.edges.computeIfAbsent(edge.label(), label -> new LabelEdges()).add(edge);
+    }
+
+    @Override
+    public void remove(final Edge edge) {
+        final LabelEdges edges = this.edges.get(edge.label());
+        if (null != edges)
+            edges.remove(edge);
+    }
+
+    @Override
+    public Iterator<Edge> iterator(final String... edgeLabels) {
+        // the sets are taken when the iterator is created, so that edges added afterwards are not returned
+        if (edgeLabels.length == 1) {
+            final LabelEdges edges = this.edges.get(edgeLabels[0]);
+            return null == edges ? Collections.emptyIterator() : new EdgeIterator(Collections.singleton(edges.share()).iterator());
+        }
+        final List<Set<Edge>> sets = new ArrayList<>();
+        if (edgeLabels.length == 0)
+            this.edges.values().forEach(edges -> sets.add(edges.share()));
+        else {
+            for (final String edgeLabel : edgeLabels) {
+                final LabelEdges edges = this.edges.get(edgeLabel);
+                if (null != edges)
+                    sets.add(edges.share());
+            }
+        }
+        return new EdgeIterator(sets.iterator());
+    }
+
+    /**
+     * The edges of a label. Readers take the current set and flag it as shared, after which a writer first replaces
+     * it with a copy, so that a set is never mutated once it was handed to a reader. Taking and replacing the set are
+     * synchronized, as readers may run in parallel to each other and to a writer.
+     */
+    private static final class LabelEdges {
+
+        private Set<Edge> edges = new HashSet<>();
+        private boolean shared = false;
+
+        private synchronized Set<Edge> share() {
+            this.shared = true;
+            return this.edges;
+        }
+
+        private synchronized void add(final Edge edge) {
+            this.copyOnWrite();
+            this.edges.add(edge);
+        }
+
+        private synchronized void remove(final Edge edge) {
+            this.copyOnWrite();
+            this.edges.remove(edge);
+        }
+
+        private void copyOnWrite() {
+            if (this.shared) {
+                this.edges = new HashSet<>(this.edges);
+                this.shared = false;
+            }
+        }
+    }
+
+    private static final class EdgeIterator implements Iterator<Edge> {
+
+        private final Iterator<Set<Edge>> sets;
+        private Iterator<Edge> current = Collections.emptyIterator();
+        private Edge next = null;
+
+        public EdgeIterator(final Iterator<Set<Edge>> sets) {
+            this.sets = sets;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == this.next) {
+                if (this.current.hasNext()) {
+                    final Edge edge = this.current.next();
+                    if (!((TinkerEdge) edge).removed)
+                        this.next = edge;
+                } else if (this.sets.hasNext()) {
+                    this.current = this.sets.next().iterator();
+                } else
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Edge next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            final Edge edge = this.next;
+            this.next = null;
+            return edge;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.FastNoSuchElementException;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A concurrent map of elements by id that stores {@code Long} ids unboxed in open-addressing tables and falls back
+ * to a {@link ConcurrentHashMap} for all other ids. The {@code Long} ids are spread over segments, each a linear
+ * probing table of primitive keys and element values that is written under the lock of its segment and read without
+ * locking. A slot of a table is only ever assigned to a single key, so removal leaves a marker in its slot that a
+ * later put of the same key reuses and the markers are dropped whenever the table is rebuilt.
+ * <p/>
+ * Like the iterators of {@link ConcurrentHashMap}, the iterators of the map are weakly consistent.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerPrimitiveIdMap<V> extends AbstractMap<Object, V> {
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int MINIMUM_TABLE_BITS = 4;
+    private static final Object REMOVED = new Object();
+
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+    private final Map<Object, V> objects = new ConcurrentHashMap<>();
+
+    TinkerPrimitiveIdMap() {
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Fibonacci hashing spreads both dense and strided ids over the high bits, which select the segment and the
+     * first slot of the probe.
+     */
+    private static long hash(final long key) {
+        return key * 0x9E3779B97F4A7C15l;
+    }
+
+    private Segment segment(final long hash) {
+        return this.segments[(int) (hash >>> (64 - SEGMENT_BITS))];
+    }
+
+    public V get(final long key) {
+        final long hash = hash(key);
+        final Table table = this.segment(hash).table;
+        for (int i = table.slot(hash); ; i = (i + 1) & table.mask) {
+            final Object value = table.values.get(i);
+            if (null == value) return null;
+            if (table.keys.get(i) == key) return REMOVED == value ? null : (V) value;
+        }
+    }
+
+    public V put(final long key, final V value) {
+        return this.put(key, value, false);
+    }
+
+    public V putIfAbsent(final long key, final V value) {
+        return this.put(key, value, true);
+    }
+
+    private V put(final long key, final V value, final boolean onlyIfAbsent) {
+        if (null == value) throw new NullPointerException();
+        final long hash = hash(key);
+        final Segment segment = this.segment(hash);
+        synchronized (segment) {
+            Table table = segment.table;
+            int i = table.slot(hash);
+            for (Object previous; null != (previous = table.values.get(i)); i = (i + 1) & table.mask) {
+                if (table.keys.get(i) == key) {
+                    if (onlyIfAbsent && REMOVED != previous) return (V) previous;
+                    table.values.set(i, value);
+                    if (REMOVED != previous) return (V) previous;
+                    segment.size++;
+                    return null;
+                }
+            }
+            if (table.used + 1 > table.threshold) {
+                table = segment.rebuild();
+                for (i = table.slot(hash); null != table.values.get(i); i = (i + 1) & table.mask) ;
+            }
+            table.keys.set(i, key);
+            table.values.set(i, value);
+            table.used++;
+            segment.size++;
+            return null;
+        }
+    }
+
+    public V remove(final long key) {
+        final long hash = hash(key);
+        final Segment segment = this.segment(hash);
+        synchronized (segment) {
+            final Table table = segment.table;
+            for (int i = table.slot(hash); ; i = (i + 1) & table.mask) {
+                final Object value = table.values.get(i);
+                if (null == value) return null;
+                if (table.keys.get(i) == key) {
+                    if (REMOVED == value) return null;
+                    table.values.set(i, REMOVED);
+                    segment.size--;
+                    return (V) value;
+                }
+            }
+        }
+    }
+
+    @Override
+    public V get(final Object key) {
+        return key instanceof Long ? this.get(((Long) key).longValue()) : this.objects.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return null != this.get(key);
+    }
+
+    @Override
+    public V put(final Object key, final V value) {
+        return key instanceof Long ? this.put(((Long) key).longValue(), value) : this.objects.put(key, value);
+    }
+
+    @Override
+    public V putIfAbsent(final Object key, final V value) {
+        return key instanceof Long ? this.putIfAbsent(((Long) key).longValue(), value) : this.objects.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V remove(final Object key) {
+        return key instanceof Long ? this.remove(((Long) key).longValue()) : this.objects.remove(key);
+    }
+
+    @Override
+    public int size() {
+        int size = this.objects.size();
+        for (final Segment segment : this.segments) {
+            size = size + segment.size;
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (final Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.table = new Table(MINIMUM_TABLE_BITS);
+                segment.size = 0;
+            }
+        }
+        this.objects.clear();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    @Override
+                    protected V primitive(final long key, final Object value) {
+                        return (V) value;
+                    }
+
+                    @Override
+                    protected V object(final Map.Entry<Object, V> entry) {
+                        return entry.getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerPrimitiveIdMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Object, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Object, V>>() {
+            @Override
+            public Iterator<Map.Entry<Object, V>> iterator() {
+                return new SlotIterator<Map.Entry<Object, V>>() {
+                    @Override
+                    protected Map.Entry<Object, V> primitive(final long key, final Object value) {
+                        return new SimpleImmutableEntry<>(key, (V) value);
+                    }
+
+                    @Override
+                    protected Map.Entry<Object, V> object(final Map.Entry<Object, V> entry) {
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return TinkerPrimitiveIdMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Walks the live slots of the table each segment had when the walk reached it and then the non-{@code Long} ids.
+     */
+    private abstract class SlotIterator<R> implements Iterator<R> {
+
+        private int segment = -1;
+        private Table table = null;
+        private int slot = 0;
+        private final Iterator<Map.Entry<Object, V>> objects = TinkerPrimitiveIdMap.this.objects.entrySet().iterator();
+        private R next = null;
+
+        protected abstract R primitive(final long key, final Object value);
+
+        protected abstract R object(final Map.Entry<Object, V> entry);
+
+        @Override
+        public boolean hasNext() {
+            while (null == this.next) {
+                if (null != this.table && this.slot < this.table.values.length()) {
+                    final Object value = this.table.values.get(this.slot);
+                    if (null != value && REMOVED != value)
+                        this.next = this.primitive(this.table.keys.get(this.slot), value);
+                    this.slot++;
+                } else if (this.segment + 1 < TinkerPrimitiveIdMap.this.segments.length) {
+                    this.table = TinkerPrimitiveIdMap.this.segments[++this.segment].table;
+                    this.slot = 0;
+                } else if (this.objects.hasNext()) {
+                    this.next = this.object(this.objects.next());
+                } else
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public R next() {
+            if (!this.hasNext()) throw FastNoSuchElementException.instance();
+            final R r = this.next;
+            this.next = null;
+            return r;
+        }
+    }
+
+    private static final class Segment {
+        private volatile Table table = new Table(MINIMUM_TABLE_BITS);
+        private volatile int size = 0;
+
+        /**
+         * Copy the live entries into a new table, doubling its capacity as long as they would fill more than half of
+         * it, and publish the new table to the readers.
+         */
+        private Table rebuild() {
+            final Table current = this.table;
+            int bits = Math.max(MINIMUM_TABLE_BITS, current.bits);
+            while ((long) (this.size + 1) << 1 > 1l << bits) {
+                bits++;
+            }
+            final Table table = new Table(bits);
+            for (int i = 0; i < current.values.length(); i++) {
+                final Object value = current.values.get(i);
+                if (null != value && REMOVED != value) {
+                    final long key = current.keys.get(i);
+                    int j = table.slot(hash(key));
+                    while (null != table.values.get(j)) {
+                        j = (j + 1) & table.mask;
+                    }
+                    table.keys.set(j, key);
+                    table.values.set(j, value);
+                    table.used++;
+                }
+            }
+            this.table = table;
+            return table;
+        }
+    }
+
+    private static final class Table {
+        private final int bits;
+        private final int mask;
+        private final int threshold;
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<Object> values;
+        private int used = 0;
+
+        private Table(final int bits) {
+            this.bits = bits;
+            this.mask = (1 << bits) - 1;
+            this.threshold = (1 << bits) - (1 << (bits - 2));
+            this.keys = new AtomicLongArray(1 << bits);
+            this.values = new AtomicReferenceArray<>(1 << bits);
+        }
+
+        private int slot(final long hash) {
+            return (int) (hash >>> (64 - SEGMENT_BITS - this.bits)) & this.mask;
+        }
+    }
+}
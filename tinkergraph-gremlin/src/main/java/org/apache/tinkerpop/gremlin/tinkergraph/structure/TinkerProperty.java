@@ -73,11 +73,21 @@ public class TinkerProperty<V> implements Property<V> {
 
     @Override
     public void remove() {
-        if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
-        } else {
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations((TinkerGraph) this.element.graph());
+        try {
+            if (this.element instanceof Edge) {
+                ((TinkerEdge) this.element).properties.remove(this.key);
+                TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+                TinkerHelper.updateVertexCentricIndex((TinkerEdge) this.element, this.key, null, this.value);
+                TinkerHelper.logMutation((TinkerGraph) this.element.graph(), TinkerWriteAheadLog.Mutation.REMOVE_EDGE_PROPERTY, this.element.id(), this.key);
+            } else {
+                final TinkerVertexProperty vertexProperty = (TinkerVertexProperty) this.element;
+                vertexProperty.properties.remove(this.key);
+                if (vertexProperty.isAttached())
+                    TinkerHelper.logMutation((TinkerGraph) vertexProperty.element().graph(), TinkerWriteAheadLog.Mutation.REMOVE_META_PROPERTY, vertexProperty.element().id(), vertexProperty.key(), vertexProperty.id(), this.key);
+            }
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
         }
     }
 }
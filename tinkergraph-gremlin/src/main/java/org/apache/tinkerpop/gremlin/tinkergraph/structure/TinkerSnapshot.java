@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.T;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes the binary snapshot of a {@link TinkerGraph} that backs
+ * {@link TinkerGraph#CONFIG_GRAPH_LOCATION}. The snapshot is laid out as consecutive tables (variables, vertices,
+ * edges and then the vertex and edge indices) that are streamed sequentially through a {@link FileChannel}. Edges
+ * reference their vertices by id and index buckets reference their elements by id, so loading rebuilds the
+ * adjacency and the indices directly instead of replaying mutations or re-scanning properties. Ids and values are
+ * encoded with the default {@link GryoMapper}, so they are limited to the types that Gryo supports.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerSnapshot {
+
+    private static final int MAGIC = 0x54475331;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private TinkerSnapshot() {
+    }
+
+    /**
+     * Write the snapshot to a sibling file of the location and then move it over the location, so that a failure
+     * while writing never leaves a partial snapshot behind.
+     */
+    public static void write(final TinkerGraph graph, final Path location) throws IOException {
+        final Path absoluteLocation = location.toAbsolutePath();
+        if (null != absoluteLocation.getParent())
+            Files.createDirectories(absoluteLocation.getParent());
+        final Path temporary = absoluteLocation.resolveSibling(absoluteLocation.getFileName() + ".tmp");
+        try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final Output output = new Output(Channels.newOutputStream(channel), BUFFER_SIZE);
+            write(graph, GryoMapper.build().create().createMapper(), output);
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, absoluteLocation, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void read(final TinkerGraph graph, final Path location) throws IOException {
+        try (final FileChannel channel = FileChannel.open(location, StandardOpenOption.READ)) {
+            read(graph, GryoMapper.build().create().createMapper(), new Input(Channels.newInputStream(channel), BUFFER_SIZE));
+        }
+    }
+
+    private static void write(final TinkerGraph graph, final Kryo kryo, final Output output) {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeLong(Math.max(graph.currentId.get(), graph.maxSuppliedId.get()));
+
+        final Map<String, Object> variables = null == graph.variables ? new HashMap<>() : graph.variables.asMap();
+        output.writeInt(variables.size(), true);
+        for (final Map.Entry<String, Object> variable : variables.entrySet()) {
+            output.writeString(variable.getKey());
+            kryo.writeClassAndObject(output, variable.getValue());
+        }
+
+        output.writeInt(graph.vertices.size(), true);
+        for (final Vertex vertex : graph.vertices.values()) {
+            kryo.writeClassAndObject(output, vertex.id());
+            output.writeString(vertex.label());
+            final Map<String, List<VertexProperty>> properties = ((TinkerVertex) vertex).properties;
+            int size = 0;
+            if (null != properties) {
+                for (final List<VertexProperty> list : properties.values()) {
+                    size = size + list.size();
+                }
+            }
+            output.writeInt(size, true);
+            if (null != properties) {
+                for (final List<VertexProperty> list : properties.values()) {
+                    for (final VertexProperty vertexProperty : list) {
+                        kryo.writeClassAndObject(output, vertexProperty.id());
+                        output.writeString(vertexProperty.key());
+                        kryo.writeClassAndObject(output, vertexProperty.value());
+                        writeProperties(kryo, output, ((TinkerVertexProperty) vertexProperty).properties);
+                    }
+                }
+            }
+        }
+
+        output.writeInt(graph.edges.size(), true);
+        for (final Edge edge : graph.edges.values()) {
+            kryo.writeClassAndObject(output, edge.id());
+            output.writeString(edge.label());
+            kryo.writeClassAndObject(output, ((TinkerEdge) edge).outVertex.id());
+            kryo.writeClassAndObject(output, ((TinkerEdge) edge).inVertex.id());
+            writeProperties(kryo, output, ((TinkerEdge) edge).properties);
+        }
+
+        writeIndex(kryo, output, graph.vertexIndex);
+        writeIndex(kryo, output, graph.edgeIndex);
+    }
+
+    private static void writeProperties(final Kryo kryo, final Output output, final Map<String, Property> properties) {
+        output.writeInt(null == properties ? 0 : properties.size(), true);
+        if (null != properties) {
+            for (final Property property : properties.values()) {
+                output.writeString(property.key());
+                kryo.writeClassAndObject(output, property.value());
+            }
+        }
+    }
+
+    private static void writeIndex(final Kryo kryo, final Output output, final TinkerIndex<?> index) {
+        output.writeBoolean(null != index);
+        if (null == index) return;
+
+        final Set<String> keys = index.getIndexedKeys();
+        output.writeInt(keys.size(), true);
+        for (final String key : keys) {
+            output.writeString(key);
+            output.writeString(index.getIndexType(key).name());
+            final Map<Object, ? extends Set<? extends Element>> keyMap = index.index.getOrDefault(key, new HashMap<>());
+            output.writeInt(keyMap.size(), true);
+            for (final Map.Entry<Object, ? extends Set<? extends Element>> bucket : keyMap.entrySet()) {
+                kryo.writeClassAndObject(output, bucket.getKey());
+                writeIds(kryo, output, bucket.getValue());
+            }
+        }
+
+        final Set<List<String>> compositeKeys = index.getCompositeIndexKeys();
+        output.writeInt(compositeKeys.size(), true);
+        for (final List<String> composite : compositeKeys) {
+            output.writeInt(composite.size(), true);
+            composite.forEach(output::writeString);
+            final Map<List<Object>, ? extends Set<? extends Element>> tuples = index.getTuples(composite);
+            output.writeInt(tuples.size(), true);
+            for (final Map.Entry<List<Object>, ? extends Set<? extends Element>> bucket : tuples.entrySet()) {
+                output.writeInt(bucket.getKey().size(), true);
+                for (final Object value : bucket.getKey()) {
+                    kryo.writeClassAndObject(output, value);
+                }
+                writeIds(kryo, output, bucket.getValue());
+            }
+        }
+    }
+
+    private static void writeIds(final Kryo kryo, final Output output, final Set<? extends Element> elements) {
+        // a bucket may change while it is written, so its size is only known afterwards
+        final List<Object> ids = new ArrayList<>(elements.size());
+        elements.forEach(element -> ids.add(element.id()));
+        output.writeInt(ids.size(), true);
+        for (final Object id : ids) {
+            kryo.writeClassAndObject(output, id);
+        }
+    }
+
+    private static void read(final TinkerGraph graph, final Kryo kryo, final Input input) throws IOException {
+        if (input.readInt() != MAGIC)
+            throw new IOException("The file is not a TinkerGraph snapshot");
+        final int version = input.readInt();
+        if (version != VERSION)
+            throw new IOException("The TinkerGraph snapshot version " + version + " is not supported");
+        graph.currentId.set(input.readLong());
+
+        final int variableCount = input.readInt(true);
+        for (int i = 0; i < variableCount; i++) {
+            graph.variables().set(input.readString(), kryo.readClassAndObject(input));
+        }
+
+        final int vertexCount = input.readInt(true);
+        for (int i = 0; i < vertexCount; i++) {
+            final TinkerVertex vertex = new TinkerVertex(kryo.readClassAndObject(input), input.readString(), graph);
+            final int size = input.readInt(true);
+            if (size > 0) vertex.properties = new HashMap<>();
+            for (int j = 0; j < size; j++) {
+                final Object id = kryo.readClassAndObject(input);
+                final String key = input.readString();
+                final TinkerVertexProperty<Object> vertexProperty = new TinkerVertexProperty<>(id, vertex, key, kryo.readClassAndObject(input));
+                final int metaSize = input.readInt(true);
+                for (int k = 0; k < metaSize; k++) {
+                    vertexProperty.property(input.readString(), kryo.readClassAndObject(input));
+                }
+                vertex.properties.computeIfAbsent(key, k -> new ArrayList<>()).add(vertexProperty);
+            }
+            graph.vertices.put(vertex.id(), vertex);
+            graph.statistics.addElement(vertex);
+            TinkerHelper.autoUpdateIndex(vertex, T.label.getAccessor(), vertex.label(), null);
+        }
+
+        final int edgeCount = input.readInt(true);
+        for (int i = 0; i < edgeCount; i++) {
+            final Object id = kryo.readClassAndObject(input);
+            final String label = input.readString();
+            final TinkerVertex outVertex = (TinkerVertex) graph.vertices.get(kryo.readClassAndObject(input));
+            final TinkerVertex inVertex = (TinkerVertex) graph.vertices.get(kryo.readClassAndObject(input));
+            final int size = input.readInt(true);
+            // an edge whose vertex is missing is dropped, as its replay would be, rather than left dangling
+            if (null == outVertex || null == inVertex) {
+                for (int j = 0; j < size; j++) {
+                    input.readString();
+                    kryo.readClassAndObject(input);
+                }
+                continue;
+            }
+            final TinkerEdge edge = new TinkerEdge(id, outVertex, label, inVertex);
+            if (size > 0) edge.properties = new HashMap<>();
+            for (int j = 0; j < size; j++) {
+                final String key = input.readString();
+                edge.properties.put(key, new TinkerProperty<>(edge, key, kryo.readClassAndObject(input)));
+            }
+            graph.edges.put(edge.id(), edge);
+            graph.statistics.addElement(edge);
+            TinkerHelper.addOutEdge(outVertex, edge);
+            TinkerHelper.addInEdge(inVertex, edge);
+        }
+
+        if (input.readBoolean()) {
+            graph.vertexIndex = new TinkerIndex<>(graph, TinkerVertex.class);
+            readIndex(kryo, input, graph.vertexIndex, (Map) graph.vertices);
+        }
+        if (input.readBoolean()) {
+            graph.edgeIndex = new TinkerIndex<>(graph, TinkerEdge.class);
+            readIndex(kryo, input, graph.edgeIndex, (Map) graph.edges);
+        }
+    }
+
+    private static <T extends Element> void readIndex(final Kryo kryo, final Input input, final TinkerIndex<T> index, final Map<Object, T> elements) {
+        final int keyCount = input.readInt(true);
+        for (int i = 0; i < keyCount; i++) {
+            final String key = input.readString();
+            index.restoreKeyIndex(key, TinkerGraph.IndexType.valueOf(input.readString()));
+            final int bucketCount = input.readInt(true);
+            for (int j = 0; j < bucketCount; j++) {
+                final Object value = kryo.readClassAndObject(input);
+                final Iterator<T> bucket = readElements(kryo, input, elements);
+                while (bucket.hasNext()) {
+                    index.put(key, value, bucket.next());
+                }
+            }
+        }
+
+        final int compositeCount = input.readInt(true);
+        for (int i = 0; i < compositeCount; i++) {
+            final int keySize = input.readInt(true);
+            final List<String> keys = new ArrayList<>(keySize);
+            for (int j = 0; j < keySize; j++) {
+                keys.add(input.readString());
+            }
+            index.restoreCompositeIndex(keys);
+            final int tupleCount = input.readInt(true);
+            for (int j = 0; j < tupleCount; j++) {
+                final int tupleSize = input.readInt(true);
+                final List<Object> tuple = new ArrayList<>(tupleSize);
+                for (int k = 0; k < tupleSize; k++) {
+                    tuple.add(kryo.readClassAndObject(input));
+                }
+                final Iterator<T> bucket = readElements(kryo, input, elements);
+                while (bucket.hasNext()) {
+                    index.restoreTuple(keys, tuple, bucket.next());
+                }
+            }
+        }
+    }
+
+    private static <T extends Element> Iterator<T> readElements(final Kryo kryo, final Input input, final Map<Object, T> elements) {
+        final int size = input.readInt(true);
+        final List<T> bucket = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final T element = elements.get(kryo.readClassAndObject(input));
+            if (null != element) bucket.add(element);
+        }
+        return bucket.iterator();
+    }
+}
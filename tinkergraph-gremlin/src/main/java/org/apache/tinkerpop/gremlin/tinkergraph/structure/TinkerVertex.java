@@ -44,8 +44,11 @@ import java.util.stream.Collectors;
 public class TinkerVertex extends TinkerElement implements Vertex {
 
     protected Map<String, List<VertexProperty>> properties;
-    protected Map<String, Set<Edge>> outEdges;
-    protected Map<String, Set<Edge>> inEdges;
+    protected TinkerAdjacency outEdges;
+    protected TinkerAdjacency inEdges;
+    protected TinkerVertexCentricIndex outEdgeIndex;
+    protected TinkerVertexCentricIndex inEdgeIndex;
+    protected int slot = -1;
     private final TinkerGraph graph;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
@@ -63,7 +66,7 @@ public class TinkerVertex extends TinkerElement implements Vertex {
         if (this.removed) throw Element.Exceptions.elementAlreadyRemoved(Vertex.class, this.id);
 
         if (TinkerHelper.inComputerMode(this.graph)) {
-            final List<VertexProperty> list = (List) this.graph.graphView.getProperty(this, key);
+            final List<VertexProperty> list = this.graph.graphView.getProperty(this, key);
             if (list.size() == 0)
                 return VertexProperty.<V>empty();
             else if (list.size() == 1)
@@ -88,24 +91,31 @@ public class TinkerVertex extends TinkerElement implements Vertex {
         ElementHelper.legalPropertyKeyValueArray(keyValues);
         ElementHelper.validateProperty(key, value);
         final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
-        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
-        if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
-
         if (TinkerHelper.inComputerMode(this.graph)) {
-            VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphView.addProperty(this, key, value);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
+            final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+            if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+            return this.graph.graphView.addProperty(this, key, value, keyValues);
         } else {
-            final VertexProperty<V> vertexProperty = optionalId.isPresent() ?
-                    new TinkerVertexProperty<V>(optionalId.get(), this, key, value) :
-                    new TinkerVertexProperty<V>(this, key, value);
-            if (null == this.properties) this.properties = new HashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
-            list.add(vertexProperty);
-            this.properties.put(key, list);
-            TinkerHelper.autoUpdateIndex(this, key, value, null);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
+            // the properties a single cardinality replaces are removed under the same lock that adds the new one
+            final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this.graph);
+            try {
+                final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+                if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+                optionalId.ifPresent(id -> this.graph.idManager.observeId(this.graph, id));
+                final VertexProperty<V> vertexProperty = optionalId.isPresent() ?
+                        new TinkerVertexProperty<V>(optionalId.get(), this, key, value) :
+                        new TinkerVertexProperty<V>(this, key, value);
+                if (null == this.properties) this.properties = new HashMap<>();
+                final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
+                list.add(vertexProperty);
+                this.properties.put(key, list);
+                TinkerHelper.autoUpdateIndex(this, key, value, null);
+                TinkerHelper.logMutation(this.graph, TinkerWriteAheadLog.Mutation.ADD_VERTEX_PROPERTY, this.id, vertexProperty.id(), key, value);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            } finally {
+                TinkerHelper.unlockMutations(writeAheadLog);
+            }
         }
     }
 
@@ -127,13 +137,20 @@ public class TinkerVertex extends TinkerElement implements Vertex {
     @Override
     public void remove() {
         if (this.removed) throw Element.Exceptions.elementAlreadyRemoved(Vertex.class, this.id);
-        final List<Edge> edges = new ArrayList<>();
-        this.edges(Direction.BOTH).forEachRemaining(edges::add);
-        edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        this.properties = null;
-        TinkerHelper.removeElementIndex(this);
-        this.graph.vertices.remove(this.id);
-        this.removed = true;
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations(this.graph);
+        try {
+            final List<Edge> edges = new ArrayList<>();
+            this.edges(Direction.BOTH).forEachRemaining(edges::add);
+            edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
+            this.properties = null;
+            this.graph.vertices.remove(this.id);
+            TinkerHelper.removeElementIndex(this);
+            this.graph.statistics.removeElement(this);
+            this.removed = true;
+            TinkerHelper.logMutation(this.graph, TinkerWriteAheadLog.Mutation.REMOVE_VERTEX, this.id);
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
     }
 
     @Override
@@ -154,7 +171,7 @@ public class TinkerVertex extends TinkerElement implements Vertex {
     @Override
     public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
         if (TinkerHelper.inComputerMode((TinkerGraph) graph()))
-            return (Iterator) ((TinkerGraph) graph()).graphView.getProperties(TinkerVertex.this).stream().filter(p -> ElementHelper.keyExists(p.key(), propertyKeys)).iterator();
+            return (Iterator) ((TinkerGraph) graph()).graphView.getProperties(TinkerVertex.this, propertyKeys).iterator();
         else {
             if (null == this.properties) return Collections.emptyIterator();
             if (propertyKeys.length == 1) {
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The incident edges of one direction of a {@link TinkerVertex} by the values of the vertex-centric index keys of
+ * the graph (see {@link TinkerGraph#CONFIG_VERTEX_CENTRIC_INDEX_KEYS}). The values are kept in
+ * {@link TinkerIndex#SORTED_ORDER}, so equality, {@code within()} and range predicates on the keys are answered
+ * from the index rather than by scanning every edge of the vertex. Writers lock the index, readers never do.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerVertexCentricIndex {
+
+    private final Map<String, NavigableMap<Object, Set<TinkerEdge>>> index = new ConcurrentHashMap<>();
+
+    synchronized void put(final String key, final Object value, final TinkerEdge edge) {
+        this.index.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>(TinkerIndex.SORTED_ORDER))
+                .computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(edge);
+    }
+
+    synchronized void remove(final String key, final Object value, final TinkerEdge edge) {
+        final NavigableMap<Object, Set<TinkerEdge>> keyMap = this.index.get(key);
+        if (null != keyMap) {
+            final Set<TinkerEdge> edges = keyMap.get(value);
+            if (null != edges) {
+                edges.remove(edge);
+                if (edges.isEmpty())
+                    keyMap.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Answer the containers from the index of the vertex using the most selective container on an indexed key. The
+     * returned edges are a superset of the matches and must still be filtered by all the containers.
+     *
+     * @param index         the index of the vertex or {@code null} if none of its edges has an indexed key
+     * @param indexedKeys   the vertex-centric index keys of the graph
+     * @param hasContainers the containers of the edges
+     * @return the candidate edges or {@code null} if no container can be answered by the index
+     */
+    static List<TinkerEdge> lookup(final TinkerVertexCentricIndex index, final Set<String> indexedKeys, final List<HasContainer> hasContainers) {
+        List<Set<TinkerEdge>> best = null;
+        long bestCount = Long.MAX_VALUE;
+        // the ranges go last, so that they are only walked for as long as they beat the other containers
+        for (final boolean ranges : new boolean[]{false, true}) {
+            for (final HasContainer hasContainer : hasContainers) {
+                if (!indexedKeys.contains(hasContainer.key) || ranges != TinkerIndex.isRange(hasContainer))
+                    continue;
+                final NavigableMap<Object, Set<TinkerEdge>> keyMap = null == index ? null : index.index.get(hasContainer.key);
+                final List<Set<TinkerEdge>> buckets = TinkerIndex.buckets(null == keyMap ? Collections.<Object, Set<TinkerEdge>>emptyNavigableMap() : keyMap, hasContainer, bestCount);
+                final long count = TinkerIndex.count(buckets);
+                if (count < bestCount) {
+                    best = buckets;
+                    bestCount = count;
+                }
+            }
+        }
+        if (null == best)
+            return null;
+        else if (best.size() == 1)
+            return new ArrayList<>(best.get(0));
+        else {
+            final Set<TinkerEdge> edges = new LinkedHashSet<>();
+            best.forEach(edges::addAll);
+            return new ArrayList<>(edges);
+        }
+    }
+}
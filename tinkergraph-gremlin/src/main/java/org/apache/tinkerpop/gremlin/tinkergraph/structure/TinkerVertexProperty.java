@@ -29,6 +29,7 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -45,7 +46,7 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     private final V value;
 
     public TinkerVertexProperty(final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(TinkerHelper.getNextId((TinkerGraph) vertex.graph()), key);
+        super(((TinkerGraph) vertex.graph()).idManager.getNextId((TinkerGraph) vertex.graph()), key);
         this.vertex = vertex;
         this.key = key;
         this.value = value;
@@ -106,10 +107,17 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public <U> Property<U> property(final String key, final U value) {
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
-        return property;
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations((TinkerGraph) this.vertex.graph());
+        try {
+            final Property<U> property = new TinkerProperty<>(this, key, value);
+            if (this.properties == null) this.properties = new HashMap<>();
+            this.properties.put(key, property);
+            if (this.isAttached())
+                TinkerHelper.logMutation((TinkerGraph) this.vertex.graph(), TinkerWriteAheadLog.Mutation.SET_META_PROPERTY, this.vertex.id(), this.key, this.id, key, value);
+            return property;
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
     }
 
     @Override
@@ -119,21 +127,41 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
-                TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+        final TinkerWriteAheadLog writeAheadLog = TinkerHelper.lockMutations((TinkerGraph) this.vertex.graph());
+        try {
+            if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+                this.vertex.properties.get(this.key).remove(this);
+                if (this.vertex.properties.get(this.key).size() == 0) {
+                    this.vertex.properties.remove(this.key);
+                    TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                }
+                final AtomicBoolean delete = new AtomicBoolean(true);
+                this.vertex.properties(this.key).forEachRemaining(property -> {
+                    if (property.value().equals(this.value))
+                        delete.set(false);
+                });
+                if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                this.properties = null;
+                this.removed = true;
+                TinkerHelper.logMutation((TinkerGraph) this.vertex.graph(), TinkerWriteAheadLog.Mutation.REMOVE_VERTEX_PROPERTY, this.vertex.id(), this.key, this.id);
             }
-            final AtomicBoolean delete = new AtomicBoolean(true);
-            this.vertex.properties(this.key).forEachRemaining(property -> {
-                if (property.value().equals(this.value))
-                    delete.set(false);
-            });
-            if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
-            this.properties = null;
-            this.removed = true;
+        } finally {
+            TinkerHelper.unlockMutations(writeAheadLog);
+        }
+    }
+
+    /**
+     * Determine if this property is one of the properties of its vertex, rather than one being constructed or one
+     * materialized by a graph computer.
+     */
+    protected boolean isAttached() {
+        if (null == this.vertex.properties) return false;
+        final List<VertexProperty> list = this.vertex.properties.get(this.key);
+        if (null == list) return false;
+        for (final VertexProperty vertexProperty : list) {
+            if (vertexProperty == this) return true;
         }
+        return false;
     }
 
     @Override
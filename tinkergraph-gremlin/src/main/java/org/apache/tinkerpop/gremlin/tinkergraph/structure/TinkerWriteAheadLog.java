@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.process.traversal.T;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of the mutations of a {@link TinkerGraph} since its last snapshot. A mutation is applied in
+ * memory and logged while it holds the lock of the log, which {@link TinkerHelper#lockMutations(TinkerGraph)} takes,
+ * so the log has the mutations in the order they were applied and every prefix of it describes a state the graph was
+ * actually in. Records are buffered and forced to disk as a group, once {@link TinkerGraph#CONFIG_WAL_SYNC_RECORDS}
+ * records are pending or every {@link TinkerGraph#CONFIG_WAL_SYNC_MILLIS}, whichever comes first.
+ * <p/>
+ * Once {@link TinkerGraph#CONFIG_WAL_COMPACTION_RECORDS} records have been logged the log is compacted by the thread
+ * that logged the last of them: it is rotated aside, a new snapshot is written and the rotated log is deleted. The
+ * lock of the log is held throughout, so the other writers wait for the snapshot and it never sees a mutation that is
+ * only partially applied.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerWriteAheadLog {
+
+    enum Mutation {
+        ADD_VERTEX, REMOVE_VERTEX, ADD_VERTEX_PROPERTY, REMOVE_VERTEX_PROPERTY, SET_META_PROPERTY, REMOVE_META_PROPERTY,
+        ADD_EDGE, REMOVE_EDGE, SET_EDGE_PROPERTY, REMOVE_EDGE_PROPERTY, SET_VARIABLE, REMOVE_VARIABLE,
+        CREATE_INDEX, DROP_INDEX, CREATE_COMPOSITE_INDEX, DROP_COMPOSITE_INDEX, CLEAR
+    }
+
+    private static final Mutation[] MUTATIONS = Mutation.values();
+    private static final int HEADER_SIZE = 8;
+    private static final String LOG_SUFFIX = ".wal";
+    private static final String COMPACTING_LOG_SUFFIX = ".wal.compacting";
+
+    private final TinkerGraph graph;
+    private final Path location;
+    private final Path compactingLocation;
+    private final int syncRecords;
+    private final int compactionRecords;
+    private final Kryo kryo = GryoMapper.build().create().createMapper();
+    private final Output record = new Output(256, -1);
+    private final CRC32 checksum = new CRC32();
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private final ScheduledExecutorService syncer;
+
+    private FileChannel channel;
+    private int pendingRecords = 0;
+    private int loggedRecords = 0;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    TinkerWriteAheadLog(final TinkerGraph graph, final Path snapshotLocation, final int syncRecords, final long syncMillis, final int compactionRecords) throws IOException {
+        this.graph = graph;
+        this.location = location(snapshotLocation, LOG_SUFFIX);
+        this.compactingLocation = location(snapshotLocation, COMPACTING_LOG_SUFFIX);
+        this.syncRecords = syncRecords;
+        this.compactionRecords = compactionRecords;
+        this.channel = FileChannel.open(this.location, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "tinkergraph-wal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.syncer.scheduleWithFixedDelay(() -> {
+            try {
+                this.sync();
+            } catch (final IOException e) {
+                // the next append or close() syncs again and reports the failure to the caller
+            }
+        }, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Take the lock under which a mutation is applied and logged. The lock is reentrant, so a mutation may apply
+     * others (e.g. the removal of a vertex removes its edges).
+     */
+    void lock() {
+        this.lock.lock();
+    }
+
+    void unlock() {
+        this.lock.unlock();
+    }
+
+    /**
+     * Log the mutation and compact the log once it has grown past its compaction threshold. The caller holds the lock
+     * of the log.
+     */
+    public void append(final Mutation mutation, final Object... fields) {
+        synchronized (this) {
+            this.record.clear();
+            this.record.writeByte(mutation.ordinal());
+            for (final Object field : fields) {
+                this.kryo.writeClassAndObject(this.record, field);
+            }
+            this.checksum.reset();
+            this.checksum.update(this.record.getBuffer(), 0, this.record.position());
+            this.header.clear();
+            this.header.putInt(this.record.position()).putInt((int) this.checksum.getValue()).flip();
+            try {
+                write(this.channel, this.header);
+                write(this.channel, ByteBuffer.wrap(this.record.getBuffer(), 0, this.record.position()));
+                if (++this.pendingRecords >= this.syncRecords)
+                    this.sync();
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not append to the write-ahead log " + this.location + ": " + e.getMessage(), e);
+            }
+        }
+        if (++this.loggedRecords >= this.compactionRecords) {
+            try {
+                this.compact();
+            } catch (final IOException e) {
+                throw new IllegalStateException("Could not compact the write-ahead log " + this.location + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    public synchronized void sync() throws IOException {
+        if (this.pendingRecords > 0 && this.channel.isOpen()) {
+            this.channel.force(false);
+            this.pendingRecords = 0;
+        }
+    }
+
+    /**
+     * Rotate the log aside, snapshot the graph and drop the rotated log, which the snapshot now covers.
+     */
+    private void compact() throws IOException {
+        this.loggedRecords = 0;
+        synchronized (this) {
+            // a rotated log left by a failed compaction is not yet covered by a snapshot and must not be replaced
+            if (!Files.exists(this.compactingLocation)) {
+                this.sync();
+                this.channel.close();
+                Files.move(this.location, this.compactingLocation, StandardCopyOption.ATOMIC_MOVE);
+                this.channel = FileChannel.open(this.location, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+        }
+        TinkerSnapshot.write(this.graph, this.graph.graphLocation);
+        Files.deleteIfExists(this.compactingLocation);
+    }
+
+    /**
+     * Close the log once the graph has been written to a snapshot, which makes its records obsolete.
+     */
+    public void close() throws IOException {
+        this.syncer.shutdownNow();
+        synchronized (this) {
+            this.channel.close();
+            Files.deleteIfExists(this.location);
+            Files.deleteIfExists(this.compactingLocation);
+        }
+    }
+
+    /**
+     * Delete the logs of the snapshot once a snapshot covering all of their records has been written.
+     */
+    static void delete(final Path snapshotLocation) throws IOException {
+        Files.deleteIfExists(location(snapshotLocation, LOG_SUFFIX));
+        Files.deleteIfExists(location(snapshotLocation, COMPACTING_LOG_SUFFIX));
+    }
+
+    private static Path location(final Path snapshotLocation, final String suffix) {
+        return snapshotLocation.resolveSibling(snapshotLocation.getFileName() + suffix);
+    }
+
+    private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Apply the logs left behind after the last snapshot, the one rotated aside by an unfinished compaction first.
+     * A record torn by a crash ends the replay of its log.
+     *
+     * @return the number of records replayed
+     */
+    static long replay(final TinkerGraph graph, final Path snapshotLocation) throws IOException {
+        final Kryo kryo = GryoMapper.build().create().createMapper();
+        long records = 0;
+        for (final String suffix : new String[]{COMPACTING_LOG_SUFFIX, LOG_SUFFIX}) {
+            final Path log = location(snapshotLocation, suffix);
+            if (Files.exists(log))
+                records = records + replay(graph, kryo, log);
+        }
+        return records;
+    }
+
+    private static long replay(final TinkerGraph graph, final Kryo kryo, final Path log) throws IOException {
+        long records = 0;
+        try (final FileChannel channel = FileChannel.open(log, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            final CRC32 checksum = new CRC32();
+            while (true) {
+                header.clear();
+                if (!read(channel, header)) break;
+                header.flip();
+                final int length = header.getInt();
+                final int crc = header.getInt();
+                if (length <= 0 || length > channel.size() - channel.position()) break;
+                final ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!read(channel, payload)) break;
+                checksum.reset();
+                checksum.update(payload.array(), 0, length);
+                if ((int) checksum.getValue() != crc) break;
+                apply(graph, kryo, new Input(payload.array(), 0, length));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private static boolean read(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) return false;
+        }
+        return true;
+    }
+
+    private static void apply(final TinkerGraph graph, final Kryo kryo, final Input input) {
+        final Mutation mutation = MUTATIONS[input.readByte()];
+        switch (mutation) {
+            case ADD_VERTEX: {
+                final Object id = read(kryo, input, graph);
+                final String label = (String) kryo.readClassAndObject(input);
+                if (!graph.vertices.containsKey(id))
+                    graph.addVertex(T.id, id, T.label, label);
+                break;
+            }
+            case REMOVE_VERTEX: {
+                final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                if (null != vertex) vertex.remove();
+                break;
+            }
+            case ADD_VERTEX_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                final Object id = read(kryo, input, graph);
+                final String key = (String) kryo.readClassAndObject(input);
+                final Object value = kryo.readClassAndObject(input);
+                if (null != vertex && null == vertexProperty(vertex, key, id))
+                    vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+                break;
+            }
+            case REMOVE_VERTEX_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                final String key = (String) kryo.readClassAndObject(input);
+                final VertexProperty vertexProperty = null == vertex ? null : vertexProperty(vertex, key, kryo.readClassAndObject(input));
+                if (null != vertexProperty) vertexProperty.remove();
+                break;
+            }
+            case SET_META_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                final String key = (String) kryo.readClassAndObject(input);
+                final VertexProperty vertexProperty = null == vertex ? null : vertexProperty(vertex, key, kryo.readClassAndObject(input));
+                if (null != vertexProperty)
+                    vertexProperty.property((String) kryo.readClassAndObject(input), kryo.readClassAndObject(input));
+                break;
+            }
+            case REMOVE_META_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                final String key = (String) kryo.readClassAndObject(input);
+                final VertexProperty vertexProperty = null == vertex ? null : vertexProperty(vertex, key, kryo.readClassAndObject(input));
+                if (null != vertexProperty) {
+                    final Property property = vertexProperty.property((String) kryo.readClassAndObject(input));
+                    if (property.isPresent()) property.remove();
+                }
+                break;
+            }
+            case ADD_EDGE: {
+                final Object id = read(kryo, input, graph);
+                final String label = (String) kryo.readClassAndObject(input);
+                final Vertex outVertex = graph.vertices.get(kryo.readClassAndObject(input));
+                final Vertex inVertex = graph.vertices.get(kryo.readClassAndObject(input));
+                final Map<String, Object> properties = (Map<String, Object>) kryo.readClassAndObject(input);
+                if (!graph.edges.containsKey(id) && null != outVertex && null != inVertex) {
+                    final List<Object> keyValues = new ArrayList<>();
+                    keyValues.add(T.id);
+                    keyValues.add(id);
+                    properties.forEach((key, value) -> {
+                        keyValues.add(key);
+                        keyValues.add(value);
+                    });
+                    outVertex.addEdge(label, inVertex, keyValues.toArray());
+                }
+                break;
+            }
+            case REMOVE_EDGE: {
+                final Edge edge = graph.edges.get(kryo.readClassAndObject(input));
+                if (null != edge) edge.remove();
+                break;
+            }
+            case SET_EDGE_PROPERTY: {
+                final Edge edge = graph.edges.get(kryo.readClassAndObject(input));
+                final String key = (String) kryo.readClassAndObject(input);
+                final Object value = kryo.readClassAndObject(input);
+                if (null != edge) edge.property(key, value);
+                break;
+            }
+            case REMOVE_EDGE_PROPERTY: {
+                final Edge edge = graph.edges.get(kryo.readClassAndObject(input));
+                final String key = (String) kryo.readClassAndObject(input);
+                if (null != edge && edge.property(key).isPresent()) edge.property(key).remove();
+                break;
+            }
+            case SET_VARIABLE:
+                graph.variables().set((String) kryo.readClassAndObject(input), kryo.readClassAndObject(input));
+                break;
+            case REMOVE_VARIABLE:
+                graph.variables().remove((String) kryo.readClassAndObject(input));
+                break;
+            case CREATE_INDEX: {
+                final Class elementClass = (Boolean) kryo.readClassAndObject(input) ? Vertex.class : Edge.class;
+                final String key = (String) kryo.readClassAndObject(input);
+                final TinkerGraph.IndexType indexType = TinkerGraph.IndexType.valueOf((String) kryo.readClassAndObject(input));
+                if (!graph.getIndexedKeys(elementClass).contains(key))
+                    graph.createIndex(key, elementClass, indexType);
+                break;
+            }
+            case DROP_INDEX: {
+                final String key = (String) kryo.readClassAndObject(input);
+                final Class elementClass = (Boolean) kryo.readClassAndObject(input) ? Vertex.class : Edge.class;
+                graph.dropIndex(key, elementClass);
+                break;
+            }
+            case CREATE_COMPOSITE_INDEX: {
+                final Class elementClass = (Boolean) kryo.readClassAndObject(input) ? Vertex.class : Edge.class;
+                final List<String> keys = (List<String>) kryo.readClassAndObject(input);
+                if (!graph.getCompositeIndexKeys(elementClass).contains(keys))
+                    graph.createCompositeIndex(elementClass, keys.toArray(new String[keys.size()]));
+                break;
+            }
+            case DROP_COMPOSITE_INDEX: {
+                final Class elementClass = (Boolean) kryo.readClassAndObject(input) ? Vertex.class : Edge.class;
+                final List<String> keys = (List<String>) kryo.readClassAndObject(input);
+                graph.dropCompositeIndex(elementClass, keys.toArray(new String[keys.size()]));
+                break;
+            }
+            case CLEAR:
+                graph.clear();
+                break;
+        }
+    }
+
+    /**
+     * Read an element id and keep the id manager of the graph from generating it.
+     */
+    private static Object read(final Kryo kryo, final Input input, final TinkerGraph graph) {
+        final Object id = kryo.readClassAndObject(input);
+        graph.idManager.observeId(graph, id);
+        return id;
+    }
+
+    private static VertexProperty vertexProperty(final Vertex vertex, final String key, final Object id) {
+        final Iterator<VertexProperty<Object>> properties = vertex.properties(key);
+        while (properties.hasNext()) {
+            final VertexProperty<Object> vertexProperty = properties.next();
+            if (vertexProperty.id().equals(id))
+                return vertexProperty;
+        }
+        return null;
+    }
+
+    static Map<String, Object> properties(final TinkerEdge edge) {
+        final Map<String, Object> properties = new HashMap<>();
+        if (null != edge.properties)
+            edge.properties.forEach((key, property) -> properties.put(key, property.value()));
+        return properties;
+    }
+}
@@ -18,15 +18,47 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
 import org.apache.commons.io.FileUtils;
 import org.apache.tinkerpop.gremlin.AbstractGremlinTest;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraverserExecutor;
+import org.apache.tinkerpop.gremlin.process.traversal.Path;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.T;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.ComputerTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.engine.ParallelTraversalEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ParallelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.BatchExecutionStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.LazyBarrierStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.OrderLimitStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMatrix;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
+import org.apache.tinkerpop.gremlin.structure.Compare;
+import org.apache.tinkerpop.gremlin.structure.Contains;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Operator;
+import org.apache.tinkerpop.gremlin.structure.Order;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
@@ -35,7 +67,10 @@ import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONMapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.structure.util.GraphStatistics;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.util.StreamFactory;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -45,14 +80,36 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -142,6 +199,33 @@ public class TinkerGraphTest {
         });
     }
 
+    @Test
+    @Ignore
+    public void benchmarkGraphComputerScaling() throws Exception {
+        final int numberOfVertices = Integer.getInteger("benchmark.vertices", 1000000);
+        final int numberOfEdges = Integer.getInteger("benchmark.edges", 10000000);
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(42l);
+        final Vertex[] vertices = new Vertex[numberOfVertices];
+        for (int i = 0; i < numberOfVertices; i++) {
+            vertices[i] = graph.addVertex();
+        }
+        for (int i = 0; i < numberOfEdges; i++) {
+            vertices[random.nextInt(numberOfVertices)].addEdge("link", vertices[random.nextInt(numberOfVertices)]);
+        }
+        System.out.println("\nTESTING: PageRankVertexProgram over " + graph);
+        for (int workers = 1; workers <= Runtime.getRuntime().availableProcessors(); workers = workers * 2) {
+            System.out.print("\n   workers=" + workers + ":");
+            for (int i = 0; i < 3; i++) {
+                final long t = System.currentTimeMillis();
+                final ComputerResult result = graph.compute(TinkerGraphComputer.class).workers(workers)
+                        .program(PageRankVertexProgram.build().iterations(10).vertexCount(numberOfVertices).create()).submit().get();
+                System.out.print("   " + (System.currentTimeMillis() - t));
+                result.close();
+            }
+        }
+    }
+
     @Test
     @Ignore
     public void testPlay3() throws Exception {
@@ -397,6 +481,192 @@ public class TinkerGraphTest {
         os.close();
     }
 
+    @Test
+    public void shouldPersistToSnapshotOnClose() throws Exception {
+        final File location = new File(tempPath + "tinkerpop-crew.tgs");
+        if (location.exists()) location.delete();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_GRAPH_LOCATION, location.getAbsolutePath());
+
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        assertTrue(graph.features().graph().supportsPersistence());
+        TinkerFactory.generateTheCrew(graph);
+        graph.createIndex("name", Vertex.class);
+        graph.createIndex("startTime", Vertex.class, TinkerGraph.IndexType.SORTED);
+        graph.createCompositeIndex(Edge.class, T.label.getAccessor(), "since");
+        graph.close();
+        assertTrue(location.exists());
+
+        final TinkerGraph reloaded = TinkerGraph.open(conf);
+        final TinkerGraph expected = TinkerFactory.createTheCrew();
+        assertEquals(IteratorUtils.count(expected.vertices()), IteratorUtils.count(reloaded.vertices()));
+        assertEquals(IteratorUtils.count(expected.edges()), IteratorUtils.count(reloaded.edges()));
+        assertEquals(expected.variables().asMap(), reloaded.variables().asMap());
+        assertEquals(new HashSet<>(Arrays.asList("name", "startTime")), reloaded.getIndexedKeys(Vertex.class));
+        assertEquals(1, reloaded.getCompositeIndexKeys(Edge.class).size());
+
+        final GraphTraversalSource g = reloaded.traversal();
+        final GraphTraversalSource e = expected.traversal();
+        assertEquals(e.V().has("name", "marko").properties("location").order().by(T.value, Order.incr).value().toList(),
+                g.V().has("name", "marko").properties("location").order().by(T.value, Order.incr).value().toList());
+        assertEquals(e.V().has("name", "marko").properties("location").has("startTime", Compare.gt, 2000).value().toList(),
+                g.V().has("name", "marko").properties("location").has("startTime", Compare.gt, 2000).value().toList());
+        assertEquals(e.V().has("name", "stephen").outE("develops").has(T.label, "develops").has("since", 2010).inV().values("name").toList(),
+                g.V().has("name", "stephen").outE("develops").has(T.label, "develops").has("since", 2010).inV().values("name").toList());
+        assertEquals(e.E().has(T.label, "uses").has("skill", 5).count().next(), g.E().has(T.label, "uses").has("skill", 5).count().next());
+        assertEquals(4, g.V().has("name", Contains.within, Arrays.asList("marko", "stephen", "matthias", "daniel")).count().next().intValue());
+
+        // ids continue from where the snapshot left off
+        final Vertex v = reloaded.addVertex("name", "pieter");
+        assertEquals(1, g.V().has("name", "pieter").count().next().intValue());
+        assertEquals(1, IteratorUtils.count(reloaded.vertices(v.id())));
+        reloaded.close();
+        assertEquals(1, TinkerGraph.open(conf).traversal().V().has("name", "pieter").count().next().intValue());
+    }
+
+    @Test
+    public void shouldReplayWriteAheadLogAfterCrash() throws Exception {
+        final File location = new File(tempPath + "tinkerpop-wal.tgs");
+        if (location.exists()) location.delete();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_GRAPH_LOCATION, location.getAbsolutePath());
+        conf.setProperty(TinkerGraph.CONFIG_WAL, true);
+
+        // the first graph is never closed, so everything it knows is in its log
+        final TinkerGraph crashed = TinkerGraph.open(conf);
+        TinkerFactory.generateTheCrew(crashed);
+        crashed.createIndex("name", Vertex.class);
+        crashed.createCompositeIndex(Edge.class, T.label.getAccessor(), "since");
+        final GraphTraversalSource c = crashed.traversal();
+        c.V().has("name", "daniel").next().remove();
+        c.V().has("name", "marko").next().property("location", "santa cruz", "startTime", 2015);
+        ((VertexProperty) c.V().has("name", "stephen").properties("location").has(T.value, "purcellville").next()).property("endTime", 2015);
+        ((VertexProperty) c.V().has("name", "stephen").properties("location").has(T.value, "centreville").next()).property("endTime").remove();
+        c.E().has(T.label, "uses").has("skill", 3).next().property("skill", 4);
+        c.E().has(T.label, "develops").has("since", 2011).next().remove();
+        crashed.variables().set("comment", "crashed");
+        crashed.variables().remove("creator");
+        assertFalse(location.exists());
+
+        final TinkerGraph recovered = TinkerGraph.open(conf);
+        assertTrue(location.exists());
+        final GraphTraversalSource g = recovered.traversal();
+        assertEquals(IteratorUtils.count(crashed.vertices()), IteratorUtils.count(recovered.vertices()));
+        assertEquals(IteratorUtils.count(crashed.edges()), IteratorUtils.count(recovered.edges()));
+        assertEquals(crashed.variables().asMap(), recovered.variables().asMap());
+        assertEquals(Collections.singleton("name"), recovered.getIndexedKeys(Vertex.class));
+        assertEquals(1, recovered.getCompositeIndexKeys(Edge.class).size());
+        assertEquals(c.V().has("name", "marko").properties("location").value().toSet(),
+                g.V().has("name", "marko").properties("location").value().toSet());
+        assertEquals(c.V().properties("location").has("endTime").count().next(), g.V().properties("location").has("endTime").count().next());
+        assertEquals(c.E().has("skill", 4).count().next(), g.E().has("skill", 4).count().next());
+        assertEquals(0, g.V().has("name", "daniel").count().next().intValue());
+        assertEquals(0, g.E().has(T.label, "develops").has("since", 2011).count().next().intValue());
+        c.V().forEachRemaining(v -> assertEquals(v.label(), g.V(v.id()).next().label()));
+        c.E().forEachRemaining(e -> assertEquals(e.outVertex().id(), g.E(e.id()).next().outVertex().id()));
+
+        // ids keep clear of the replayed elements
+        recovered.addVertex("name", "pieter");
+        recovered.close();
+        assertEquals(1, TinkerGraph.open(conf).traversal().V().has("name", "pieter").count().next().intValue());
+    }
+
+    @Test
+    public void shouldRecoverTheMutationsOfConcurrentWritersWhileTheWriteAheadLogIsCompacted() throws Exception {
+        final File location = new File(tempPath + "tinkerpop-wal-concurrent-compaction.tgs");
+        if (location.exists()) location.delete();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_GRAPH_LOCATION, location.getAbsolutePath());
+        conf.setProperty(TinkerGraph.CONFIG_WAL, true);
+        conf.setProperty(TinkerGraph.CONFIG_WAL_COMPACTION_RECORDS, 200);
+
+        // the first graph is never closed, so everything it knows is in its snapshots and its log
+        final TinkerGraph crashed = TinkerGraph.open(conf);
+        final List<Vertex> added = Collections.synchronizedList(new ArrayList<>());
+        added.add(crashed.addVertex("i", -1));
+        final int threads = 8;
+        final int verticesPerThread = 2500;
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final Random random = new Random(t);
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < verticesPerThread; i++) {
+                    final Vertex vertex = crashed.addVertex("i", i);
+                    // edges to the vertices of the other workers depend on their vertices being logged first
+                    final Vertex other = added.get(random.nextInt(added.size()));
+                    final Edge edge = vertex.addEdge("knows", other, "weight", i);
+                    added.add(vertex);
+                    other.property(VertexProperty.Cardinality.single, "visited", i);
+                    if (random.nextInt(4) == 0) edge.remove();
+                    else edge.property("weight", -i);
+                }
+            });
+            workers[t].start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        crashed.writeAheadLog.sync();
+
+        final TinkerGraph recovered = TinkerGraph.open(conf);
+        assertEquals(1 + threads * verticesPerThread, IteratorUtils.count(recovered.vertices()));
+        assertEquals(crashed.traversal().E().map(e -> Arrays.asList(e.get().id(), e.get().outVertex().id(), e.get().inVertex().id(), e.get().value("weight"))).toSet(),
+                recovered.traversal().E().map(e -> Arrays.asList(e.get().id(), e.get().outVertex().id(), e.get().inVertex().id(), e.get().value("weight"))).toSet());
+        assertEquals(crashed.traversal().V().map(v -> Arrays.asList(v.get().id(), v.get().value("i"), v.get().property("visited").orElse(null))).toSet(),
+                recovered.traversal().V().map(v -> Arrays.asList(v.get().id(), v.get().value("i"), v.get().property("visited").orElse(null))).toSet());
+        recovered.close();
+    }
+
+    @Test
+    public void shouldDropEdgesOfMissingVerticesWhenReadingSnapshot() throws Exception {
+        final File location = new File(tempPath + "tinkerpop-dangling-edge.tgs");
+        if (location.exists()) location.delete();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_GRAPH_LOCATION, location.getAbsolutePath());
+
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.createIndex("weight", Edge.class);
+        final Vertex marko = graph.addVertex(T.id, 1l, "name", "marko");
+        final Vertex vadas = graph.addVertex(T.id, 2l, "name", "vadas");
+        final Vertex josh = graph.addVertex(T.id, 4l, "name", "josh");
+        marko.addEdge("knows", vadas, T.id, 7l, "weight", 0.5d);
+        marko.addEdge("knows", josh, T.id, 8l, "weight", 1.0d);
+        // a snapshot written while a vertex was only partially removed
+        graph.vertices.remove(2l);
+        graph.close();
+
+        final TinkerGraph reopened = TinkerGraph.open(conf);
+        assertEquals(2, IteratorUtils.count(reopened.vertices()));
+        assertEquals(Collections.singletonList(8l), reopened.traversal().E().id().toList());
+        assertEquals(Collections.singletonList(8l), reopened.traversal().V(1l).outE().id().toList());
+        assertEquals(0, reopened.traversal().E().has("weight", 0.5d).count().next().intValue());
+        reopened.close();
+    }
+
+    @Test
+    public void shouldCompactWriteAheadLog() throws Exception {
+        final File location = new File(tempPath + "tinkerpop-wal-compaction.tgs");
+        if (location.exists()) location.delete();
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_GRAPH_LOCATION, location.getAbsolutePath());
+        conf.setProperty(TinkerGraph.CONFIG_WAL, true);
+        conf.setProperty(TinkerGraph.CONFIG_WAL_COMPACTION_RECORDS, 10);
+
+        final TinkerGraph crashed = TinkerGraph.open(conf);
+        for (int i = 0; i < 25; i++) {
+            crashed.addVertex("i", i);
+        }
+        assertTrue(location.exists());
+        final File log = new File(location.getAbsolutePath() + ".wal");
+        assertTrue(log.exists());
+        assertTrue(log.length() < location.length());
+
+        final TinkerGraph recovered = TinkerGraph.open(conf);
+        assertEquals(25, IteratorUtils.count(recovered.vertices()));
+        assertEquals(25, recovered.traversal().V().values("i").dedup().count().next().intValue());
+        recovered.close();
+    }
+
     @Test
     public void shouldManageIndices() {
         final TinkerGraph g = TinkerGraph.open();
@@ -472,6 +742,778 @@ public class TinkerGraphTest {
         g.createIndex("", Edge.class);
     }
 
+    @Test
+    public void shouldAnswerRangeAndWithinQueriesFromSortedIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.SORTED);
+        g.createIndex("name", Vertex.class);
+
+        for (int i = 0; i < 100; i++) {
+            g.addVertex("name", i % 2 == 0 ? "even" : "odd", "age", i);
+        }
+        g.addVertex("name", "even", "age", 1000L);
+
+        // the fake predicate sees only the candidates handed out by the index, so it tracks index selection
+        final Set<Object> seen = new HashSet<>();
+        final BiPredicate<Object, Object> spy = (t, u) -> {
+            seen.add(t);
+            return true;
+        };
+
+        assertEquals(9, g.traversal().V().has("age", spy, 0).has("age", Compare.gt, 90).count().next().intValue());
+        assertEquals(9, seen.size());
+        seen.clear();
+        assertEquals(10, g.traversal().V().has("age", spy, 0).has("age", Compare.lte, 9).count().next().intValue());
+        assertEquals(10, seen.size());
+        seen.clear();
+        assertEquals(4, g.traversal().V().has("age", spy, 0).has("age", Compare.inside, Arrays.asList(10, 15)).count().next().intValue());
+        assertEquals(4, seen.size());
+        seen.clear();
+        assertEquals(3, g.traversal().V().has("age", spy, 0).has("age", Contains.within, Arrays.asList(1, 2, 3, 1000)).count().next().intValue());
+        assertEquals(3, seen.size());
+        seen.clear();
+
+        // the sorted age range is more selective than the name equality (the fake predicate is now tested last)
+        assertEquals(5, g.traversal().V().has("age", spy, 0).has("name", "even").has("age", Compare.gte, 90).count().next().intValue());
+        assertEquals(5, seen.size());
+        assertEquals(10, TinkerHelper.queryVertexIndex(g, Arrays.asList(new HasContainer("name", Compare.eq, "even"), new HasContainer("age", Compare.gte, 90))).size());
+        // the wide range stops being walked once it holds more candidates than the name equality
+        assertEquals(51, TinkerHelper.queryVertexIndex(g, Arrays.asList(new HasContainer("age", Compare.gte, 0), new HasContainer("name", Compare.eq, "even"))).size());
+        seen.clear();
+        assertEquals(1, g.traversal().V().has("age", spy, 0).has("age", Compare.gt, 100L).count().next().intValue());
+        assertEquals(Collections.singleton(1000L), seen);
+        seen.clear();
+
+        g.traversal().V().has("age", 95).next().property(VertexProperty.Cardinality.single, "age", 5);
+        assertEquals(8, g.traversal().V().has("age", Compare.gt, 90).count().next().intValue());
+        assertEquals(2, g.traversal().V().has("age", 5).count().next().intValue());
+
+        // a multi-property vertex falls in several buckets of the range but is only returned once
+        g.traversal().V().has("age", 99).next().property(VertexProperty.Cardinality.list, "age", 98);
+        assertEquals(8, g.traversal().V().has("age", Compare.gt, 90).count().next().intValue());
+    }
+
+    @Test
+    public void shouldAnswerLookupsFromCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("tenant", Vertex.class);
+        g.createCompositeIndex(Vertex.class, "tenant", "externalId");
+        g.createCompositeIndex(Vertex.class, T.label.getAccessor(), "tenant", "externalId");
+
+        for (int i = 0; i < 200; i++) {
+            g.addVertex(T.label, i % 4 == 0 ? "account" : "user", "tenant", "t" + (i % 2), "externalId", i / 2);
+        }
+        g.createCompositeIndex(Edge.class, "oid", "weight");
+        assertEquals(3, g.getCompositeIndexKeys(Vertex.class).size() + g.getCompositeIndexKeys(Edge.class).size());
+
+        // the fake predicate sees only the candidates handed out by the index, so it tracks index selection
+        final Set<Object> seen = new HashSet<>();
+        final BiPredicate<Object, Object> spy = (t, u) -> {
+            seen.add(t);
+            return true;
+        };
+
+        assertEquals(1, g.traversal().V().has("externalId", spy, 0).has("tenant", "t1").has("externalId", 7).count().next().intValue());
+        assertEquals(Collections.singleton(7), seen);
+        seen.clear();
+        assertEquals(100, g.traversal().V().has("externalId", spy, 0).has("tenant", "t0").count().next().intValue());
+        assertEquals(100, seen.size());
+        seen.clear();
+
+        // the longest prefix of the label composite index is label and tenant
+        assertEquals(50, g.traversal().V().has("externalId", spy, 0).has(T.label, "account").has("tenant", "t0").count().next().intValue());
+        assertEquals(50, seen.size());
+        seen.clear();
+
+        final Vertex v = g.traversal().V().has("tenant", "t1").has("externalId", 7).next();
+        v.property(VertexProperty.Cardinality.single, "externalId", 1000);
+        assertEquals(0, g.traversal().V().has("tenant", "t1").has("externalId", 7).count().next().intValue());
+        assertEquals(1, g.traversal().V().has("tenant", "t1").has("externalId", 1000).count().next().intValue());
+        v.property("tenant").remove();
+        assertEquals(0, g.traversal().V().has("tenant", "t1").has("externalId", 1000).count().next().intValue());
+        v.property("tenant", "t1");
+        assertEquals(1, g.traversal().V().has("tenant", "t1").has("externalId", 1000).count().next().intValue());
+        v.remove();
+        assertEquals(0, g.traversal().V().has("tenant", "t1").has("externalId", 1000).count().next().intValue());
+
+        g.dropCompositeIndex(Vertex.class, "tenant", "externalId");
+        assertEquals(1, g.getCompositeIndexKeys(Vertex.class).size());
+    }
+
+    @Test
+    public void shouldAnswerPrefixLookupsOfElementsWithoutTheTrailingKeys() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex(T.label.getAccessor(), Vertex.class);
+        g.createCompositeIndex(Vertex.class, "tenant", "externalId");
+        g.addVertex("tenant", "t0", "externalId", 1);
+        g.addVertex("tenant", "t0");
+        g.addVertex("tenant", "t1");
+        g.addVertex("account");
+
+        assertEquals(2, TinkerHelper.queryVertexIndex(g, Collections.singletonList(new HasContainer("tenant", Compare.eq, "t0"))).size());
+        assertEquals(1, TinkerHelper.queryVertexIndex(g, Arrays.asList(new HasContainer("tenant", Compare.eq, "t0"), new HasContainer("externalId", Compare.eq, 1))).size());
+        // the label of a vertex without properties is indexed as it is created
+        assertEquals(1, TinkerHelper.queryVertexIndex(g, Collections.singletonList(new HasContainer(T.label.getAccessor(), Compare.eq, "account"))).size());
+        assertEquals(1, g.traversal().V().hasLabel("account").count().next().intValue());
+    }
+
+    @Test
+    public void shouldGenerateDistinctIdsUnderConcurrentLoad() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex root = g.addVertex(T.id, 5000l);
+
+        final int threads = 4;
+        final int verticesPerThread = 5000;
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < verticesPerThread; i++) {
+                    g.addVertex("i", i).addEdge("knows", root);
+                }
+            });
+            workers[t].start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+
+        final Set<Object> ids = new HashSet<>();
+        g.vertices().forEachRemaining(v -> {
+            assertTrue(ids.add(v.id()));
+            v.properties().forEachRemaining(p -> assertTrue(ids.add(p.id())));
+        });
+        g.edges().forEachRemaining(e -> assertTrue(ids.add(e.id())));
+        assertEquals(1 + threads * verticesPerThread * 3, ids.size());
+
+        // generated ids skip past user supplied ones rather than probing for them
+        g.addVertex(T.id, 1000000l);
+        assertTrue((Long) g.addVertex().id() > 1000000l);
+    }
+
+    @Test
+    public void shouldOnlyIndexTheLabelOfTheVertexThatIsStoredUnderASuppliedId() throws Exception {
+        for (final boolean primitiveIdStorage : new boolean[]{false, true}) {
+            final Configuration conf = new BaseConfiguration();
+            conf.setProperty(TinkerGraph.CONFIG_PRIMITIVE_ID_STORAGE, primitiveIdStorage);
+            final TinkerGraph g = TinkerGraph.open(conf);
+            g.createIndex(T.label.getAccessor(), Vertex.class);
+
+            final int threads = 4;
+            final int vertices = 5000;
+            final Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    for (long id = 0; id < vertices; id++) {
+                        try {
+                            g.addVertex(T.id, id, T.label, "person");
+                        } catch (final IllegalArgumentException e) {
+                            // another worker added the vertex first
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            for (final Thread worker : workers) {
+                worker.join();
+            }
+
+            final List<TinkerVertex> persons = TinkerHelper.queryVertexIndex(g, Collections.singletonList(new HasContainer(T.label.getAccessor(), Compare.eq, "person")));
+            assertEquals(vertices, persons.size());
+            persons.forEach(v -> assertTrue(v == g.vertices(v.id()).next()));
+        }
+    }
+
+    @Test
+    public void shouldGenerateIdsWithConfiguredIdManager() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_ID_MANAGER, TinkerGraph.DefaultIdManager.UUID.name());
+        final TinkerGraph g = TinkerGraph.open(conf);
+        final Vertex v = g.addVertex("name", "marko");
+        assertTrue(v.id() instanceof UUID);
+        assertEquals(4, ((UUID) v.id()).version());
+        assertTrue(v.property("name").id() instanceof UUID);
+        assertTrue(v.addEdge("self", v).id() instanceof UUID);
+        assertEquals(v, g.vertices(v.id()).next());
+
+        conf.setProperty(TinkerGraph.CONFIG_ID_MANAGER, TinkerGraph.DefaultIdManager.STRING.name());
+        assertTrue(TinkerGraph.open(conf).addVertex().id() instanceof String);
+    }
+
+    @Test
+    public void shouldStoreElementsByPrimitiveId() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.CONFIG_PRIMITIVE_ID_STORAGE, true);
+        final TinkerGraph g = TinkerGraph.open(conf);
+
+        final int threads = 4;
+        final int verticesPerThread = 10000;
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                final List<Vertex> added = new ArrayList<>();
+                for (int i = 0; i < verticesPerThread; i++) {
+                    added.add(g.addVertex("i", i));
+                }
+                for (int i = 0; i < added.size(); i = i + 2) {
+                    added.get(i).remove();
+                }
+            });
+            workers[t].start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(threads * verticesPerThread / 2, IteratorUtils.count(g.vertices()));
+        g.vertices().forEachRemaining(v -> {
+            assertEquals(1, v.<Integer>value("i") % 2);
+            assertEquals(v, g.vertices(v.id()).next());
+        });
+
+        // ids that are not Long are kept apart, even if they are equal numbers
+        final Vertex a = g.addVertex(T.id, "a");
+        final Vertex one = g.addVertex(T.id, 1);
+        final Vertex oneLong = g.addVertex(T.id, -1l);
+        assertEquals(a, g.vertices("a").next());
+        assertEquals(one, g.vertices(1).next());
+        assertEquals(oneLong, g.vertices(-1l).next());
+        assertFalse(g.vertices(-1).hasNext());
+        assertEquals(threads * verticesPerThread / 2 + 3, IteratorUtils.count(g.vertices()));
+
+        // a removed id can be added again
+        oneLong.remove();
+        assertFalse(g.vertices(-1l).hasNext());
+        assertEquals(-1l, g.addVertex(T.id, -1l).id());
+        assertEquals(threads * verticesPerThread / 2 + 3, IteratorUtils.count(g.vertices()));
+
+        g.clear();
+        assertFalse(g.vertices().hasNext());
+    }
+
+    @Test
+    public void shouldBulkTraversersBetweenVertexSteps() {
+        final Graph graph = TinkerFactory.createModern();
+        final GraphTraversalSource g = graph.traversal();
+        final GraphTraversalSource unbulked = (GraphTraversalSource) GraphTraversalSource.standard().without(LazyBarrierStrategy.class).create(graph);
+
+        final Traversal<Vertex, Long> traversal = g.V().both().both().both().count();
+        assertEquals(unbulked.V().both().both().both().count().next(), traversal.next());
+        assertEquals(2, TraversalHelper.getStepsOfClass(NoOpBarrierStep.class, traversal.asAdmin()).size());
+        assertEquals(unbulked.V().both().both().both().groupCount().by("name").next(), g.V().both().both().both().groupCount().by("name").next());
+        assertEquals(unbulked.V().both().both().values("name").toList().size(), g.V().both().both().values("name").toList().size());
+
+        // path traversers can not be merged
+        final Traversal<Vertex, Path> paths = g.V().both().both().both().path();
+        assertEquals(unbulked.V().both().both().both().path().toList().size(), paths.toList().size());
+        assertEquals(0, TraversalHelper.getStepsOfClass(NoOpBarrierStep.class, paths.asAdmin()).size());
+    }
+
+    @Test
+    public void shouldStopPullingOnceRangeIsSatisfied() {
+        final TinkerGraph graph = TinkerGraph.open();
+        for (int i = 0; i < 1000; i++) {
+            graph.addVertex("type", i % 2 == 0 ? "x" : "y");
+        }
+        final GraphTraversalSource g = graph.traversal();
+
+        final AtomicLong pulled = new AtomicLong(0l);
+        assertEquals(3, g.V().has("type", "x").map(t -> {
+            pulled.incrementAndGet();
+            return t.get();
+        }).limit(3).toList().size());
+        assertEquals(3l, pulled.get());
+
+        pulled.set(0l);
+        assertEquals(2, g.V().has("type", "y").map(t -> {
+            pulled.incrementAndGet();
+            return t.get();
+        }).range(1, 3).toList().size());
+        assertEquals(3l, pulled.get());
+
+        final GraphTraversalSource batched = GraphTraversalSource.standard().with(BatchExecutionStrategy.build().batchSize(64).create()).create(graph);
+        assertEquals(Arrays.asList("x", "x", "x"), batched.V().has("type", "x").limit(3).values("type").toList());
+    }
+
+    @Test
+    public void shouldNotStreamElementsAddedByLambdasOfTheTraversal() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final GraphTraversalSource g = graph.traversal();
+        assertEquals(6l, g.V().sideEffect(t -> graph.addVertex("name", "copy")).count().next().longValue());
+        assertEquals(12l, IteratorUtils.count(graph.vertices()));
+        assertEquals(6l, g.E().sideEffect(t -> t.get().outVertex().addEdge(t.get().label(), t.get().inVertex())).count().next().longValue());
+        assertEquals(12l, IteratorUtils.count(graph.edges()));
+    }
+
+    @Test
+    public void shouldOrderEqualTraversersWithoutMergingThem() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        assertEquals(Arrays.asList("josh", "lop", "lop", "lop", "ripple", "vadas"), g.V().out().values("name").order().toList());
+        assertEquals(Arrays.asList(0.2d, 0.4d, 0.4d, 0.5d, 1.0d, 1.0d), g.E().values("weight").order().toList());
+    }
+
+    @Test
+    public void shouldOrderTopKTraversers() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(7l);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            vertices.add(graph.addVertex("score", random.nextInt(100)));
+        }
+        for (int i = 0; i < 2000; i++) {
+            vertices.get(random.nextInt(vertices.size())).addEdge("knows", vertices.get(random.nextInt(vertices.size())));
+        }
+        final GraphTraversalSource g = graph.traversal();
+        final GraphTraversalSource unfused = (GraphTraversalSource) GraphTraversalSource.standard().without(OrderLimitStrategy.class).create(graph);
+
+        final Traversal<Vertex, Object> traversal = g.V().out().out().values("score").order().by(Order.decr).limit(10);
+        assertEquals(unfused.V().out().out().values("score").order().by(Order.decr).limit(10).toList(), traversal.toList());
+        assertFalse(TraversalHelper.hasStepOfClass(RangeGlobalStep.class, traversal.asAdmin()));
+        assertEquals(unfused.V().out().out().values("score").order().range(15, 40).toList(), g.V().out().out().values("score").order().range(15, 40).toList());
+        assertEquals(unfused.V().order().by("score", Order.incr).limit(5).values("score").toList(), g.V().order().by("score", Order.incr).limit(5).values("score").toList());
+
+        final GraphTraversalSource computer = graph.traversal(GraphTraversalSource.computer());
+        assertEquals(unfused.V().out().values("score").order().by(Order.decr).limit(10).toList(), computer.V().out().values("score").order().by(Order.decr).limit(10).toList());
+        assertEquals(unfused.V().out().values("score").order().range(15, 40).toList(), computer.V().out().values("score").order().range(15, 40).toList());
+    }
+
+    @Test
+    public void shouldSplitTraversalsOverForkJoinPool() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Random random = new Random(11l);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            vertices.add(graph.addVertex("score", random.nextInt(100)));
+        }
+        for (int i = 0; i < 5000; i++) {
+            vertices.get(random.nextInt(vertices.size())).addEdge("knows", vertices.get(random.nextInt(vertices.size())));
+        }
+        final GraphTraversalSource g = graph.traversal();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final GraphTraversalSource parallel = graph.traversal(GraphTraversalSource.build().engine(ParallelTraversalEngine.build().pool(pool).chunkSize(16)));
+
+            final Traversal<Vertex, Long> traversal = parallel.V().out().out().count();
+            assertEquals(g.V().out().out().count().next(), traversal.next());
+            assertEquals(1, TraversalHelper.getStepsOfClass(ParallelStep.class, traversal.asAdmin()).size());
+            assertEquals(g.V().out().out().has("score", Compare.lt, 50).values("score").sum().next(), parallel.V().out().out().has("score", Compare.lt, 50).values("score").sum().next());
+            assertEquals(g.V().both().values("score").groupCount().next(), parallel.V().both().values("score").groupCount().next());
+            assertEquals(g.V().out().values("score").order().toList(), parallel.V().out().values("score").order().toList());
+
+            // the vertices are split by the graph and their containers are tested within the chunks
+            final Traversal<Vertex, Long> filtered = parallel.V().has("score", Compare.lt, 50).out().count();
+            assertEquals(g.V().has("score", Compare.lt, 50).out().count().next(), filtered.next());
+            final Spliterator<Vertex> spliterator = ((GraphStep<Vertex>) (Step) filtered.asAdmin().getStartStep()).getSpliterator();
+            assertEquals(1000, spliterator.estimateSize());
+            assertNotNull(spliterator.trySplit());
+            graph.createIndex("score", Vertex.class, TinkerGraph.IndexType.SORTED);
+            assertEquals(g.V().has("score", Compare.lt, 50).out().count().next(), parallel.V().has("score", Compare.lt, 50).out().count().next());
+            assertEquals(g.V().has("score", 7).out().out().count().next(), parallel.V().has("score", 7).out().out().count().next());
+
+            // traversals without a barrier or with global filters and lambdas run on the calling thread
+            final Traversal<Vertex, Object> unbarriered = parallel.V().out().values("score");
+            assertEquals(g.V().out().values("score").toList(), unbarriered.toList());
+            assertFalse(TraversalHelper.hasStepOfClass(ParallelStep.class, unbarriered.asAdmin()));
+            final Traversal<Vertex, Long> deduped = parallel.V().out().dedup().count();
+            assertEquals(g.V().out().dedup().count().next(), deduped.next());
+            assertFalse(TraversalHelper.hasStepOfClass(ParallelStep.class, deduped.asAdmin()));
+            final Traversal<Vertex, Long> lambda = parallel.V().out().filter(t -> true).count();
+            assertEquals(g.V().out().count().next(), lambda.next());
+            assertFalse(TraversalHelper.hasStepOfClass(ParallelStep.class, lambda.asAdmin()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldOnlyExecuteVerticesThatHaveNotHaltedOrWereMessaged() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex a = graph.addVertex(T.id, "a");
+        final Vertex b = graph.addVertex(T.id, "b");
+        final Vertex c = graph.addVertex(T.id, "c");
+        graph.addVertex(T.id, "d");
+        a.addEdge("next", b);
+        b.addEdge("next", c);
+
+        // every vertex halts in the first iteration and the iteration after the first vote to halt runs every
+        // vertex, as the receivers of its local messages were not scheduled, after which only messaged vertices run
+        ComputerResult result = graph.compute().isolation(GraphComputer.Isolation.BSP).program(new ChainVertexProgram()).submit().get();
+        assertEquals(Arrays.asList("0:a", "0:b", "0:c", "0:d", "1:a", "1:b", "1:c", "1:d", "2:c"), ChainVertexProgram.EXECUTIONS.stream().sorted().collect(Collectors.toList()));
+        // the computation ends once no vertex is active rather than when the program terminates it
+        assertEquals(2, result.memory().getIteration());
+        ChainVertexProgram.EXECUTIONS.clear();
+        result.close();
+
+        // asynchronously, the receivers of the messages of the first iteration run in the second, where the message
+        // reaches the end of the chain without another iteration
+        result = graph.compute().isolation(GraphComputer.Isolation.ASP).program(new ChainVertexProgram()).submit().get();
+        assertEquals(Arrays.asList("0:a", "0:b", "0:c", "0:d", "1:b", "1:c"), ChainVertexProgram.EXECUTIONS.stream().sorted().collect(Collectors.toList()));
+        assertEquals(1, result.memory().getIteration());
+        ChainVertexProgram.EXECUTIONS.clear();
+        result.close();
+    }
+
+    @Test
+    public void shouldExecuteAMessagedVertexWithinTheIterationWithAsynchronousIsolation() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final List<String> expected = new ArrayList<>();
+        Vertex previous = graph.addVertex(T.id, "a");
+        expected.add("0:a");
+        for (int i = 1; i < 1000; i++) {
+            final Vertex vertex = graph.addVertex(T.id, "v" + i);
+            previous.addEdge("next", vertex);
+            previous = vertex;
+            expected.add("0:v" + i);
+            expected.add("1:v" + i);
+        }
+        Collections.sort(expected);
+
+        // the message travels the whole chain in the second iteration and every vertex runs once for its message
+        // even though several workers take from the queue at once
+        final ComputerResult result = ((TinkerGraphComputer) graph.compute()).workers(4).isolation(GraphComputer.Isolation.ASP).program(new ChainVertexProgram()).submit().get();
+        assertEquals(expected, ChainVertexProgram.EXECUTIONS.stream().sorted().collect(Collectors.toList()));
+        assertEquals(1, result.memory().getIteration());
+        ChainVertexProgram.EXECUTIONS.clear();
+        result.close();
+    }
+
+    @Test
+    public void shouldNotExecuteVertexProgramsThatDoNotSupportAsynchronousIsolation() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        try {
+            graph.compute().isolation(GraphComputer.Isolation.ASP).program(PageRankVertexProgram.build().create()).submit().get();
+            fail("PageRankVertexProgram does not support asynchronous isolation");
+        } catch (final IllegalArgumentException e) {
+            assertEquals(GraphComputer.Exceptions.isolationNotSupportedByVertexProgram(PageRankVertexProgram.build().create(), GraphComputer.Isolation.ASP).getMessage(), e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldSendOneTraverserMessagePerVertex() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex a = graph.addVertex();
+        final Vertex b = graph.addVertex();
+        final Vertex c = graph.addVertex();
+        a.addEdge("knows", b);
+        a.addEdge("likes", b);
+        a.addEdge("knows", c);
+
+        final Traversal.Admin<Vertex, Vertex> traversal = graph.traversal(GraphTraversalSource.computer()).V().out().asAdmin();
+        traversal.applyStrategies();
+        final Traverser.Admin<Vertex> start = traversal.getTraverserGenerator().generate(a, (Step) traversal.getStartStep(), 1l);
+        start.setStepId(traversal.getStartStep().getNextStep().getId());
+        a.property(TraversalVertexProgram.HALTED_TRAVERSERS, new TraverserSet<>());
+
+        final List<TraverserSet<?>> messages = new ArrayList<>();
+        final Messenger<TraverserSet<?>> messenger = new Messenger<TraverserSet<?>>() {
+            @Override
+            public Iterable<TraverserSet<?>> receiveMessages(final MessageScope messageScope) {
+                return Collections.singletonList(new TraverserSet<>(start));
+            }
+
+            @Override
+            public void sendMessage(final MessageScope messageScope, final TraverserSet<?> message) {
+                messages.add(message);
+            }
+        };
+        assertFalse(TraverserExecutor.execute(a, messenger, new TraversalMatrix<>(traversal), Collections.emptyMap()));
+
+        // the two traversers that go to b are merged into one bulked traverser of a single message
+        assertEquals(2, messages.size());
+        assertEquals(3l, messages.stream().mapToLong(TraverserSet::bulkSize).sum());
+        assertEquals(2, messages.stream().mapToInt(TraverserSet::size).sum());
+    }
+
+    @Test
+    public void shouldSendAdjacentTraversersAlongIncidentEdges() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex a = graph.addVertex();
+        final Vertex b = graph.addVertex();
+        a.addEdge("knows", b);
+        a.addEdge("likes", b);
+
+        final Traversal.Admin<Vertex, Vertex> traversal = graph.traversal(GraphTraversalSource.computer()).V().out().out().asAdmin();
+        traversal.applyStrategies();
+        final Step<?, ?> out1 = traversal.getSteps().get(1);
+        final Step<?, ?> out2 = traversal.getSteps().get(2);
+        final MessageScope.Local<TraverserSet<?>> scope1 = MessageScope.Local.of(__::outE);
+        final MessageScope.Local<TraverserSet<?>> scope2 = MessageScope.Local.of(__::outE);
+        final Map<String, MessageScope.Local<TraverserSet<?>>> localMessageScopes = new HashMap<>();
+        localMessageScopes.put(out1.getId(), scope1);
+        localMessageScopes.put(out2.getId(), scope2);
+        final Traverser.Admin<Vertex> start = traversal.getTraverserGenerator().generate(a, (Step) traversal.getStartStep(), 1l);
+        start.setStepId(out1.getId());
+        a.property(TraversalVertexProgram.HALTED_TRAVERSERS, new TraverserSet<>());
+        b.property(TraversalVertexProgram.HALTED_TRAVERSERS, new TraverserSet<>());
+
+        // the traverser leaves a as a single local message that is already at the second out()
+        final Map<MessageScope, TraverserSet<?>> messagesOfA = new HashMap<>();
+        assertFalse(TraverserExecutor.execute(a, new Messenger<TraverserSet<?>>() {
+            @Override
+            public Iterable<TraverserSet<?>> receiveMessages(final MessageScope messageScope) {
+                return messageScope instanceof MessageScope.Global ? Collections.singletonList(new TraverserSet<>(start)) : Collections.emptyList();
+            }
+
+            @Override
+            public void sendMessage(final MessageScope messageScope, final TraverserSet<?> message) {
+                messagesOfA.put(messageScope, message);
+            }
+        }, new TraversalMatrix<>(traversal), localMessageScopes));
+        assertEquals(1, messagesOfA.size());
+        final TraverserSet<?> sent = messagesOfA.get(scope1);
+        assertEquals(1, sent.size());
+        assertEquals(out2.getId(), sent.peek().getStepId());
+
+        // b reads the message over both of its incident edges and takes the second out() along its own edges in turn
+        final Map<MessageScope, TraverserSet<?>> messagesOfB = new HashMap<>();
+        assertFalse(TraverserExecutor.execute(b, new Messenger<TraverserSet<?>>() {
+            @Override
+            public Iterable<TraverserSet<?>> receiveMessages(final MessageScope messageScope) {
+                return messageScope == scope1 ? Arrays.asList(sent, sent) : Collections.emptyList();
+            }
+
+            @Override
+            public void sendMessage(final MessageScope messageScope, final TraverserSet<?> message) {
+                messagesOfB.put(messageScope, message);
+            }
+        }, new TraversalMatrix<>(traversal), localMessageScopes));
+        assertEquals(1, messagesOfB.size());
+        final TraverserSet<?> forwarded = messagesOfB.get(scope2);
+        assertEquals(1, forwarded.size());
+        assertEquals(2l, forwarded.bulkSize());
+        assertEquals(b.id(), ((Vertex) forwarded.peek().get()).id());
+        assertEquals(out2.getNextStep().getId(), forwarded.peek().getStepId());
+        // the message of a is shared by all of its adjacent vertices and is left as it was sent
+        assertEquals(a.id(), ((Vertex) sent.peek().get()).id());
+        assertEquals(out2.getId(), sent.peek().getStepId());
+    }
+
+    @Test
+    public void shouldReuseCompiledTraversalsOfTheSameSteps() {
+        final Graph graph = TinkerFactory.createModern();
+        final TraversalPlanCache planCache = TraversalPlanCache.build().create();
+        final GraphTraversalSource cached = graph.traversal(GraphTraversalSource.build().planCache(planCache));
+        final GraphTraversalSource g = graph.traversal();
+
+        final List<Function<GraphTraversalSource, Traversal<?, ?>>> traversals = Arrays.asList(
+                s -> s.V().has("name", "marko").out("knows").values("name"),
+                s -> s.V().out().out().count(),
+                s -> s.V().has("age", Compare.gt, 28).order().by("age", Order.decr).limit(2).values("name"),
+                s -> s.V().hasNot(out("created").count().is(0)).values("name"),
+                s -> s.V().repeat(out()).times(2).path().by("name"),
+                s -> s.V().as("a").out("created").in("created").as("b").select("a", "b").by("name").where("a", Compare.neq, "b"),
+                s -> s.V().groupCount().by(T.label),
+                s -> s.V().hasLabel("person").local(outE().limit(1)).inV().dedup().values("name"),
+                s -> s.E().has("weight", Compare.gte, 0.5d).outV().values("name"),
+                s -> s.V().union(out("knows"), in("created")).values("name"));
+        for (final Function<GraphTraversalSource, Traversal<?, ?>> traversal : traversals) {
+            // paths are compared by their string as they are not equal to one another
+            final String expected = traversal.apply(g).toList().toString();
+            assertEquals(expected, traversal.apply(cached).toList().toString());
+            assertEquals(expected, traversal.apply(cached).toList().toString());
+        }
+        assertEquals(traversals.size(), planCache.size());
+        assertEquals(traversals.size(), planCache.getHits());
+
+        // the values of the containers are bound to a clone of the cached compilation without changing it
+        assertEquals(Arrays.asList("marko", "josh"), cached.E().has("weight", Compare.gte, 0.9d).outV().values("name").toList());
+        assertEquals(Collections.singletonList("peter"), cached.V().has("age", Compare.gt, 32).order().by("age", Order.decr).limit(2).values("name").toList());
+        assertEquals(Collections.emptyList(), cached.V().has("name", "vadas").out("knows").values("name").toList());
+        assertEquals(traversals.get(0).apply(g).toList(), traversals.get(0).apply(cached).toList());
+        assertEquals(traversals.size(), planCache.size());
+        assertEquals(traversals.size() + 4, planCache.getHits());
+
+        // any other value of a step is part of the shape as the strategies may compile it differently
+        assertEquals(g.V().hasNot(out("created").count().is(1)).values("name").toList(), cached.V().hasNot(out("created").count().is(1)).values("name").toList());
+        assertEquals(Collections.singletonList("peter"), cached.V().has("age", Compare.gt, 28).order().by("age", Order.decr).limit(1).values("name").toList());
+        assertEquals(traversals.size() + 2, planCache.size());
+        assertEquals(traversals.size() + 4, planCache.getHits());
+
+        // side-effects are those of the traversal that takes on the cached compilation
+        final Traversal<Vertex, Map<Object, Long>> groupCount = cached.V().out().groupCount("x").by("name").cap("x");
+        assertEquals(g.V().out().groupCount("x").by("name").cap("x").next(), groupCount.next());
+        final Traversal<Vertex, Map<Object, Long>> again = cached.V().out().groupCount("x").by("name").cap("x");
+        assertEquals(g.V().out().groupCount("x").by("name").cap("x").next(), again.next());
+        assertEquals(traversals.size() + 5, planCache.getHits());
+        assertFalse(groupCount.asAdmin().getSideEffects() == again.asAdmin().getSideEffects());
+    }
+
+    @Test
+    public void shouldKeepStatisticsOfLabelsAndIndexedKeys() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final GraphStatistics statistics = graph.statistics();
+        assertEquals(6l, statistics.count(Vertex.class));
+        assertEquals(4l, statistics.count(Vertex.class, "person"));
+        assertEquals(2l, statistics.count(Vertex.class, "software"));
+        assertEquals(4l, statistics.count(Edge.class, "created"));
+        assertEquals(1.0d, statistics.averageDegree(), 0.0d);
+        assertEquals(GraphStatistics.UNKNOWN, statistics.count(Vertex.class, "name", "marko"));
+        graph.createIndex("name", Vertex.class);
+        assertEquals(1l, statistics.count(Vertex.class, "name", "marko"));
+
+        // the has-containers are compiled into the graph step with the label first and reordered by the statistics when executed
+        final GraphTraversalSource g = graph.traversal();
+        final Traversal<Vertex, Vertex> traversal = g.V().has("age", Compare.gt, 20).has("name", "marko").hasLabel("person");
+        traversal.asAdmin().applyStrategies();
+        assertEquals("[TinkerGraphStep(vertex,[[~label,eq,person], [name,eq,marko], [age,gt,20]])]", traversal.toString());
+        assertEquals(Collections.singletonList(graph.vertices(1).next()), traversal.toList());
+
+        graph.vertices(1).next().remove();
+        assertEquals(3l, statistics.count(Vertex.class, "person"));
+        assertEquals(0l, statistics.count(Edge.class, "knows"));
+        assertEquals(3l, statistics.count(Edge.class, "created"));
+        assertEquals(0l, statistics.count(Vertex.class, "name", "marko"));
+        graph.clear();
+        assertEquals(0l, statistics.count(Vertex.class, "software"));
+    }
+
+    @Test
+    public void shouldAnswerVertexCentricQueriesFromTheIndexOfTheVertex() {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.CONFIG_VERTEX_CENTRIC_INDEX_KEYS, "weight");
+        final TinkerGraph graph = TinkerGraph.open(configuration);
+        final Vertex a = graph.addVertex();
+        final List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            edges.add(a.addEdge(i % 2 == 0 ? "knows" : "created", graph.addVertex(), "weight", i / 100.0d));
+        }
+        a.addEdge("knows", graph.addVertex(), "since", 2010);
+        final GraphTraversalSource g = graph.traversal();
+
+        // the label and weight filters are folded into the vertex step of the graph
+        final Traversal<Vertex, Edge> traversal = g.V(a).outE().has("weight", Compare.gt, 0.9d).hasLabel("knows");
+        traversal.asAdmin().applyStrategies();
+        assertEquals(2, traversal.asAdmin().getSteps().size());
+        assertEquals("TinkerVertexStep(OUT,[knows],edge,[[weight,gt,0.9]])", traversal.asAdmin().getEndStep().toString());
+        assertEquals(Arrays.asList(92, 94, 96, 98), traversal.toList().stream().map(edge -> (int) Math.round(edge.<Double>value("weight") * 100)).sorted().collect(Collectors.toList()));
+
+        final Supplier<Long> heavyKnows = () -> g.V(a).outE("knows").has("weight", Compare.gt, 0.9d).count().next();
+        assertEquals(1l, g.V(a).outE("knows").has("weight", 0.5d).count().next().longValue());
+        assertEquals(1l, g.V(a).outE().has("since").count().next().longValue());
+        assertEquals(51l, g.V(a).outE("knows").count().next().longValue());
+        assertEquals(1l, g.V(edges.get(96).inVertex()).inE().has("weight", Compare.gte, 0.96d).count().next().longValue());
+
+        // the index is maintained as the edges and their weights change
+        edges.get(98).property("weight", 0.1d);
+        assertEquals(3l, heavyKnows.get().longValue());
+        edges.get(50).property("weight", 0.95d);
+        assertEquals(4l, heavyKnows.get().longValue());
+        assertEquals(0l, g.V(a).outE("knows").has("weight", 0.5d).count().next().longValue());
+        edges.get(92).property("weight").remove();
+        assertEquals(3l, heavyKnows.get().longValue());
+        edges.get(94).remove();
+        assertEquals(2l, heavyKnows.get().longValue());
+        assertEquals(heavyKnows.get(), g.V(a).outE("knows").filter(e -> e.get().<Double>property("weight").orElse(0.0d) > 0.9d).count().next());
+    }
+
+    @Test
+    public void shouldMaintainIndicesUnderConcurrentMutation() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.SORTED);
+        g.createCompositeIndex(Vertex.class, "name", "age");
+
+        final int threads = 4;
+        final int verticesPerThread = 2000;
+        final Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            workers[t] = new Thread(() -> {
+                final List<Vertex> added = new ArrayList<>();
+                for (int i = 0; i < verticesPerThread; i++) {
+                    added.add(g.addVertex("name", "n" + (i % 10), "age", i % 50));
+                }
+                for (int i = 0; i < added.size(); i++) {
+                    if (i % 3 == offset % 3)
+                        added.get(i).remove();
+                    else if (i % 3 == 1)
+                        added.get(i).property(VertexProperty.Cardinality.single, "age", 100 + i % 7);
+                }
+            });
+            workers[t].start();
+        }
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            final String name = "n" + i;
+            assertEquals(IteratorUtils.count(IteratorUtils.filter(g.vertices(), v -> v.value("name").equals(name))),
+                    g.traversal().V().has("name", name).count().next().longValue());
+            assertEquals(IteratorUtils.count(IteratorUtils.filter(g.vertices(), v -> v.value("name").equals(name) && v.<Integer>value("age") == 101)),
+                    g.traversal().V().has("name", name).has("age", 101).count().next().longValue());
+        }
+        assertEquals(IteratorUtils.count(IteratorUtils.filter(g.vertices(), v -> v.<Integer>value("age") >= 100)),
+                g.traversal().V().has("age", Compare.gte, 100).count().next().longValue());
+    }
+
+    @Test
+    public void shouldBuildIndexOverMultiProperties() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex("name", "marko");
+        v.property(VertexProperty.Cardinality.list, "name", "marko a. rodriguez");
+        g.addVertex("name", "stephen");
+
+        g.createIndex("name", Vertex.class);
+        assertEquals(1, g.traversal().V().has("name", "marko").count().next().intValue());
+        assertEquals(1, g.traversal().V().has("name", "marko a. rodriguez").count().next().intValue());
+        v.remove();
+        assertEquals(0, g.traversal().V().has("name", "marko a. rodriguez").count().next().intValue());
+        assertEquals(1, g.traversal().V().has("name", "stephen").count().next().intValue());
+    }
+
+    @Test
+    public void shouldNotKeepStaleBucketsOfElementsUpdatedWhileTheIndexIsBuilt() throws Exception {
+        for (int run = 0; run < 10; run++) {
+            final TinkerGraph g = TinkerGraph.open();
+            final Vertex v = g.addVertex();
+            final List<Edge> edges = new ArrayList<>();
+            for (int i = 0; i < 50000; i++) {
+                edges.add(v.addEdge("self", v, "weight", i % 10));
+            }
+
+            final Random random = new Random(run);
+            final CountDownLatch started = new CountDownLatch(1);
+            final AtomicBoolean built = new AtomicBoolean(false);
+            final Thread writer = new Thread(() -> {
+                started.countDown();
+                for (int i = 0; !built.get(); i++) {
+                    final int index = random.nextInt(edges.size());
+                    if (i % 100 == 0)
+                        edges.remove(index).remove();
+                    else
+                        edges.get(index).property("weight", 10 + random.nextInt(10));
+                }
+            });
+            writer.start();
+            started.await();
+            g.createIndex("weight", Edge.class);
+            built.set(true);
+            writer.join();
+
+            // every edge is in the bucket of its weight and in no other bucket
+            long indexed = 0;
+            for (int weight = 0; weight < 20; weight++) {
+                for (final TinkerEdge edge : TinkerHelper.queryEdgeIndex(g, "weight", weight)) {
+                    assertEquals(weight, edge.<Integer>value("weight").intValue());
+                    indexed++;
+                }
+            }
+            assertEquals(edges.size(), indexed);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithSingleKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Vertex.class, "name");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotCreateIndexOfDifferentTypeForIndexedKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.SORTED);
+    }
+
     @Ignore
     @Test
     public void shouldUpdateVertexIndicesInNewGraph() {
@@ -625,6 +1667,147 @@ public class TinkerGraphTest {
         }, 0.5).has("oid", "1")).count());
     }
 
+    @Test
+    public void shouldExecuteTraversalWithAsynchronousIsolation() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal(GraphTraversalSource.build().engine(ComputerTraversalEngine.build().isolation(GraphComputer.Isolation.ASP)));
+        final List<String> names = g.V().out().out().<String>values("name").toList();
+        assertEquals(2, names.size());
+        assertTrue(names.containsAll(Arrays.asList("ripple", "lop")));
+        assertEquals(12l, g.V().both().count().next().longValue());
+    }
+
+    @Test
+    public void shouldTraverseCompactStorageAsTheDefaultStorage() {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.CONFIG_COMPACT_ADJACENCY, true);
+        configuration.setProperty(TinkerGraph.CONFIG_PRIMITIVE_ID_STORAGE, true);
+        final TinkerGraph compactCrew = TinkerGraph.open(configuration);
+        TinkerFactory.generateTheCrew(compactCrew);
+        final GraphTraversalSource c = compactCrew.traversal();
+        final GraphTraversalSource g = TinkerFactory.createTheCrew().traversal();
+        assertEquals(g.V().both().both().values("name").groupCount().next(), c.V().both().both().values("name").groupCount().next());
+        assertEquals(g.V().outE("develops", "uses").inV().values("name").groupCount().next(), c.V().outE("develops", "uses").inV().values("name").groupCount().next());
+        assertEquals(g.V(1).out("uses").values("name").toSet(), c.V(1).out("uses").values("name").toSet());
+        assertEquals(g.V().properties("location").has("startTime", Compare.gt, 2005).value().toSet(), c.V().properties("location").has("startTime", Compare.gt, 2005).value().toSet());
+
+        // generated long ids are kept in the primitive tables
+        final TinkerGraph compact = TinkerGraph.open(configuration);
+        final TinkerGraph standard = TinkerGraph.open();
+        for (final TinkerGraph graph : Arrays.asList(compact, standard)) {
+            final Random random = new Random(5l);
+            final List<Vertex> vertices = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                vertices.add(graph.addVertex("i", i));
+            }
+            for (int i = 0; i < 1000; i++) {
+                vertices.get(random.nextInt(vertices.size())).addEdge("label" + random.nextInt(3), vertices.get(random.nextInt(vertices.size())), "j", i);
+            }
+        }
+        assertTrue(compact.vertices instanceof TinkerPrimitiveIdMap);
+        final Function<GraphTraversalSource, Object> traversals = t -> Arrays.asList(
+                t.V().out("label0").out("label1", "label2").values("i").groupCount().next(),
+                t.V().bothE().otherV().count().next(),
+                t.V(10l, 20l, 30l).inE("label2").values("j").toSet(),
+                t.E(700l).outV().values("i").toList());
+        assertEquals(traversals.apply(standard.traversal()), traversals.apply(compact.traversal()));
+    }
+
+    @Test
+    public void shouldMaintainCompactAdjacencyThroughMutations() {
+        final Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.CONFIG_COMPACT_ADJACENCY, true);
+        final TinkerGraph graph = TinkerGraph.open(configuration);
+        final Vertex a = graph.addVertex();
+        final Vertex b = graph.addVertex();
+        final List<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            edges.add(a.addEdge("label" + (i % 3), b, "i", i));
+        }
+        for (int i = 0; i < 100; i = i + 2) {
+            edges.get(i).remove();
+        }
+        assertEquals(50, IteratorUtils.count(a.edges(Direction.OUT)));
+        assertEquals(50, IteratorUtils.count(b.vertices(Direction.IN)));
+        assertEquals(17, IteratorUtils.count(a.edges(Direction.OUT, "label0")));
+        assertEquals(33, IteratorUtils.count(b.edges(Direction.IN, "label1", "label2")));
+        a.edges(Direction.OUT, "label1").forEachRemaining(e -> assertEquals(1, e.<Integer>value("i") % 3));
+        b.remove();
+        assertEquals(0, IteratorUtils.count(a.edges(Direction.BOTH)));
+        assertEquals(0, IteratorUtils.count(graph.edges()));
+    }
+
+    @Test
+    public void shouldMutateAdjacencyWhileIterating() {
+        final Configuration configuration = new BaseConfiguration();
+        for (final boolean compactAdjacency : Arrays.asList(false, true)) {
+            configuration.setProperty(TinkerGraph.CONFIG_COMPACT_ADJACENCY, compactAdjacency);
+            final TinkerGraph graph = TinkerGraph.open(configuration);
+            final Vertex a = graph.addVertex();
+            for (int i = 0; i < 20; i++) {
+                a.addEdge(i % 2 == 0 ? "even" : "odd", graph.addVertex());
+            }
+            final Iterator<Edge> edges = a.edges(Direction.OUT);
+            int count = 0;
+            while (edges.hasNext()) {
+                final Edge edge = edges.next();
+                a.addEdge(edge.label(), edge.inVertex());
+                edge.remove();
+                count++;
+            }
+            assertEquals(20, count);
+            assertEquals(20, IteratorUtils.count(a.edges(Direction.OUT)));
+            final Iterator<Vertex> vertices = a.vertices(Direction.OUT, "odd", "even");
+            a.edges(Direction.OUT, "odd").forEachRemaining(Edge::remove);
+            assertEquals(10, IteratorUtils.count(vertices));
+        }
+    }
+
+    @Test
+    public void shouldReadAdjacencyInParallelToAWriter() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex a = graph.addVertex();
+        final List<Vertex> others = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            others.add(graph.addVertex());
+            a.addEdge(i % 2 == 0 ? "even" : "odd", others.get(i));
+        }
+
+        // readers never exhaust their iterators and the writer mutates the sets they are reading
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final AtomicLong writes = new AtomicLong(0);
+        final Thread writer = new Thread(() -> {
+            final Random random = new Random(0);
+            try {
+                for (int i = 0; i < 20000; i++) {
+                    final Iterator<Edge> edges = a.edges(Direction.OUT);
+                    edges.next().remove();
+                    a.addEdge(random.nextBoolean() ? "even" : "odd", others.get(random.nextInt(others.size())));
+                    writes.incrementAndGet();
+                }
+            } finally {
+                done.set(true);
+            }
+        });
+        writer.start();
+        final long reads = ForkJoinPool.commonPool().submit(() -> IntStream.range(0, 4).parallel().mapToLong(reader -> {
+            long count = 0;
+            while (!done.get()) {
+                final Iterator<Edge> edges = a.edges(Direction.OUT);
+                for (int i = 0; i < 100 && edges.hasNext(); i++) {
+                    edges.next();
+                    count++;
+                }
+            }
+            return count;
+        }).sum()).get();
+        writer.join();
+
+        assertTrue(reads > 0);
+        assertEquals(20000, writes.get());
+        assertEquals(1000, IteratorUtils.count(a.edges(Direction.OUT)));
+        assertEquals(1000, IteratorUtils.count(a.vertices(Direction.OUT, "odd", "even")));
+    }
+
     /**
      * This test helps with data conversions on Grateful Dead.  No Assertions...run as needed. Never read from the
      * GraphML source as it will always use a String identifier.
@@ -691,4 +1874,61 @@ public class TinkerGraphTest {
         GraphSONWriter.build().create().writeVertices(os5, g.traversal().V(), Direction.BOTH);
         os.close();
     }
+
+    /**
+     * Passes a message along the edges from the vertex with the id {@code a} and votes to halt in every execution.
+     */
+    private static final class ChainVertexProgram implements VertexProgram<Boolean> {
+
+        private static final Queue<String> EXECUTIONS = new ConcurrentLinkedQueue<>();
+        private static final MessageScope.Local<Boolean> NEXT = MessageScope.Local.of(__::outE);
+
+        @Override
+        public void setup(final Memory memory) {
+
+        }
+
+        @Override
+        public void execute(final Vertex vertex, final Messenger<Boolean> messenger, final Memory memory) {
+            EXECUTIONS.add(memory.getIteration() + ":" + vertex.id());
+            if (memory.isInitialIteration() ? vertex.id().equals("a") : messenger.receiveMessages(NEXT).iterator().hasNext())
+                messenger.sendMessage(NEXT, true);
+            messenger.voteToHalt();
+        }
+
+        @Override
+        public boolean terminate(final Memory memory) {
+            return memory.getIteration() >= 10;
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(final Memory memory) {
+            return Collections.singleton(NEXT);
+        }
+
+        @Override
+        public ChainVertexProgram clone() {
+            return this;
+        }
+
+        @Override
+        public Features getFeatures() {
+            return new Features() {
+                @Override
+                public boolean supportsIsolation(final GraphComputer.Isolation isolation) {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.ORIGINAL;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.NOTHING;
+        }
+    }
 }